@@ -1,6 +1,10 @@
 package ai;
 
 import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
 
 import game.Board;
 import game.CentralizationHeuristic;
@@ -8,13 +12,18 @@ import game.Move;
 import game.MoveOrderer;
 import game.QuadHeuristic;
 
-public class DeepThought implements Runnable {
+public class DeepThought implements Player {
 	// Constants
-	private static final int MAX_DEPTH = 6;
+	private static final int MAX_DEPTH = MoveOrderer.MAX_DEPTH_LEVEL;
 	private static final int UNDEFINED_BETA = Integer.MIN_VALUE;
 	private static final int UNDEFINED_ALPHA = Integer.MAX_VALUE;
 	private static final int OPPONENT_WIN = Integer.MIN_VALUE / 2;
 	private static final int DEEPTHOUGHT_WIN = Integer.MAX_VALUE / 2;
+	private static final int TRANSPOSITION_TABLE_SIZE = 32;
+	private static final long WIN_THREAT_SEARCH_TIME = 200;
+	private static final int PROOF_NUMBER_SEARCH_MAX_PAWNS = 12;
+	private static final long PROOF_NUMBER_SEARCH_TIME = 1000;
+	private static final int PROOF_NUMBER_TREE_SIZE = 32;
 	
 	// Variables holding the game state
 	private Board board;
@@ -25,15 +34,45 @@ public class DeepThought implements Runnable {
 	private QuadHeuristic quadHeuristic;
 	private CentralizationHeuristic centralizationHeuristic;
 	private MoveOrderer moveOrderer;
+	private TranspositionTable transpositionTable;
+	private WinThreatSolver winThreatSolver;
+	private ProofNumberSolver proofNumberSolver;
+	
+	// Search of the captures and connections at the leaves
+	private QuiescenceSearch quiescenceSearch;
 	
 	// Variables used in the search
 	private int currentMaxDepth;
-	private boolean runSearch;
-	private boolean lastRunFinished;
-	private Move bestMove;
+	private SearchController searchController;
+	private int bestMove;
+	private long nodesCount;
+	
+	// Packed moves of each depth, preallocated so the search doesn't allocate
+	private int[][] movesStack;
+	
+	// Parallel search of the root moves, the pool is null when the search uses a single thread
+	private ForkJoinPool searchPool;
+	private ConcurrentLinkedQueue<DeepThought> searchWorkers;
+	private ConcurrentLinkedQueue<DeepThought> idleWorkers;
+	private AtomicLong rootBound;
+	private double[] rootMoveValues;
+	private int[] rootMoveCounts;
+	private int maxSearchDepth;
 	
 	// Constructor
 	public DeepThought(Board initialBoard, int playerColor)
+	{
+		this(initialBoard, playerColor, TRANSPOSITION_TABLE_SIZE);
+	}
+	
+	// Constructor. The transposition table uses at most transpositionTableSize megabytes.
+	public DeepThought(Board initialBoard, int playerColor, int transpositionTableSize)
+	{
+		this(initialBoard, playerColor, new TranspositionTable(transpositionTableSize));
+	}
+	
+	// Constructor. The transposition table can share its entries with the tables of other search threads.
+	public DeepThought(Board initialBoard, int playerColor, TranspositionTable transpositionTable)
 	{
 		this.board = initialBoard;
 		this.deepthoughtColor = playerColor;
@@ -42,10 +81,17 @@ public class DeepThought implements Runnable {
 		this.quadHeuristic = this.board.getQuadHeuristic();
 		this.centralizationHeuristic = this.board.getCentralizationHeuristic();
 		this.moveOrderer = new MoveOrderer();
+		this.transpositionTable = transpositionTable;
+		this.winThreatSolver = new WinThreatSolver(this.board);
+		this.proofNumberSolver = null;
+		
+		this.movesStack = new int[MAX_DEPTH + 1][Board.MAX_MOVES];
 		
-		this.runSearch = false;
-		this.lastRunFinished = true;
-		this.bestMove = null;
+		this.searchController = new SearchController();
+		this.quiescenceSearch = new QuiescenceSearch(this.board, this.searchController);
+		this.bestMove = Move.NO_MOVE;
+		this.searchPool = null;
+		this.maxSearchDepth = MAX_DEPTH - 1;
 	}
 	
 	@Override
@@ -58,106 +104,204 @@ public class DeepThought implements Runnable {
 		}
 	}
 	
-	// Searches the best move possible. This method stops when stopSearchBestMove is called.
-	public void searchBestMove() throws InterruptedException
+	// Searches the best move possible. This method stops when stopSearchBestMove is called or at the deadline.
+	// A new search waits that the last one finished.
+	public synchronized void searchBestMove() throws InterruptedException
 	{
-		// Waits that the last execution finished to avoid errors
-		while(!this.lastRunFinished)
+		this.searchController.start();
+		
+		this.bestMove = Move.NO_MOVE;
+		this.nodesCount = 0;
+		this.transpositionTable.newSearch();
+		this.moveOrderer.ageHistory();
+		
+		// The workers of the last search are set to the current position, new ones are created when first needed
+		if(this.searchPool != null)
 		{
-			Thread.sleep(5);
+			this.idleWorkers.clear();
+			
+			for(DeepThought worker : this.searchWorkers)
+			{
+				worker.board.copyFrom(this.board);
+				worker.transpositionTable.newSearch();
+				worker.moveOrderer.ageHistory();
+				worker.nodesCount = 0;
+				
+				this.idleWorkers.add(worker);
+			}
 		}
 		
-		this.lastRunFinished = false;
-		this.runSearch = true;
+		// Plays a forced connection found by the connect-in-N solver without searching further
+		int winThreatResult = this.winThreatSolver.solve(this.deepthoughtColor, this.searchController.limitTime(WIN_THREAT_SEARCH_TIME));
 		
-		this.bestMove = null;
+		if(winThreatResult == WinThreatSolver.FORCED_WIN)
+		{
+			this.bestMove = this.winThreatSolver.getWinningMove();
+			return;
+		}
+		else if(winThreatResult == WinThreatSolver.FORCED_LOSS)
+		{
+			System.out.println("Warning: the opponent can force a connection in " + this.winThreatSolver.getConnectionMovesCount() + " moves");
+		}
+		
+		// With few pawns left, plays the winning move of a solved position. A proven loss still searches for the move delaying it the most.
+		if(this.board.getPawnsCount() <= PROOF_NUMBER_SEARCH_MAX_PAWNS)
+		{
+			// The tree is only allocated once few pawns are left
+			if(this.proofNumberSolver == null)
+			{
+				this.proofNumberSolver = new ProofNumberSolver(this.board, PROOF_NUMBER_TREE_SIZE);
+			}
+			
+			int proofResult = this.proofNumberSolver.solve(this.deepthoughtColor, this.searchController.limitTime(PROOF_NUMBER_SEARCH_TIME));
+			
+			if(proofResult == ProofNumberSolver.PROVEN_WIN)
+			{
+				this.bestMove = this.proofNumberSolver.getBestMove();
+				return;
+			}
+		}
 		
 		// Searches the best move possible using iterative deepening
-		for(currentMaxDepth = 1; this.runSearch; currentMaxDepth++)
+		for(currentMaxDepth = 1; this.searchController.isSearching() && currentMaxDepth <= this.maxSearchDepth; currentMaxDepth++)
 		{
 			System.out.println("Depth: " + currentMaxDepth);
 			//this.moveOrderer.resetKillerMoves();
 			
-			Move[] possibleMoves = this.board.getPossibleMoves(this.deepthoughtColor);
-			int bestMoveIndex = 0;
+			int[] possibleMoves = this.movesStack[0];
+			int possibleMovesCount = this.board.generatePossibleMoves(this.deepthoughtColor, possibleMoves);
+			
+			// The best move of the previous depth is searched first since it gives the best bound to the other moves
+			this.moveHashMoveFirst(possibleMoves, possibleMovesCount, this.bestMove);
+			
+			if(this.searchPool != null)
+			{
+				if(this.searchRootMovesInParallel(possibleMoves, possibleMovesCount))
+				{
+					return;
+				}
+				
+				System.out.println("Nodes: " + this.getNodesCount());
+				continue;
+			}
+			
+			int bestMoveIndex = -1;
 			double beta = UNDEFINED_BETA;
 			int betaMoveCount = 0;
 			
 			// Finds the best move at current max depth
-			for(int index = 0; index < possibleMoves.length && this.runSearch; index++)
+			for(int index = 0; index < possibleMovesCount && this.searchController.isSearching(); index++)
 			{
 				// Evaluates the move
 				this.board.makeMove(possibleMoves[index]);
 				double moveValue = this.minimum(beta, 1);
-				int moveCount = this.board.getPossibleMoves(this.deepthoughtColor).length;
+				int moveCount = this.board.countPossibleMoves(this.deepthoughtColor);
 				this.board.unmakeMove(possibleMoves[index]);
-			
-				// A winning move has been found, so we stop searching
-				if(moveValue == DEEPTHOUGHT_WIN)
+				
+				// The value of an interrupted move isn't reliable, even a win
+				if(!this.searchController.isSearching())
 				{
-					this.bestMove = possibleMoves[index];
-					this.lastRunFinished = true;
-					return;
+					break;
 				}
 				
-				// Prioritize moves which havn't moved during the game.
-				if(possibleMoves[index].getFromRowIndex() == 0 || possibleMoves[index].getFromRowIndex() == 7 || possibleMoves[index].getFromColumnIndex() == 0 || possibleMoves[index].getFromColumnIndex() == 7)
+				// A winning move has been found, so we stop searching
+				if(moveValue == DEEPTHOUGHT_WIN)
 				{
 					this.bestMove = possibleMoves[index];
+					return;
 				}
 				
 				// Determines if the move is a better move
-				if(moveValue > beta)
+				if(bestMoveIndex == -1 || this.isBetterRootMove(moveValue, moveCount, possibleMoves[index], beta, betaMoveCount, possibleMoves[bestMoveIndex]))
 				{
 					beta = moveValue;
 					bestMoveIndex = index;
 					betaMoveCount = moveCount;
 				}
-				else if(moveValue == beta && moveCount > betaMoveCount)
-				{
-					bestMoveIndex = index;
-					betaMoveCount = moveCount;
-				}
 			}
 			
-			this.bestMove = possibleMoves[bestMoveIndex];
+			// Only a completed depth replaces the best move. A search stopped during its first depth plays the best move it searched.
+			if(bestMoveIndex != -1 && (this.searchController.isSearching() || this.bestMove == Move.NO_MOVE))
+			{
+				this.bestMove = possibleMoves[bestMoveIndex];
+			}
+			
+			System.out.println("Nodes: " + this.getNodesCount());
 		}
-		
-		this.lastRunFinished = true;
 	}
 	
 	// Finds the best move for DeepThought
 	public double maximum(double alpha, int depth)
 	{
+		// The leaves are resolved by the quiescence search
+		if(depth == this.currentMaxDepth)
+		{
+			return this.quiescence(this.deepthoughtColor, depth);
+		}
+		
+		this.nodesCount++;
+		this.searchController.checkTime(this.nodesCount);
+		
 		// Stop condition
 		double boardValue = this.value();
 		
-		if(depth == this.currentMaxDepth || boardValue == DEEPTHOUGHT_WIN || boardValue == OPPONENT_WIN)
+		if(boardValue == DEEPTHOUGHT_WIN || boardValue == OPPONENT_WIN)
 		{
 			return boardValue;
 		}
 		
 		
-		Move[] possibleMoves = this.board.getPossibleMoves(this.deepthoughtColor);
+		// Uses the result of a previous search of the same position
+		int remainingDepth = this.currentMaxDepth - depth;
+		long positionKey = this.board.getZobristKey();
+		int entryIndex = this.transpositionTable.probe(positionKey);
+		int hashMove = TranspositionTable.NO_MOVE;
+		
+		if(entryIndex != TranspositionTable.NO_ENTRY)
+		{
+			hashMove = this.transpositionTable.getMove(entryIndex);
+			
+			if(this.transpositionTable.getDepth(entryIndex) >= remainingDepth)
+			{
+				double entryScore = this.transpositionTable.getScore(entryIndex);
+				int entryBound = this.transpositionTable.getBound(entryIndex);
+				
+				if(entryBound == TranspositionTable.EXACT_BOUND || (entryBound == TranspositionTable.LOWER_BOUND && entryScore > alpha))
+				{
+					return entryScore;
+				}
+			}
+		}
+		
+		int[] possibleMoves = this.movesStack[depth];
+		int possibleMovesCount = this.board.generatePossibleMoves(this.deepthoughtColor, possibleMoves);
 		double beta = UNDEFINED_BETA;
 		int betaMoveCount = 0;
+		int bestMoveIndex = -1;
 		
 		// Orders moves to maximize early cutoffs
-		this.moveOrderer.orderMoves(possibleMoves, depth);
+		this.moveOrderer.orderMoves(possibleMoves, possibleMovesCount, depth);
+		this.moveHashMoveFirst(possibleMoves, possibleMovesCount, hashMove);
 		
 		// Searches the best move for DeepThought
-		for(int index = 0; index < possibleMoves.length && this.runSearch; index++)
+		for(int index = 0; index < possibleMovesCount && this.searchController.isSearching(); index++)
 		{
 			// Evaluates the move
 			this.board.makeMove(possibleMoves[index]);
 			double moveValue = this.minimum(beta, depth+1);
-			int moveCount = this.board.getPossibleMoves(this.deepthoughtColor).length;
+			int moveCount = this.board.countPossibleMoves(this.deepthoughtColor);
 			this.board.unmakeMove(possibleMoves[index]);
 			
 			// Alpha-Beta prunning
 			if(moveValue > alpha)
 			{
 				this.moveOrderer.signalCutoff(possibleMoves[index], depth);
+				
+				if(this.searchController.isSearching())
+				{
+					this.transpositionTable.store(positionKey, remainingDepth, TranspositionTable.LOWER_BOUND, moveValue, possibleMoves[index]);
+				}
+				
 				return moveValue;
 			}
 			
@@ -166,31 +310,71 @@ public class DeepThought implements Runnable {
 			{
 				beta = moveValue;
 				betaMoveCount = moveCount;
+				bestMoveIndex = index;
 			}
 		}
 		
+		if(this.searchController.isSearching() && bestMoveIndex != -1)
+		{
+			this.transpositionTable.store(positionKey, remainingDepth, TranspositionTable.EXACT_BOUND, beta, possibleMoves[bestMoveIndex]);
+		}
+		
 		return beta;
 	}
 	
 	// Finds the best move for the opponent
 	public double minimum(double beta, int depth)
 	{
+		// The leaves are resolved by the quiescence search
+		if(depth == this.currentMaxDepth)
+		{
+			return this.quiescence(this.opponentColor, depth);
+		}
+		
+		this.nodesCount++;
+		this.searchController.checkTime(this.nodesCount);
+		
 		// Stop condition
 		double boardValue = this.value();
 		
-		if(depth == this.currentMaxDepth || boardValue == DEEPTHOUGHT_WIN || boardValue == OPPONENT_WIN)
+		if(boardValue == DEEPTHOUGHT_WIN || boardValue == OPPONENT_WIN)
 		{
 			return boardValue;
 		}
 		
-		Move[] possibleMoves = this.board.getPossibleMoves(this.opponentColor);
+		// Uses the result of a previous search of the same position
+		int remainingDepth = this.currentMaxDepth - depth;
+		long positionKey = this.board.getZobristKey();
+		int entryIndex = this.transpositionTable.probe(positionKey);
+		int hashMove = TranspositionTable.NO_MOVE;
+		
+		if(entryIndex != TranspositionTable.NO_ENTRY)
+		{
+			hashMove = this.transpositionTable.getMove(entryIndex);
+			
+			if(this.transpositionTable.getDepth(entryIndex) >= remainingDepth)
+			{
+				double entryScore = this.transpositionTable.getScore(entryIndex);
+				int entryBound = this.transpositionTable.getBound(entryIndex);
+				
+				if(entryBound == TranspositionTable.EXACT_BOUND || (entryBound == TranspositionTable.UPPER_BOUND && entryScore < beta))
+				{
+					return entryScore;
+				}
+			}
+		}
+		
+		int[] possibleMoves = this.movesStack[depth];
+		int possibleMovesCount = this.board.generatePossibleMoves(this.opponentColor, possibleMoves);
 		double alpha = UNDEFINED_ALPHA;
+		int bestMoveIndex = -1;
 		
 		// Orders moves to maximize early cutoffs
-		this.moveOrderer.orderMoves(possibleMoves, depth);
+		this.moveOrderer.orderMoves(possibleMoves, possibleMovesCount, depth);
+		this.moveHashMoveFirst(possibleMoves, possibleMovesCount, hashMove);
 		
 		// Searches the best move for the opponent
-		for(int index = 0; index < possibleMoves.length && this.runSearch; index++)
+		for(int index = 0; index < possibleMovesCount && this.searchController.isSearching(); index++)
 		{
 			// Evaluates the move
 			this.board.makeMove(possibleMoves[index]);
@@ -201,6 +385,12 @@ public class DeepThought implements Runnable {
 			if(moveValue < beta)
 			{
 				this.moveOrderer.signalCutoff(possibleMoves[index], depth);
+				
+				if(this.searchController.isSearching())
+				{
+					this.transpositionTable.store(positionKey, remainingDepth, TranspositionTable.UPPER_BOUND, moveValue, possibleMoves[index]);
+				}
+				
 				return moveValue;
 			}
 			
@@ -208,12 +398,267 @@ public class DeepThought implements Runnable {
 			if(moveValue < alpha && moveValue != UNDEFINED_BETA)
 			{
 				alpha = moveValue;
+				bestMoveIndex = index;
 			}
 		}
 		
+		if(this.searchController.isSearching() && bestMoveIndex != -1)
+		{
+			this.transpositionTable.store(positionKey, remainingDepth, TranspositionTable.EXACT_BOUND, alpha, possibleMoves[bestMoveIndex]);
+		}
+		
 		return alpha;
 	}
 	
+	// Gets the value for DeepThought of a leaf, once its captures and connections are resolved by the quiescence search.
+	// The search gets no bound: maximum and minimum compare the values strictly, so they need the exact value of the leaf.
+	private double quiescence(int playerColor, int depth)
+	{
+		double value = this.quiescenceSearch.search(playerColor, depth, -Double.MAX_VALUE, Double.MAX_VALUE, this.nodesCount);
+		this.nodesCount = this.quiescenceSearch.getNodesCount();
+		
+		if(playerColor != this.deepthoughtColor)
+		{
+			value = -value;
+		}
+		
+		// The wins are valued as in value()
+		if(value >= Evaluation.WIN_SCORE)
+		{
+			return DEEPTHOUGHT_WIN;
+		}
+		else if(value <= -Evaluation.WIN_SCORE)
+		{
+			return OPPONENT_WIN;
+		}
+		
+		return value;
+	}
+	
+	// Determines if a root move is better than the best one of its depth: it has a higher value, or the same value and leaves more
+	// moves to DeepThought, or the same value and moves count and moves a pawn from an edge, which hasn't moved during the game
+	private boolean isBetterRootMove(double moveValue, int moveCount, int move, double bestValue, int bestMoveCount, int bestMove)
+	{
+		if(moveValue != bestValue)
+		{
+			return moveValue > bestValue;
+		}
+		
+		if(moveCount != bestMoveCount)
+		{
+			return moveCount > bestMoveCount;
+		}
+		
+		return this.isEdgeMove(move) && !this.isEdgeMove(bestMove);
+	}
+	
+	// Determines if a move starts from an edge of the board
+	private boolean isEdgeMove(int move)
+	{
+		int fromRowIndex = Move.getPackedFromRowIndex(move);
+		int fromColumnIndex = Move.getPackedFromColumnIndex(move);
+		
+		return fromRowIndex == 0 || fromRowIndex == 7 || fromColumnIndex == 0 || fromColumnIndex == 7;
+	}
+	
+	// Moves the best move found by a previous search of the position in first place
+	private void moveHashMoveFirst(int[] moves, int movesCount, int hashMove)
+	{
+		for(int index = 0; index < movesCount && hashMove != TranspositionTable.NO_MOVE; index++)
+		{
+			if(Move.isSamePackedMove(hashMove, moves[index]))
+			{
+				int moveTemp = moves[0];
+				moves[0] = moves[index];
+				moves[index] = moveTemp;
+				return;
+			}
+		}
+	}
+	
+	// Searches the root moves at the current max depth with the thread pool. The first move is searched alone to get a bound,
+	// then the other moves are split between the workers, which prune against the best value found so far by any of them.
+	// Returns true if a winning move has been found.
+	private boolean searchRootMovesInParallel(int[] possibleMoves, int possibleMovesCount)
+	{
+		if(possibleMovesCount == 0)
+		{
+			return false;
+		}
+		
+		this.board.makeMove(possibleMoves[0]);
+		this.rootMoveValues[0] = this.minimum(UNDEFINED_BETA, 1);
+		this.rootMoveCounts[0] = this.board.countPossibleMoves(this.deepthoughtColor);
+		this.board.unmakeMove(possibleMoves[0]);
+		
+		this.rootBound.set(Double.doubleToLongBits(this.rootMoveValues[0]));
+		
+		if(this.rootMoveValues[0] != DEEPTHOUGHT_WIN && possibleMovesCount > 1)
+		{
+			this.searchPool.invoke(new RootMovesTask(possibleMoves, 1, possibleMovesCount));
+		}
+		
+		// The values of a stopped search are incomplete, so the best move of the previous depth is kept
+		if(!this.searchController.isSearching())
+		{
+			return false;
+		}
+		
+		int bestMoveIndex = 0;
+		double beta = UNDEFINED_BETA;
+		int betaMoveCount = 0;
+		
+		for(int index = 0; index < possibleMovesCount; index++)
+		{
+			if(this.rootMoveValues[index] == DEEPTHOUGHT_WIN)
+			{
+				this.bestMove = possibleMoves[index];
+				return true;
+			}
+			
+			// Determines if the move is a better move, the same way as the sequential search
+			if(index == 0 || this.isBetterRootMove(this.rootMoveValues[index], this.rootMoveCounts[index], possibleMoves[index], beta, betaMoveCount,
+					possibleMoves[bestMoveIndex]))
+			{
+				beta = this.rootMoveValues[index];
+				bestMoveIndex = index;
+				betaMoveCount = this.rootMoveCounts[index];
+			}
+		}
+		
+		this.bestMove = possibleMoves[bestMoveIndex];
+		
+		return false;
+	}
+	
+	// Searches a root move with a worker of the calling thread, using the best value of the root moves as bound
+	private void searchRootMove(int[] moves, int index)
+	{
+		double bound = Double.longBitsToDouble(this.rootBound.get());
+		
+		// No move can be better than a win found by another worker
+		if(!this.searchController.isSearching() || bound == DEEPTHOUGHT_WIN)
+		{
+			this.rootMoveValues[index] = UNDEFINED_BETA;
+			return;
+		}
+		
+		DeepThought worker = this.borrowWorker();
+		worker.currentMaxDepth = this.currentMaxDepth;
+		worker.quiescenceSearch.setEnabled(this.quiescenceSearch.isEnabled());
+		
+		worker.board.makeMove(moves[index]);
+		double moveValue = worker.minimum(bound, 1);
+		this.rootMoveCounts[index] = worker.board.countPossibleMoves(this.deepthoughtColor);
+		worker.board.unmakeMove(moves[index]);
+		
+		this.rootMoveValues[index] = moveValue;
+		this.raiseRootBound(moveValue);
+		this.idleWorkers.add(worker);
+	}
+	
+	// Raises the best value of the root moves if the move is better. Other workers can raise it at the same time.
+	private void raiseRootBound(double moveValue)
+	{
+		long bound = this.rootBound.get();
+		
+		while(moveValue > Double.longBitsToDouble(bound) && !this.rootBound.compareAndSet(bound, Double.doubleToLongBits(moveValue)))
+		{
+			bound = this.rootBound.get();
+		}
+	}
+	
+	// Gets a worker not used by another thread. Workers search a copy of the board through their own view of the transposition table.
+	private DeepThought borrowWorker()
+	{
+		DeepThought worker = this.idleWorkers.poll();
+		
+		if(worker == null)
+		{
+			worker = new DeepThought(this.board.copy(), this.deepthoughtColor, new TranspositionTable(this.transpositionTable));
+			
+			// The workers stop with the search and its deadline
+			worker.searchController = this.searchController;
+			worker.quiescenceSearch = new QuiescenceSearch(worker.board, this.searchController);
+			this.searchWorkers.add(worker);
+		}
+		
+		return worker;
+	}
+	
+	// Task searching a range of root moves, split in halves until each task searches a single move
+	private class RootMovesTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+		
+		private int[] moves;
+		private int fromIndex;
+		private int toIndex;
+		
+		public RootMovesTask(int[] moves, int fromIndex, int toIndex)
+		{
+			this.moves = moves;
+			this.fromIndex = fromIndex;
+			this.toIndex = toIndex;
+		}
+		
+		@Override
+		protected void compute()
+		{
+			if(this.toIndex - this.fromIndex > 1)
+			{
+				int middleIndex = (this.fromIndex + this.toIndex) / 2;
+				invokeAll(new RootMovesTask(this.moves, this.fromIndex, middleIndex), new RootMovesTask(this.moves, middleIndex, this.toIndex));
+			}
+			else
+			{
+				searchRootMove(this.moves, this.fromIndex);
+			}
+		}
+	}
+	
+	// Sets the number of threads searching the root moves. With more than one thread, the root moves after the first one are
+	// split between workers searching copies of the board and sharing the transposition table.
+	public void setThreadsCount(int threadsCount)
+	{
+		if(this.searchPool != null)
+		{
+			this.searchPool.shutdown();
+		}
+		
+		if(threadsCount > 1)
+		{
+			this.searchPool = new ForkJoinPool(threadsCount);
+			this.searchWorkers = new ConcurrentLinkedQueue<DeepThought>();
+			this.idleWorkers = new ConcurrentLinkedQueue<DeepThought>();
+			this.rootBound = new AtomicLong();
+			this.rootMoveValues = new double[Board.MAX_MOVES];
+			this.rootMoveCounts = new int[Board.MAX_MOVES];
+		}
+		else
+		{
+			this.searchPool = null;
+		}
+	}
+	
+	// Enables or disables the quiescence search. Without it, the leaves of the search are evaluated by their static value.
+	public void setQuiescenceSearch(boolean enabled)
+	{
+		this.quiescenceSearch.setEnabled(enabled);
+	}
+	
+	// Sets the deepest iteration of the search, which then stops by itself
+	public void setMaxSearchDepth(int maxSearchDepth)
+	{
+		this.maxSearchDepth = Math.min(maxSearchDepth, MAX_DEPTH - 1);
+	}
+	
+	// Gets the transposition table used by the search
+	public TranspositionTable getTranspositionTable()
+	{
+		return this.transpositionTable;
+	}
+	
 	// Calculates the value of the game state. A higher value means the board is advantageous for the AI and a lower value means
 	// the board is advantageous for the opponent
 	public double value()
@@ -263,12 +708,40 @@ public class DeepThought implements Runnable {
 	// Terminates the best move search
 	public void stopSearchBestMove()
 	{
-		this.runSearch = false;
+		this.searchController.stop();
+		this.winThreatSolver.stop();
+		
+		if(this.proofNumberSolver != null)
+		{
+			this.proofNumberSolver.stop();
+		}
+	}
+	
+	// Sets the System.nanoTime at which the next searches stop by themselves
+	public void setDeadline(long deadline)
+	{
+		this.searchController.setDeadline(deadline);
 	}
 	
 	// Gets the best move found
 	public Move getBestMoveFound()
 	{
-		return this.bestMove;
+		return (this.bestMove == Move.NO_MOVE) ? null : Move.unpack(this.bestMove);
+	}
+	
+	// Gets the number of positions visited by the last search, including the ones of the workers
+	public long getNodesCount()
+	{
+		long nodesCount = this.nodesCount;
+		
+		if(this.searchPool != null)
+		{
+			for(DeepThought worker : this.searchWorkers)
+			{
+				nodesCount += worker.nodesCount;
+			}
+		}
+		
+		return nodesCount;
 	}
 }
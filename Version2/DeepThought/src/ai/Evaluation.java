@@ -0,0 +1,49 @@
+package ai;
+
+import game.Board;
+import game.CentralizationHeuristic;
+import game.QuadHeuristic;
+
+// Evaluation of the positions shared by the search engines: the euler numbers of the players' pawns (QuadHeuristic) and
+// their centralization (CentralizationHeuristic), kept up to date by the board with every move.
+class Evaluation
+{
+	// Value of a position where a player connected all his pawns, the other positions are valued much lower
+	static final double WIN_SCORE = Integer.MAX_VALUE / 2;
+	
+	// Calculates the value of the game state for a player. A higher value means the board is advantageous for the player.
+	static double value(Board board, int playerColor)
+	{
+		QuadHeuristic quadHeuristic = board.getQuadHeuristic();
+		CentralizationHeuristic centralizationHeuristic = board.getCentralizationHeuristic();
+		float blackPawnsEulerNumber = quadHeuristic.getBlackPawnsValue();
+		float whitePawnsEulerNumber = quadHeuristic.getWhitePawnsValue();
+		double blackValue;
+		
+		// Determines if there's a win. A win is only possible if the euler number is lower or equals than 1.
+		if(blackPawnsEulerNumber <= 1 && board.isWinning(Board.BLACK_PLAYER))
+		{
+			blackValue = WIN_SCORE;
+		}
+		else if(whitePawnsEulerNumber <= 1 && board.isWinning(Board.WHITE_PLAYER))
+		{
+			blackValue = -WIN_SCORE;
+		}
+		else
+		{
+			blackValue = whitePawnsEulerNumber - blackPawnsEulerNumber + centralizationHeuristic.getBlackPawnsValue() - centralizationHeuristic.getWhitePawnsValue();
+		}
+		
+		return (playerColor == Board.BLACK_PLAYER) ? blackValue : -blackValue;
+	}
+	
+	// Gets how much a move changes the value of the position for the player making it, before the move is made
+	static double getMoveGain(Board board, int packedMove)
+	{
+		QuadHeuristic quadHeuristic = board.getQuadHeuristic();
+		CentralizationHeuristic centralizationHeuristic = board.getCentralizationHeuristic();
+		
+		return quadHeuristic.getOpponentEulerDelta(packedMove) - quadHeuristic.getPlayerEulerDelta(packedMove) +
+				centralizationHeuristic.getPlayerValueDelta(packedMove) - centralizationHeuristic.getOpponentValueDelta(packedMove);
+	}
+}
@@ -0,0 +1,133 @@
+package ai;
+
+import game.Board;
+import game.Move;
+
+// Search engine running the negamax search in several threads sharing a transposition table (lazy SMP).
+// The main thread searches the player's board and gives the best move. The helper threads search their own board,
+// set to the position to search at each search, every other one starting one depth deeper, so the threads soon search different trees and fill the shared table with
+// results the others use.
+public class LazySmpThought implements Player {
+	// Constants
+	private static final int TRANSPOSITION_TABLE_SIZE = 64;
+	private static final long HELPER_STOP_WAIT_TIME = 10;
+	
+	// Variables holding the game state
+	private Board board;
+	private int playerColor;
+	
+	// Searches of each thread
+	private TranspositionTable sharedTable;
+	private NegamaxThought mainSearch;
+	private Board[] helperBoards;
+	private NegamaxThought[] helperSearches;
+	private Thread[] helperThreads;
+	
+	// Variables used in the search
+	private long nodesCount;
+	
+	// Constructor. Uses one thread per available processor.
+	public LazySmpThought(Board initialBoard, int playerColor)
+	{
+		this(initialBoard, playerColor, Runtime.getRuntime().availableProcessors());
+	}
+	
+	// Constructor. The search runs in threadsCount threads, including the main one.
+	public LazySmpThought(Board initialBoard, int playerColor, int threadsCount)
+	{
+		this.board = initialBoard;
+		this.playerColor = playerColor;
+		
+		this.sharedTable = new TranspositionTable(TRANSPOSITION_TABLE_SIZE);
+		this.mainSearch = new NegamaxThought(initialBoard, playerColor, this.sharedTable);
+		this.helperBoards = new Board[Math.max(threadsCount - 1, 0)];
+		this.helperSearches = new NegamaxThought[this.helperBoards.length];
+		this.helperThreads = new Thread[this.helperBoards.length];
+		
+		// The helpers search through their own view of the shared table
+		for(int index = 0; index < this.helperBoards.length; index++)
+		{
+			this.helperBoards[index] = initialBoard.copy();
+			this.helperSearches[index] = new NegamaxThought(this.helperBoards[index], playerColor, new TranspositionTable(this.sharedTable));
+			this.helperSearches[index].setHelperThread(1 + (index + 1) % 2);
+		}
+	}
+	
+	@Override
+	public void run() {
+		try {
+			this.searchBestMove();
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+	}
+	
+	// Searches the best move possible with all the threads. This method stops when stopSearchBestMove is called or at the deadline.
+	// A new search waits that the last one finished.
+	public synchronized void searchBestMove() throws InterruptedException
+	{
+		this.nodesCount = 0;
+		
+		// Every helper searches, even if the search is already stopped, so the ages of all the table views stay the same
+		for(int index = 0; index < this.helperSearches.length; index++)
+		{
+			this.helperBoards[index].copyFrom(this.board);
+			
+			this.helperThreads[index] = new Thread(this.helperSearches[index]);
+			this.helperThreads[index].start();
+		}
+		
+		// The main search ends when it's stopped or when it found a win, the helpers are then useless
+		this.mainSearch.searchBestMove();
+		this.nodesCount = this.mainSearch.getNodesCount();
+		
+		for(int index = 0; index < this.helperThreads.length; index++)
+		{
+			// A helper stopped before its search started would run until stopped again
+			while(this.helperThreads[index].isAlive())
+			{
+				this.helperSearches[index].stopSearchBestMove();
+				this.helperThreads[index].join(HELPER_STOP_WAIT_TIME);
+			}
+			
+			this.nodesCount += this.helperSearches[index].getNodesCount();
+		}
+		
+		System.out.println("Threads: " + (this.helperSearches.length + 1) + ", nodes: " + this.nodesCount);
+	}
+	
+	// Terminates the best move search of all the threads
+	public void stopSearchBestMove()
+	{
+		this.mainSearch.stopSearchBestMove();
+		
+		for(int index = 0; index < this.helperSearches.length; index++)
+		{
+			this.helperSearches[index].stopSearchBestMove();
+		}
+	}
+	
+	// Sets the System.nanoTime at which the next searches stop by themselves. The helpers stop with the main search.
+	public void setDeadline(long deadline)
+	{
+		this.mainSearch.setDeadline(deadline);
+	}
+	
+	// Gets the best move found by the main thread
+	public Move getBestMoveFound()
+	{
+		return this.mainSearch.getBestMoveFound();
+	}
+	
+	// Gets the number of threads searching
+	public int getThreadsCount()
+	{
+		return this.helperSearches.length + 1;
+	}
+	
+	// Gets the number of positions visited by all the threads during the last search
+	public long getNodesCount()
+	{
+		return this.nodesCount;
+	}
+}
@@ -0,0 +1,591 @@
+package ai;
+
+import java.util.Random;
+
+import game.Board;
+import game.Move;
+import game.QuadHeuristic;
+
+// Search engine using Monte Carlo tree search. Each iteration goes down the tree with UCT, expands a leaf and plays the game out
+// from it, then backs the result up to the root. The selection adds a progressive bias from the heuristics that fades as the
+// moves get visited, and the playouts are cut after a few moves and scored with the heuristics, or by a shallow alpha-beta search.
+// The best move is the most visited move of the root, so a search stopped at any time still has a move to play.
+// With several threads, each one builds its own tree of the position (root parallelization) and the visits of their root moves are added.
+public class MctsThought implements Player {
+	// Constants
+	private static final double WIN_SCORE = Evaluation.WIN_SCORE;
+	private static final int TREE_SIZE = 32;
+	private static final int NODE_SIZE_IN_BYTES = 28;
+	private static final int NO_NODE = -1;
+	private static final int UNEXPANDED_NODE = -1;
+	private static final int MAX_PLIES = 256;
+	
+	// UCT exploration constant, and weight of the heuristic gain of a move before it's visited
+	private static final double EXPLORATION_CONSTANT = 0.6;
+	private static final double PROGRESSIVE_BIAS_WEIGHT = 0.2;
+	
+	// Playouts: moves played before the heuristics score the position, the noise added to the gain of their moves,
+	// and the score difference (in euler numbers) giving about three chances out of four to win
+	private static final int PLAYOUT_MAX_MOVES = 8;
+	private static final double PLAYOUT_RANDOMNESS = 1;
+	private static final double PLAYOUT_SCORE_SCALE = 1;
+	
+	// Depth of the alpha-beta searches scoring the leaves, when they replace the playouts
+	private static final int DEFAULT_ALPHA_BETA_PLAYOUT_DEPTH = 2;
+	
+	// Seed of the playouts' randomness, so the searches can be played again
+	private static final long DEFAULT_SEED = 0;
+	
+	// Iterations between the updates of the best move
+	private static final int BEST_MOVE_UPDATE_ITERATIONS = 256;
+	
+	// Time given to the connect-in-N solver before the search, in milliseconds
+	private static final long WIN_THREAT_SEARCH_TIME = 200;
+	
+	// Variables holding the game state
+	private Board board;
+	private int playerColor;
+	
+	// Heuristics
+	private QuadHeuristic quadHeuristic;
+	private WinThreatSolver winThreatSolver;
+	
+	// Variables used in the search
+	private SearchController searchController;
+	private int bestMove;
+	private long nodesCount;
+	private long iterationsCount;
+	private Random random;
+	private long seed;
+	
+	// Searches of the helper threads, each one building its tree on its own board, and the memory of the trees in megabytes
+	private MctsThought[] helpers;
+	private Thread[] helperThreads;
+	private int treeSize;
+	
+	// Playout settings
+	private boolean alphaBetaPlayoutsEnabled;
+	private int alphaBetaPlayoutDepth;
+	
+	// Nodes of the tree. The children of a node are stored next to each other, and the rewards of a node are the ones
+	// of the player who made its move.
+	private int[] nodeMoves;
+	private int[] parents;
+	private int[] firstChildren;
+	private int[] childrenCounts;
+	private int[] visits;
+	private float[] rewards;
+	private float[] biases;
+	private int usedNodesCount;
+	
+	// Packed moves of each ply of the playouts and alpha-beta searches, preallocated so the search doesn't allocate
+	private int[][] movesStack;
+	private int[] playoutMoves;
+	
+	// Constructor
+	public MctsThought(Board initialBoard, int playerColor)
+	{
+		this(initialBoard, playerColor, TREE_SIZE);
+	}
+	
+	// Constructor. The tree uses at most treeSize megabytes.
+	public MctsThought(Board initialBoard, int playerColor, int treeSize)
+	{
+		int capacity = (int) Math.min(((long) treeSize * 1024 * 1024) / NODE_SIZE_IN_BYTES, Integer.MAX_VALUE - 8);
+		
+		this.board = initialBoard;
+		this.playerColor = playerColor;
+		
+		this.quadHeuristic = this.board.getQuadHeuristic();
+		this.winThreatSolver = new WinThreatSolver(this.board);
+		
+		this.nodeMoves = new int[capacity];
+		this.parents = new int[capacity];
+		this.firstChildren = new int[capacity];
+		this.childrenCounts = new int[capacity];
+		this.visits = new int[capacity];
+		this.rewards = new float[capacity];
+		this.biases = new float[capacity];
+		
+		this.movesStack = new int[MAX_PLIES + 1][Board.MAX_MOVES];
+		this.playoutMoves = new int[PLAYOUT_MAX_MOVES];
+		
+		this.searchController = new SearchController();
+		this.bestMove = Move.NO_MOVE;
+		this.random = new Random(DEFAULT_SEED);
+		this.seed = DEFAULT_SEED;
+		this.helpers = new MctsThought[0];
+		this.helperThreads = new Thread[0];
+		this.treeSize = treeSize;
+		
+		this.setAlphaBetaPlayouts(false, DEFAULT_ALPHA_BETA_PLAYOUT_DEPTH);
+	}
+	
+	@Override
+	public void run() {
+		try {
+			this.searchBestMove();
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+	}
+	
+	// Searches the best move possible, building a new tree. This method stops when stopSearchBestMove is called or at the deadline.
+	// A new search waits that the last one finished.
+	public synchronized void searchBestMove() throws InterruptedException
+	{
+		this.searchController.start();
+		
+		this.bestMove = Move.NO_MOVE;
+		this.nodesCount = 0;
+		this.iterationsCount = 0;
+		this.random.setSeed(this.seed);
+		
+		// A forced connection is played without searching further
+		if(this.winThreatSolver.solve(this.playerColor, this.searchController.limitTime(WIN_THREAT_SEARCH_TIME)) == WinThreatSolver.FORCED_WIN)
+		{
+			this.bestMove = this.winThreatSolver.getWinningMove();
+			return;
+		}
+		
+		// The helpers build their own trees of the same position until the search stops
+		for(int index = 0; index < this.helpers.length; index++)
+		{
+			this.helpers[index].board.copyFrom(this.board);
+			this.helpers[index].random.setSeed(this.seed + index + 1);
+			this.helpers[index].setAlphaBetaPlayouts(this.alphaBetaPlayoutsEnabled, this.alphaBetaPlayoutDepth);
+			
+			this.helperThreads[index] = new Thread(new TreeSearchTask(this.helpers[index]));
+			this.helperThreads[index].start();
+		}
+		
+		boolean rootExpanded = this.searchTree();
+		
+		for(int index = 0; index < this.helpers.length; index++)
+		{
+			this.helperThreads[index].join();
+			
+			this.nodesCount += this.helpers[index].nodesCount;
+			this.iterationsCount += this.helpers[index].iterationsCount;
+		}
+		
+		if(rootExpanded && this.helpers.length > 0)
+		{
+			this.bestMove = this.getMostVisitedMoveOfAllTrees();
+		}
+	}
+	
+	// Builds a new tree of the position until the search stops, updating the best move every few iterations.
+	// Returns false if the root has no move.
+	private boolean searchTree()
+	{
+		this.nodesCount = 0;
+		this.iterationsCount = 0;
+		
+		this.usedNodesCount = 1;
+		this.nodeMoves[0] = Move.NO_MOVE;
+		this.parents[0] = NO_NODE;
+		this.firstChildren[0] = UNEXPANDED_NODE;
+		this.visits[0] = 0;
+		this.rewards[0] = 0;
+		
+		if(!this.expand(0, this.playerColor))
+		{
+			return false;
+		}
+		
+		while(this.searchController.isSearching())
+		{
+			this.iterate();
+			this.iterationsCount++;
+			
+			if(this.iterationsCount % BEST_MOVE_UPDATE_ITERATIONS == 0)
+			{
+				this.bestMove = this.getMostVisitedMove();
+			}
+		}
+		
+		this.bestMove = this.getMostVisitedMove();
+		
+		return true;
+	}
+	
+	// Goes down the tree to a leaf, expands it, scores it with a playout and backs the reward up to the root
+	private void iterate()
+	{
+		int node = 0;
+		int colorToPlay = this.playerColor;
+		int ply = 0;
+		float reward;
+		
+		while(true)
+		{
+			if(this.firstChildren[node] >= 0 && ply < MAX_PLIES)
+			{
+				node = this.selectChild(node);
+				this.board.makeMove(this.nodeMoves[node]);
+				this.nodesCount++;
+				this.searchController.checkTime(this.nodesCount);
+				colorToPlay = this.getOpponentColor(colorToPlay);
+				ply++;
+				continue;
+			}
+			
+			int moverColor = this.getOpponentColor(colorToPlay);
+			
+			// The mover wins if his move connects his pawns, even if it connects the opponent's pawns too
+			if(this.isConnected(moverColor))
+			{
+				reward = 1;
+			}
+			else if(this.isConnected(colorToPlay))
+			{
+				reward = 0;
+			}
+			else if(this.visits[node] > 0 && ply < MAX_PLIES && this.expand(node, colorToPlay))
+			{
+				continue;
+			}
+			else if(this.alphaBetaPlayoutsEnabled)
+			{
+				reward = 1 - this.getWinProbability(this.alphaBeta(colorToPlay, this.alphaBetaPlayoutDepth, -WIN_SCORE, WIN_SCORE, ply));
+			}
+			else
+			{
+				reward = 1 - this.playout(colorToPlay);
+			}
+			
+			break;
+		}
+		
+		// Backs the reward up, alternating the point of view of the players
+		while(node != NO_NODE)
+		{
+			this.visits[node]++;
+			this.rewards[node] += reward;
+			reward = 1 - reward;
+			
+			if(this.parents[node] != NO_NODE)
+			{
+				this.board.unmakeMove(this.nodeMoves[node]);
+			}
+			
+			node = this.parents[node];
+		}
+	}
+	
+	// Gets the child with the best UCT value, plus a bias from the heuristics that fades as the child gets visited.
+	// Children never visited are tried first, in the order of their bias.
+	private int selectChild(int node)
+	{
+		int bestChild = NO_NODE;
+		double bestValue = Double.NEGATIVE_INFINITY;
+		double logVisits = Math.log(Math.max(1, this.visits[node]));
+		
+		for(int child = this.firstChildren[node]; child < this.firstChildren[node] + this.childrenCounts[node]; child++)
+		{
+			double value;
+			
+			if(this.visits[child] == 0)
+			{
+				value = WIN_SCORE + this.biases[child];
+			}
+			else
+			{
+				value = this.rewards[child] / this.visits[child] +
+						EXPLORATION_CONSTANT * Math.sqrt(logVisits / this.visits[child]) +
+						PROGRESSIVE_BIAS_WEIGHT * this.biases[child] / (this.visits[child] + 1);
+			}
+			
+			if(value > bestValue)
+			{
+				bestValue = value;
+				bestChild = child;
+			}
+		}
+		
+		return bestChild;
+	}
+	
+	// Creates the children of a leaf with the heuristic gain of their move as bias. Returns false if there's no move or the tree is full.
+	private boolean expand(int node, int colorToPlay)
+	{
+		int[] possibleMoves = this.movesStack[0];
+		int possibleMovesCount = this.board.generatePossibleMoves(colorToPlay, possibleMoves);
+		
+		if(possibleMovesCount == 0 || this.usedNodesCount + possibleMovesCount > this.nodeMoves.length)
+		{
+			return false;
+		}
+		
+		this.firstChildren[node] = this.usedNodesCount;
+		this.childrenCounts[node] = possibleMovesCount;
+		
+		for(int index = 0; index < possibleMovesCount; index++)
+		{
+			int child = this.usedNodesCount + index;
+			
+			this.nodeMoves[child] = possibleMoves[index];
+			this.parents[child] = node;
+			this.firstChildren[child] = UNEXPANDED_NODE;
+			this.visits[child] = 0;
+			this.rewards[child] = 0;
+			this.biases[child] = (float) Evaluation.getMoveGain(this.board, possibleMoves[index]);
+		}
+		
+		this.usedNodesCount += possibleMovesCount;
+		
+		return true;
+	}
+	
+	// Plays a few moves, each player choosing the move with the best heuristic gain plus some noise, and scores the position reached.
+	// Returns the chances to win of the player to play.
+	private float playout(int colorToPlay)
+	{
+		int currentColor = colorToPlay;
+		int playedMovesCount = 0;
+		float reward = -1;
+		
+		while(playedMovesCount < PLAYOUT_MAX_MOVES)
+		{
+			int[] possibleMoves = this.movesStack[0];
+			int possibleMovesCount = this.board.generatePossibleMoves(currentColor, possibleMoves);
+			int chosenMove = Move.NO_MOVE;
+			double bestGain = Double.NEGATIVE_INFINITY;
+			
+			for(int index = 0; index < possibleMovesCount; index++)
+			{
+				double gain = Evaluation.getMoveGain(this.board, possibleMoves[index]) + this.random.nextDouble() * PLAYOUT_RANDOMNESS;
+				
+				if(gain > bestGain)
+				{
+					bestGain = gain;
+					chosenMove = possibleMoves[index];
+				}
+			}
+			
+			if(chosenMove == Move.NO_MOVE)
+			{
+				break;
+			}
+			
+			this.board.makeMove(chosenMove);
+			this.playoutMoves[playedMovesCount] = chosenMove;
+			this.nodesCount++;
+			this.searchController.checkTime(this.nodesCount);
+			playedMovesCount++;
+			
+			if(this.isConnected(currentColor))
+			{
+				reward = (currentColor == colorToPlay) ? 1 : 0;
+				break;
+			}
+			else if(this.isConnected(this.getOpponentColor(currentColor)))
+			{
+				reward = (currentColor == colorToPlay) ? 0 : 1;
+				break;
+			}
+			
+			currentColor = this.getOpponentColor(currentColor);
+		}
+		
+		if(reward < 0)
+		{
+			reward = this.getWinProbability(Evaluation.value(this.board, colorToPlay));
+		}
+		
+		for(int index = playedMovesCount - 1; index >= 0; index--)
+		{
+			this.board.unmakeMove(this.playoutMoves[index]);
+		}
+		
+		return reward;
+	}
+	
+	// Finds the value of a position for the player to play with a fixed depth alpha-beta search
+	private double alphaBeta(int playerColor, int depth, double alpha, double beta, int ply)
+	{
+		double boardValue = Evaluation.value(this.board, playerColor);
+		
+		if(depth == 0 || ply >= MAX_PLIES || boardValue == WIN_SCORE || boardValue == -WIN_SCORE)
+		{
+			return boardValue;
+		}
+		
+		int opponentColor = this.getOpponentColor(playerColor);
+		int[] possibleMoves = this.movesStack[ply + 1];
+		int possibleMovesCount = this.board.generatePossibleMoves(playerColor, possibleMoves);
+		double bestValue = (possibleMovesCount == 0) ? boardValue : -WIN_SCORE;
+		
+		for(int index = 0; index < possibleMovesCount; index++)
+		{
+			this.board.makeMove(possibleMoves[index]);
+			this.nodesCount++;
+			this.searchController.checkTime(this.nodesCount);
+			double moveValue = -this.alphaBeta(opponentColor, depth - 1, -beta, -alpha, ply + 1);
+			this.board.unmakeMove(possibleMoves[index]);
+			
+			if(moveValue > bestValue)
+			{
+				bestValue = moveValue;
+				alpha = Math.max(alpha, moveValue);
+				
+				if(alpha >= beta)
+				{
+					break;
+				}
+			}
+		}
+		
+		return bestValue;
+	}
+	
+	// Converts a value to the chances to win of the player, between 0 and 1
+	private float getWinProbability(double value)
+	{
+		return (float) (1 / (1 + Math.exp(-value / PLAYOUT_SCORE_SCALE)));
+	}
+	
+	// Gets the move of the most visited child of the root
+	private int getMostVisitedMove()
+	{
+		int bestChild = NO_NODE;
+		
+		for(int child = this.firstChildren[0]; child < this.firstChildren[0] + this.childrenCounts[0]; child++)
+		{
+			if(bestChild == NO_NODE || this.visits[child] > this.visits[bestChild])
+			{
+				bestChild = child;
+			}
+		}
+		
+		return (bestChild == NO_NODE) ? Move.NO_MOVE : this.nodeMoves[bestChild];
+	}
+	
+	// Gets the root move visited the most by the trees of all the threads. The trees have the root moves in the same order,
+	// since they are generated from the same position.
+	private int getMostVisitedMoveOfAllTrees()
+	{
+		int bestIndex = -1;
+		long bestVisits = -1;
+		
+		for(int index = 0; index < this.childrenCounts[0]; index++)
+		{
+			long visits = this.visits[this.firstChildren[0] + index];
+			
+			for(int helperIndex = 0; helperIndex < this.helpers.length; helperIndex++)
+			{
+				visits += this.helpers[helperIndex].getRootChildVisits(index);
+			}
+			
+			if(visits > bestVisits)
+			{
+				bestVisits = visits;
+				bestIndex = index;
+			}
+		}
+		
+		return (bestIndex == -1) ? Move.NO_MOVE : this.nodeMoves[this.firstChildren[0] + bestIndex];
+	}
+	
+	// Gets the visits of a child of the root, or 0 if the root wasn't expanded
+	private int getRootChildVisits(int index)
+	{
+		return (this.firstChildren[0] == UNEXPANDED_NODE) ? 0 : this.visits[this.firstChildren[0] + index];
+	}
+	
+	// Determines if the pawns of a player are connected, checking the euler number first since it's faster
+	private boolean isConnected(int playerColor)
+	{
+		float eulerNumber = (playerColor == Board.BLACK_PLAYER) ? this.quadHeuristic.getBlackPawnsValue() : this.quadHeuristic.getWhitePawnsValue();
+		
+		return eulerNumber <= 1 && this.board.isWinning(playerColor);
+	}
+	
+	private int getOpponentColor(int playerColor)
+	{
+		return (playerColor == Board.BLACK_PLAYER) ? Board.WHITE_PLAYER : Board.BLACK_PLAYER;
+	}
+	
+	// Enables or disables the alpha-beta searches of the given depth replacing the playouts
+	public void setAlphaBetaPlayouts(boolean enabled, int depth)
+	{
+		this.alphaBetaPlayoutsEnabled = enabled;
+		this.alphaBetaPlayoutDepth = depth;
+	}
+	
+	// Sets the seed of the playouts' randomness. Each search starts from the seed, and each helper thread from the seed plus its index.
+	public void setSeed(long seed)
+	{
+		this.seed = seed;
+	}
+	
+	// Sets the number of threads building trees, including the one calling searchBestMove. The tree of each helper thread
+	// uses treeSize / threadsCount megabytes.
+	public void setThreadsCount(int threadsCount)
+	{
+		this.helpers = new MctsThought[Math.max(threadsCount, 1) - 1];
+		this.helperThreads = new Thread[this.helpers.length];
+		
+		// The helpers stop with the search and its deadline
+		for(int index = 0; index < this.helpers.length; index++)
+		{
+			this.helpers[index] = new MctsThought(this.board.copy(), this.playerColor, Math.max(1, this.treeSize / threadsCount));
+			this.helpers[index].searchController = this.searchController;
+		}
+	}
+	
+	// Gets the number of threads building trees
+	public int getThreadsCount()
+	{
+		return this.helpers.length + 1;
+	}
+	
+	// Terminates the best move search
+	public void stopSearchBestMove()
+	{
+		this.searchController.stop();
+		this.winThreatSolver.stop();
+	}
+	
+	// Sets the System.nanoTime at which the next searches stop by themselves
+	public void setDeadline(long deadline)
+	{
+		this.searchController.setDeadline(deadline);
+	}
+	
+	// Gets the best move found
+	public Move getBestMoveFound()
+	{
+		return (this.bestMove == Move.NO_MOVE) ? null : Move.unpack(this.bestMove);
+	}
+	
+	// Gets the number of playouts done by the last search
+	public long getIterationsCount()
+	{
+		return this.iterationsCount;
+	}
+	
+	// Gets the number of positions visited by the last search
+	public long getNodesCount()
+	{
+		return this.nodesCount;
+	}
+	
+	// Task building the tree of a helper in its thread
+	private static class TreeSearchTask implements Runnable
+	{
+		private MctsThought helper;
+		
+		public TreeSearchTask(MctsThought helper)
+		{
+			this.helper = helper;
+		}
+		
+		@Override
+		public void run()
+		{
+			this.helper.searchTree();
+		}
+	}
+}
@@ -0,0 +1,802 @@
+package ai;
+
+import game.Board;
+import game.Move;
+import game.MoveOrderer;
+import game.MovePicker;
+import game.QuadHeuristic;
+
+// Search engine using negamax with a full (alpha, beta) window and principal variation search.
+// The first move of each position is searched with the full window, the others with a null window around alpha
+// and are only searched again with the full window when they may be better.
+public class NegamaxThought implements Player {
+	// Constants
+	private static final int MAX_DEPTH = MoveOrderer.MAX_DEPTH_LEVEL;
+	private static final double INFINITE_SCORE = Integer.MAX_VALUE;
+	private static final double WIN_SCORE = Evaluation.WIN_SCORE;
+	private static final int TRANSPOSITION_TABLE_SIZE = 32;
+	
+	// Scores are multiples of a quarter (euler numbers), so a quarter wide window holds no score
+	private static final double NULL_WINDOW_WIDTH = 0.25;
+	
+	// Late move reductions: quiet moves searched after the first ones at this remaining depth or more are searched shallower
+	private static final int LATE_MOVE_REDUCTION_MIN_DEPTH = 3;
+	private static final int DEFAULT_LATE_MOVE_REDUCTION_MOVES_COUNT = 4;
+	private static final int DEFAULT_LATE_MOVE_REDUCTION = 1;
+	
+	// Null move pruning: the player passes and the opponent searches shallower, from this remaining depth or more
+	private static final int NULL_MOVE_MIN_DEPTH = 3;
+	private static final int DEFAULT_NULL_MOVE_REDUCTION = 2;
+	
+	// Remaining depth from which a YBWC thread can split a position, shallower positions are searched faster than they are shared
+	private static final int MIN_SPLIT_DEPTH = 3;
+	
+	// Time given to the connect-in-N solver before the main search, in milliseconds
+	private static final long WIN_THREAT_SEARCH_TIME = 200;
+	
+	// Proof-number solver: used when this number of pawns or less are left, with its time in milliseconds and its tree size in megabytes
+	private static final int PROOF_NUMBER_SEARCH_MAX_PAWNS = 12;
+	private static final long PROOF_NUMBER_SEARCH_TIME = 1000;
+	private static final int PROOF_NUMBER_TREE_SIZE = 32;
+	
+	// Half widths of the successive aspiration windows around the expected score, before the window becomes infinite
+	private static final double[] DEFAULT_ASPIRATION_WINDOWS = new double[] {0.5, 1.5, 4.5};
+	
+	// Variables holding the game state
+	private Board board;
+	private int playerColor;
+	
+	// Heuristics
+	private QuadHeuristic quadHeuristic;
+	private MoveOrderer moveOrderer;
+	private TranspositionTable transpositionTable;
+	private WinThreatSolver winThreatSolver;
+	private ProofNumberSolver proofNumberSolver;
+	
+	// Variables used in the search
+	private SearchController searchController;
+	private int bestMove;
+	private long nodesCount;
+	private double[] aspirationWindows;
+	private int researchesCount;
+	
+	// Lazy SMP helper settings: helpers start iterative deepening deeper, don't run the solvers and don't print
+	private boolean helperThread;
+	private int startDepth;
+	
+	// Selective search settings
+	private boolean lateMoveReductionsEnabled;
+	private int lateMoveReductionMovesCount;
+	private int lateMoveReduction;
+	private boolean nullMovePruningEnabled;
+	private int nullMoveReduction;
+	
+	// Packed moves of the root, preallocated so the search doesn't allocate
+	private int[] rootMoves;
+	
+	// Search of the captures and connections at the leaves
+	private QuiescenceSearch quiescenceSearch;
+	
+	// YBWC engine this search is a thread of, or null. The split point whose moves the thread searches is null outside of split points.
+	private YbwcThought ybwcEngine;
+	private SplitPoint currentSplitPoint;
+	
+	// Copies of the positions of the split points created at each ply, read by the threads joining them, and the moves they share
+	private Board[] splitBoards;
+	private int[][] splitMoves;
+	
+	// Move pickers of each ply
+	private MovePicker[] movePickers;
+	
+	// Move being searched at each ply, the previous ply's move is the one a position replies to
+	private int[] searchedMoves;
+	
+	// Triangular table of the principal variations: row ply holds the best line found from ply, up to its length
+	private int[][] principalVariationTable;
+	private int[] principalVariationLengths;
+	
+	// Principal variation of the last finished depth, searched first by the next depth
+	private int[] principalVariation;
+	private int principalVariationLength;
+	private boolean followingPrincipalVariation;
+	
+	// Constructor
+	public NegamaxThought(Board initialBoard, int playerColor)
+	{
+		this(initialBoard, playerColor, TRANSPOSITION_TABLE_SIZE);
+	}
+	
+	// Constructor. The transposition table uses at most transpositionTableSize megabytes.
+	public NegamaxThought(Board initialBoard, int playerColor, int transpositionTableSize)
+	{
+		this(initialBoard, playerColor, new TranspositionTable(transpositionTableSize));
+	}
+	
+	// Constructor. The transposition table can share its entries with the tables of other search threads.
+	public NegamaxThought(Board initialBoard, int playerColor, TranspositionTable transpositionTable)
+	{
+		this.board = initialBoard;
+		this.playerColor = playerColor;
+		
+		this.quadHeuristic = this.board.getQuadHeuristic();
+		this.moveOrderer = new MoveOrderer();
+		this.transpositionTable = transpositionTable;
+		this.winThreatSolver = new WinThreatSolver(this.board);
+		this.proofNumberSolver = null;
+		
+		this.rootMoves = new int[Board.MAX_MOVES];
+		this.searchedMoves = new int[MAX_DEPTH + 1];
+		this.movePickers = new MovePicker[MAX_DEPTH + 1];
+		
+		for(int ply = 0; ply <= MAX_DEPTH; ply++)
+		{
+			this.movePickers[ply] = new MovePicker(this.board, this.moveOrderer);
+		}
+		this.principalVariationTable = new int[MAX_DEPTH + 1][MAX_DEPTH + 1];
+		this.principalVariationLengths = new int[MAX_DEPTH + 1];
+		this.principalVariation = new int[MAX_DEPTH + 1];
+		
+		this.searchController = new SearchController();
+		this.quiescenceSearch = new QuiescenceSearch(this.board, this.searchController);
+		this.bestMove = Move.NO_MOVE;
+		this.aspirationWindows = DEFAULT_ASPIRATION_WINDOWS;
+		this.helperThread = false;
+		this.startDepth = 1;
+		
+		this.setLateMoveReductions(true, DEFAULT_LATE_MOVE_REDUCTION_MOVES_COUNT, DEFAULT_LATE_MOVE_REDUCTION);
+		this.setNullMovePruning(true, DEFAULT_NULL_MOVE_REDUCTION);
+	}
+	
+	@Override
+	public void run() {
+		try {
+			this.searchBestMove();
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+	}
+	
+	// Searches the best move possible using iterative deepening. This method stops when stopSearchBestMove is called or at the deadline.
+	// A new search waits that the last one finished.
+	public synchronized void searchBestMove() throws InterruptedException
+	{
+		this.searchController.start();
+		
+		this.bestMove = Move.NO_MOVE;
+		this.nodesCount = 0;
+		this.researchesCount = 0;
+		this.principalVariationLength = 0;
+		this.transpositionTable.newSearch();
+		this.moveOrderer.ageHistory();
+		
+		// A forced connection or a proven win is played without searching further
+		if(!this.helperThread && (this.searchWinThreats() || (this.board.getPawnsCount() <= PROOF_NUMBER_SEARCH_MAX_PAWNS && this.searchProof())))
+		{
+			return;
+		}
+		
+		double score = 0;
+		double previousScore = 0;
+		
+		for(int depth = this.startDepth; this.searchController.isSearching() && depth < MAX_DEPTH; depth++)
+		{
+			// Scores alternate between odd and even depths, so the window is centered on the score of two depths before.
+			// The first two depths have no such score to center a window on.
+			double sameParityScore = previousScore;
+			previousScore = score;
+			
+			if(depth <= 2)
+			{
+				score = this.searchRoot(depth, -INFINITE_SCORE, INFINITE_SCORE);
+			}
+			else
+			{
+				score = this.searchAspirationWindows(depth, sameParityScore);
+			}
+			
+			// The score and principal variation of an interrupted depth aren't reliable
+			if(this.searchController.isSearching())
+			{
+				this.principalVariationLength = this.principalVariationLengths[0];
+				System.arraycopy(this.principalVariationTable[0], 0, this.principalVariation, 0, this.principalVariationLength);
+				
+				if(!this.helperThread)
+				{
+					System.out.println("Depth: " + depth + ", score: " + score + ", nodes: " + this.nodesCount + ", re-searches: " + this.researchesCount +
+							", pv:" + this.getPrincipalVariationAsString());
+				}
+			}
+			
+			// A win has been found, deeper searches can't find better
+			if(this.searchController.isSearching() && score >= WIN_SCORE)
+			{
+				break;
+			}
+		}
+	}
+	
+	// Looks for a forced connection with the connect-in-N solver. Returns true if a winning move has been found.
+	// A forced loss can't be avoided, so the main search still looks for the move delaying it the most.
+	private boolean searchWinThreats()
+	{
+		int result = this.winThreatSolver.solve(this.playerColor, this.searchController.limitTime(WIN_THREAT_SEARCH_TIME));
+		
+		if(result == WinThreatSolver.FORCED_WIN)
+		{
+			this.bestMove = this.winThreatSolver.getWinningMove();
+			System.out.println("Forced connection in " + this.winThreatSolver.getConnectionMovesCount() + " moves: " + Move.unpack(this.bestMove));
+			return true;
+		}
+		else if(result == WinThreatSolver.FORCED_LOSS)
+		{
+			System.out.println("Warning: the opponent can force a connection in " + this.winThreatSolver.getConnectionMovesCount() + " moves");
+		}
+		
+		return false;
+	}
+	
+	// Solves the position with the proof-number solver. Returns true if the position is a proven win.
+	// A proven loss can't be avoided, so the main search still looks for the move delaying it the most.
+	private boolean searchProof()
+	{
+		// The tree is only allocated once few pawns are left
+		if(this.proofNumberSolver == null)
+		{
+			this.proofNumberSolver = new ProofNumberSolver(this.board, PROOF_NUMBER_TREE_SIZE);
+		}
+		
+		int result = this.proofNumberSolver.solve(this.playerColor, this.searchController.limitTime(PROOF_NUMBER_SEARCH_TIME));
+		
+		if(result == ProofNumberSolver.PROVEN_WIN)
+		{
+			this.bestMove = this.proofNumberSolver.getBestMove();
+			System.out.println("Proven win: " + Move.unpack(this.bestMove) + ", expanded nodes: " + this.proofNumberSolver.getExpandedNodesCount());
+			return true;
+		}
+		else if(result == ProofNumberSolver.PROVEN_LOSS)
+		{
+			System.out.println("Warning: the position is a proven loss");
+		}
+		
+		return false;
+	}
+	
+	// Searches the root position with windows centered on an expected score. When the score falls outside the window,
+	// the failing side of the window is widened to the next aspiration window and the root is searched again.
+	private double searchAspirationWindows(int depth, double expectedScore)
+	{
+		int lowerWindowIndex = 0;
+		int upperWindowIndex = 0;
+		double score = expectedScore;
+		
+		while(this.searchController.isSearching())
+		{
+			double alpha = (lowerWindowIndex < this.aspirationWindows.length && expectedScore > -WIN_SCORE) ? expectedScore - this.aspirationWindows[lowerWindowIndex] : -INFINITE_SCORE;
+			double beta = (upperWindowIndex < this.aspirationWindows.length && expectedScore < WIN_SCORE) ? expectedScore + this.aspirationWindows[upperWindowIndex] : INFINITE_SCORE;
+			
+			score = this.searchRoot(depth, alpha, beta);
+			
+			if(score <= alpha && alpha != -INFINITE_SCORE)
+			{
+				lowerWindowIndex++;
+			}
+			else if(score >= beta && beta != INFINITE_SCORE)
+			{
+				upperWindowIndex++;
+			}
+			else
+			{
+				break;
+			}
+			
+			this.researchesCount++;
+		}
+		
+		return score;
+	}
+	
+	// Searches the moves of the root position within the (alpha, beta) window and keeps the best one.
+	// The best move of the previous depth is searched first, followed by the rest of its principal variation.
+	private double searchRoot(int depth, double alpha, double beta)
+	{
+		int[] possibleMoves = this.rootMoves;
+		int possibleMovesCount = this.board.generatePossibleMoves(this.playerColor, possibleMoves);
+		int opponentColor = (this.playerColor == Board.BLACK_PLAYER) ? Board.WHITE_PLAYER : Board.BLACK_PLAYER;
+		double bestValue = -INFINITE_SCORE;
+		
+		this.principalVariationLengths[0] = 0;
+		this.moveFirst(possibleMoves, possibleMovesCount, this.bestMove);
+		this.followingPrincipalVariation = this.principalVariationLength > 0 && possibleMovesCount > 0 &&
+				Move.isSamePackedMove(possibleMoves[0], this.principalVariation[0]);
+		
+		for(int index = 0; index < possibleMovesCount && this.searchController.isSearching(); index++)
+		{
+			this.searchedMoves[0] = possibleMoves[index];
+			this.board.makeMove(possibleMoves[index]);
+			double moveValue = this.searchChild(opponentColor, depth - 1, 1, alpha, beta, index == 0);
+			this.board.unmakeMove(possibleMoves[index]);
+			
+			this.followingPrincipalVariation = false;
+			
+			// Moves whose search was interrupted aren't reliable
+			if(this.searchController.isSearching() && moveValue > bestValue)
+			{
+				bestValue = moveValue;
+				
+				if(moveValue > alpha)
+				{
+					alpha = moveValue;
+					this.bestMove = possibleMoves[index];
+					this.updatePrincipalVariation(0, possibleMoves[index]);
+				}
+				
+				// The score is above the window, the search will be done again with a wider one
+				if(alpha >= beta)
+				{
+					break;
+				}
+			}
+		}
+		
+		return bestValue;
+	}
+	
+	// Finds the value of a position for the player to play, within the (alpha, beta) window.
+	// nullMoveAllowed is false right after a null move and during its verification.
+	private double negamax(int playerColor, int depth, int ply, double alpha, double beta, boolean nullMoveAllowed)
+	{
+		// The leaves are resolved by the quiescence search
+		if(depth == 0)
+		{
+			this.principalVariationLengths[ply] = ply;
+			
+			double value = this.quiescenceSearch.search(playerColor, ply, alpha, beta, this.nodesCount);
+			this.nodesCount = this.quiescenceSearch.getNodesCount();
+			
+			return value;
+		}
+		
+		this.nodesCount++;
+		this.searchController.checkTime(this.nodesCount);
+		this.principalVariationLengths[ply] = ply;
+		
+		// Stop condition
+		double boardValue = this.value(playerColor);
+		
+		if(boardValue == WIN_SCORE || boardValue == -WIN_SCORE)
+		{
+			return boardValue;
+		}
+		
+		// Uses the result of a previous search of the same position
+		long positionKey = this.board.getZobristKey();
+		int entryIndex = this.transpositionTable.probe(positionKey);
+		int hashMove = TranspositionTable.NO_MOVE;
+		
+		if(entryIndex != TranspositionTable.NO_ENTRY)
+		{
+			hashMove = this.transpositionTable.getMove(entryIndex);
+			
+			// Positions searched with a full window don't stop on the table, so their principal variation is complete
+			if(this.transpositionTable.getDepth(entryIndex) >= depth && beta - alpha <= NULL_WINDOW_WIDTH)
+			{
+				double entryScore = this.transpositionTable.getScore(entryIndex);
+				int entryBound = this.transpositionTable.getBound(entryIndex);
+				
+				if(entryBound == TranspositionTable.EXACT_BOUND ||
+						(entryBound == TranspositionTable.LOWER_BOUND && entryScore >= beta) ||
+						(entryBound == TranspositionTable.UPPER_BOUND && entryScore <= alpha))
+				{
+					return entryScore;
+				}
+			}
+		}
+		
+		int opponentColor = (playerColor == Board.BLACK_PLAYER) ? Board.WHITE_PLAYER : Board.BLACK_PLAYER;
+		
+		// Null move pruning: if passing still gets a score above beta, moving would too. As a position where passing is better
+		// than any move (zugzwang) would be wrongly pruned, the cutoff is verified by a shallower search of the position.
+		if(this.nullMovePruningEnabled && nullMoveAllowed && beta - alpha <= NULL_WINDOW_WIDTH && depth >= NULL_MOVE_MIN_DEPTH && boardValue >= beta)
+		{
+			int reducedDepth = depth - 1 - this.nullMoveReduction;
+			
+			this.searchedMoves[ply] = Move.NO_MOVE;
+			this.board.makeNullMove();
+			double nullMoveValue = -this.negamax(opponentColor, Math.max(0, reducedDepth), ply + 1, -beta, -beta + NULL_WINDOW_WIDTH, false);
+			this.board.unmakeNullMove();
+			
+			if(this.isSearching() && nullMoveValue >= beta)
+			{
+				double verificationValue = this.negamax(playerColor, Math.max(1, reducedDepth), ply, beta - NULL_WINDOW_WIDTH, beta, false);
+				
+				// Wins found after a pass aren't proven
+				if(this.isSearching() && verificationValue >= beta)
+				{
+					return (verificationValue >= WIN_SCORE) ? beta : verificationValue;
+				}
+			}
+			
+			this.principalVariationLengths[ply] = ply;
+		}
+		
+		MovePicker movePicker = this.movePickers[ply];
+		double originalAlpha = alpha;
+		double bestValue = -INFINITE_SCORE;
+		int bestMove = Move.NO_MOVE;
+		int movesCount = 0;
+		int move;
+		
+		// Moves are given in stages to maximize early cutoffs. Along the previous principal variation, its move comes first.
+		boolean onPrincipalVariation = this.followingPrincipalVariation && ply < this.principalVariationLength;
+		movePicker.init(playerColor, ply, onPrincipalVariation ? this.principalVariation[ply] : hashMove, this.searchedMoves[ply - 1]);
+		
+		while(this.isSearching() && (move = movePicker.nextMove()) != Move.NO_MOVE)
+		{
+			// The eldest move didn't cause a cutoff, so the other moves are likely all searched and can be shared with the idle threads
+			if(movesCount > 0 && this.ybwcEngine != null && depth >= MIN_SPLIT_DEPTH && this.ybwcEngine.hasIdleThreads(this.currentSplitPoint))
+			{
+				SplitPoint splitPoint = this.createSplitPoint(movePicker, move, playerColor, depth, ply, alpha, beta, bestValue, bestMove, movesCount);
+				
+				this.split(splitPoint);
+				bestValue = splitPoint.getBestValue();
+				
+				// The thread searching the best move may not be this one, so the principal variation stops at the move
+				if(splitPoint.getBestMove() != bestMove && bestValue > alpha)
+				{
+					this.principalVariationLengths[ply + 1] = ply + 1;
+					this.updatePrincipalVariation(ply, splitPoint.getBestMove());
+				}
+				
+				bestMove = splitPoint.getBestMove();
+				
+				if(bestValue >= beta)
+				{
+					this.moveOrderer.signalCutoff(bestMove, ply, depth, this.searchedMoves[ply - 1]);
+				}
+				break;
+			}
+			
+			this.followingPrincipalVariation = onPrincipalVariation && movesCount == 0 && Move.isSamePackedMove(move, this.principalVariation[ply]);
+			
+			double moveValue = this.searchMove(playerColor, depth, ply, move, movesCount, alpha, beta);
+			
+			this.followingPrincipalVariation = false;
+			movesCount++;
+			
+			if(moveValue > bestValue)
+			{
+				bestValue = moveValue;
+				bestMove = move;
+				
+				if(moveValue > alpha)
+				{
+					alpha = moveValue;
+					this.updatePrincipalVariation(ply, move);
+				}
+				
+				// Beta cutoff
+				if(alpha >= beta)
+				{
+					this.moveOrderer.signalCutoff(move, ply, depth, this.searchedMoves[ply - 1]);
+					break;
+				}
+			}
+		}
+		
+		this.followingPrincipalVariation = false;
+		
+		if(movesCount == 0)
+		{
+			return boardValue;
+		}
+		
+		if(this.isSearching())
+		{
+			int bound = TranspositionTable.EXACT_BOUND;
+			
+			if(bestValue <= originalAlpha)
+			{
+				bound = TranspositionTable.UPPER_BOUND;
+			}
+			else if(bestValue >= beta)
+			{
+				bound = TranspositionTable.LOWER_BOUND;
+			}
+			
+			this.transpositionTable.store(positionKey, depth, bound, bestValue, bestMove);
+		}
+		
+		return bestValue;
+	}
+	
+	// Searches a move of a position and gets its value for the player making it. moveNumber moves of the position were searched before.
+	// Late quiet moves that don't join groups are searched shallower first, and at full depth only if they beat alpha.
+	private double searchMove(int playerColor, int depth, int ply, int move, int moveNumber, double alpha, double beta)
+	{
+		int opponentColor = (playerColor == Board.BLACK_PLAYER) ? Board.WHITE_PLAYER : Board.BLACK_PLAYER;
+		int reduction = 0;
+		
+		if(this.lateMoveReductionsEnabled && depth >= LATE_MOVE_REDUCTION_MIN_DEPTH && moveNumber >= this.lateMoveReductionMovesCount &&
+				Move.getPackedCapturedSquare(move) == Board.BLANK_SQUARE && this.quadHeuristic.getPlayerEulerDelta(move) >= 0)
+		{
+			reduction = Math.min(this.lateMoveReduction, depth - 1);
+		}
+		
+		this.searchedMoves[ply] = move;
+		this.board.makeMove(move);
+		double moveValue;
+		
+		if(reduction > 0)
+		{
+			moveValue = -this.negamax(opponentColor, depth - 1 - reduction, ply + 1, -alpha - NULL_WINDOW_WIDTH, -alpha, true);
+			
+			if(moveValue > alpha)
+			{
+				moveValue = this.searchChild(opponentColor, depth - 1, ply + 1, alpha, beta, false);
+			}
+		}
+		else
+		{
+			moveValue = this.searchChild(opponentColor, depth - 1, ply + 1, alpha, beta, moveNumber == 0);
+		}
+		
+		this.board.unmakeMove(move);
+		
+		return moveValue;
+	}
+	
+	// Shares the moves left of a position with the idle threads of the YBWC engine: the move just picked and the ones the picker has left
+	private SplitPoint createSplitPoint(MovePicker movePicker, int move, int playerColor, int depth, int ply, double alpha, double beta,
+			double bestValue, int bestMove, int searchedMovesCount)
+	{
+		int[] moves = this.splitMoves[ply];
+		int movesCount = 0;
+		
+		do
+		{
+			moves[movesCount++] = move;
+		} while((move = movePicker.nextMove()) != Move.NO_MOVE);
+		
+		if(this.splitBoards[ply] == null)
+		{
+			this.splitBoards[ply] = this.board.copy();
+		}
+		
+		this.splitBoards[ply].copyFrom(this.board);
+		
+		return new SplitPoint(this.currentSplitPoint, this.splitBoards[ply], ply, playerColor, depth, alpha, beta, bestValue, bestMove,
+				moves, movesCount, searchedMovesCount);
+	}
+	
+	// Searches the moves of a split point with its helpers. Once no move is left, this thread helps the threads still searching
+	// at the split points they created below, instead of waiting for them. Returns once all the helpers left the split point.
+	private void split(SplitPoint splitPoint)
+	{
+		this.ybwcEngine.addSplitPoint(splitPoint);
+		this.helpSplitPoint(splitPoint);
+		this.ybwcEngine.removeSplitPoint(splitPoint);
+		
+		SplitPoint helpedSplitPoint;
+		
+		while((helpedSplitPoint = this.ybwcEngine.waitSplitPointBelow(splitPoint)) != null)
+		{
+			this.joinSplitPoint(helpedSplitPoint);
+			this.board.copyFrom(splitPoint.getBoard());
+		}
+	}
+	
+	// Searches the moves of a split point joined by this thread from a copy of its position, and leaves it
+	void joinSplitPoint(SplitPoint splitPoint)
+	{
+		this.board.copyFrom(splitPoint.getBoard());
+		this.helpSplitPoint(splitPoint);
+		this.ybwcEngine.leaveSplitPoint(splitPoint);
+	}
+	
+	// Searches the next moves of a split point on the board at its position, with the best alpha found by all its threads, until none are left
+	private void helpSplitPoint(SplitPoint splitPoint)
+	{
+		SplitPoint previousSplitPoint = this.currentSplitPoint;
+		int index;
+		
+		this.currentSplitPoint = splitPoint;
+		
+		while((index = splitPoint.nextMoveIndex()) != SplitPoint.NO_MOVE_INDEX)
+		{
+			int move = splitPoint.getMove(index);
+			double moveValue = this.searchMove(splitPoint.getPlayerColor(), splitPoint.getDepth(), splitPoint.getPly(), move, splitPoint.getMoveNumber(index),
+					splitPoint.getAlpha(), splitPoint.getBeta());
+			
+			if(!this.isSearching())
+			{
+				break;
+			}
+			
+			splitPoint.updateResult(move, moveValue);
+		}
+		
+		this.currentSplitPoint = previousSplitPoint;
+	}
+	
+	// Determines if the search goes on: it isn't stopped, and no cutoff at a split point above made it useless
+	private boolean isSearching()
+	{
+		return this.searchController.isSearching() && (this.currentSplitPoint == null || !this.currentSplitPoint.isAborted());
+	}
+	
+	// Gets the value of a move for the player who made it. Moves after the first are searched with a null window,
+	// and searched again with the full window only when they beat alpha.
+	private double searchChild(int opponentColor, int depth, int ply, double alpha, double beta, boolean firstMove)
+	{
+		if(firstMove)
+		{
+			return -this.negamax(opponentColor, depth, ply, -beta, -alpha, true);
+		}
+		
+		double moveValue = -this.negamax(opponentColor, depth, ply, -alpha - NULL_WINDOW_WIDTH, -alpha, true);
+		
+		if(moveValue > alpha && moveValue < beta)
+		{
+			moveValue = -this.negamax(opponentColor, depth, ply, -beta, -alpha, true);
+		}
+		
+		return moveValue;
+	}
+	
+	// Makes the move followed by the principal variation of the next ply the principal variation of the ply
+	private void updatePrincipalVariation(int ply, int move)
+	{
+		int[] plyPrincipalVariation = this.principalVariationTable[ply];
+		
+		plyPrincipalVariation[ply] = move;
+		
+		for(int nextPly = ply + 1; nextPly < this.principalVariationLengths[ply + 1]; nextPly++)
+		{
+			plyPrincipalVariation[nextPly] = this.principalVariationTable[ply + 1][nextPly];
+		}
+		
+		this.principalVariationLengths[ply] = Math.max(ply + 1, this.principalVariationLengths[ply + 1]);
+	}
+	
+	// Moves a move in first place if it is in the list
+	private void moveFirst(int[] moves, int movesCount, int move)
+	{
+		for(int index = 0; index < movesCount && move != Move.NO_MOVE; index++)
+		{
+			if(Move.isSamePackedMove(move, moves[index]))
+			{
+				int moveTemp = moves[0];
+				moves[0] = moves[index];
+				moves[index] = moveTemp;
+				return;
+			}
+		}
+	}
+	
+	// Calculates the value of the game state for a player. A higher value means the board is advantageous for the player.
+	public double value(int playerColor)
+	{
+		return Evaluation.value(this.board, playerColor);
+	}
+	
+	// Makes the engine a helper of a parallel search: it starts iterative deepening at startDepth, doesn't run the solvers and doesn't print.
+	// Its best move is only meant to fill the shared transposition table.
+	public void setHelperThread(int startDepth)
+	{
+		this.helperThread = true;
+		this.startDepth = startDepth;
+	}
+	
+	// Makes the engine a thread of a YBWC search: it shares the moves of its positions with the idle threads of the YBWC engine
+	// and stops with them. Only the first thread runs searchBestMove, the others search the moves of the split points they join.
+	void setYbwcEngine(YbwcThought ybwcEngine)
+	{
+		this.ybwcEngine = ybwcEngine;
+		this.searchController = ybwcEngine.getSearchController();
+		this.quiescenceSearch = new QuiescenceSearch(this.board, this.searchController);
+		this.splitBoards = new Board[MAX_DEPTH + 1];
+		this.splitMoves = new int[MAX_DEPTH + 1][Board.MAX_MOVES];
+	}
+	
+	// Prepares a YBWC helper thread for a new search. Every thread's view of the transposition table starts the search, so their ages stay the same.
+	void newHelperSearch()
+	{
+		this.nodesCount = 0;
+		this.transpositionTable.newSearch();
+		this.moveOrderer.ageHistory();
+	}
+	
+	// Sets the half widths of the successive aspiration windows, in increasing order
+	public void setAspirationWindows(double[] aspirationWindows)
+	{
+		this.aspirationWindows = aspirationWindows.clone();
+	}
+	
+	// Enables or disables late move reductions. Quiet moves searched after the first movesCount moves are reduced by reduction plies.
+	public void setLateMoveReductions(boolean enabled, int movesCount, int reduction)
+	{
+		this.lateMoveReductionsEnabled = enabled;
+		this.lateMoveReductionMovesCount = movesCount;
+		this.lateMoveReduction = reduction;
+	}
+	
+	// Enables or disables null move pruning. The search after the null move is reduced by reduction plies.
+	public void setNullMovePruning(boolean enabled, int reduction)
+	{
+		this.nullMovePruningEnabled = enabled;
+		this.nullMoveReduction = reduction;
+	}
+	
+	// Enables or disables the quiescence search. Without it, the leaves of the main search are evaluated by their static value.
+	public void setQuiescenceSearch(boolean enabled)
+	{
+		this.quiescenceSearch.setEnabled(enabled);
+	}
+	
+	// Gets the number of root searches done again with a wider aspiration window during the last search
+	public int getResearchesCount()
+	{
+		return this.researchesCount;
+	}
+	
+	// Gets the transposition table used by the search
+	public TranspositionTable getTranspositionTable()
+	{
+		return this.transpositionTable;
+	}
+	
+	// Terminates the best move search
+	public void stopSearchBestMove()
+	{
+		this.searchController.stop();
+		this.winThreatSolver.stop();
+		
+		if(this.proofNumberSolver != null)
+		{
+			this.proofNumberSolver.stop();
+		}
+	}
+	
+	// Sets the System.nanoTime at which the next searches stop by themselves
+	public void setDeadline(long deadline)
+	{
+		this.searchController.setDeadline(deadline);
+	}
+	
+	// Gets the best move found
+	public Move getBestMoveFound()
+	{
+		return (this.bestMove == Move.NO_MOVE) ? null : Move.unpack(this.bestMove);
+	}
+	
+	// Gets the principal variation of the last finished depth: the best move followed by the best replies expected
+	public Move[] getPrincipalVariation()
+	{
+		Move[] moves = new Move[this.principalVariationLength];
+		
+		for(int index = 0; index < this.principalVariationLength; index++)
+		{
+			moves[index] = Move.unpack(this.principalVariation[index]);
+		}
+		
+		return moves;
+	}
+	
+	private String getPrincipalVariationAsString()
+	{
+		StringBuilder principalVariationString = new StringBuilder();
+		
+		for(int index = 0; index < this.principalVariationLength; index++)
+		{
+			principalVariationString.append(' ').append(Move.unpack(this.principalVariation[index]));
+		}
+		
+		return principalVariationString.toString();
+	}
+	
+	// Gets the number of positions visited by the last search
+	public long getNodesCount()
+	{
+		return this.nodesCount;
+	}
+}
@@ -0,0 +1,22 @@
+package ai;
+
+import game.Move;
+
+// Search engine playing for one colour. The search runs in its own thread until stopSearchBestMove is called.
+public interface Player extends Runnable
+{
+	// Searches the best move possible. This method stops when stopSearchBestMove is called.
+	public void searchBestMove() throws InterruptedException;
+	
+	// Terminates the best move search
+	public void stopSearchBestMove();
+	
+	// Sets the System.nanoTime at which the next searches stop by themselves, or SearchController.NO_DEADLINE
+	public void setDeadline(long deadline);
+	
+	// Gets the best move found, or null if no move was searched
+	public Move getBestMoveFound();
+	
+	// Gets the number of positions visited by the last search
+	public long getNodesCount();
+}
@@ -0,0 +1,351 @@
+package ai;
+
+import game.Board;
+import game.Move;
+import game.QuadHeuristic;
+
+// Proof-number search solving a position: proves that the player to play wins or loses.
+// The tree is grown best-first from the most-proving node, the leaf whose solving reduces the most the proof number of
+// the root (moves to prove) or its disproof number (moves to refute). The board follows the tree with make and unmake.
+// Nodes are stored in primitive arrays of a fixed size so the search never allocates.
+// In Lines of Action a player without legal moves passes, so such a position has a single child where the other player plays again.
+// A position where neither player can move can't be solved, so the search gives up.
+public class ProofNumberSolver
+{
+	// Results of a search
+	public static final int UNKNOWN_RESULT = 0;
+	public static final int PROVEN_WIN = 1;
+	public static final int PROVEN_LOSS = 2;
+	
+	// Constants
+	private static final int NODE_SIZE_IN_BYTES = 24;
+	private static final int INFINITE_NUMBER = Integer.MAX_VALUE / 2;
+	private static final int NO_NODE = -1;
+	private static final int UNEXPANDED_NODE = -1;
+	private static final int TERMINAL_NODE = -2;
+	private static final int MAX_PLIES = 128;
+	private static final int ITERATIONS_BETWEEN_TIME_CHECKS = 64;
+	
+	// Move of the node where a player without legal moves passes
+	private static final int PASS_MOVE = Move.NO_MOVE;
+	
+	// Outcomes of a search
+	private static final int PROVEN = 0;
+	private static final int DISPROVEN = 1;
+	private static final int UNSOLVED = 2;
+	
+	// Variables holding the game state
+	private Board board;
+	private QuadHeuristic quadHeuristic;
+	
+	// Nodes of the tree. The children of a node are stored next to each other.
+	private int[] nodeMoves;
+	private int[] parents;
+	private int[] firstChildren;
+	private int[] childrenCounts;
+	private int[] proofNumbers;
+	private int[] disproofNumbers;
+	private int usedNodesCount;
+	
+	// Variables used in the search
+	private int playerColor;
+	private long deadline;
+	private boolean timeOver;
+	private int bestMove;
+	private long expandedNodesCount;
+	
+	// Packed moves of an expanded node, preallocated so the search doesn't allocate
+	private int[] possibleMoves;
+	
+	// Constructor. The tree uses at most sizeInMegabytes of memory.
+	public ProofNumberSolver(Board board, int sizeInMegabytes)
+	{
+		int capacity = (int) Math.min(((long) sizeInMegabytes * 1024 * 1024) / NODE_SIZE_IN_BYTES, Integer.MAX_VALUE - 8);
+		
+		this.board = board;
+		this.quadHeuristic = board.getQuadHeuristic();
+		
+		this.nodeMoves = new int[capacity];
+		this.parents = new int[capacity];
+		this.firstChildren = new int[capacity];
+		this.childrenCounts = new int[capacity];
+		this.proofNumbers = new int[capacity];
+		this.disproofNumbers = new int[capacity];
+		this.possibleMoves = new int[Board.MAX_MOVES];
+		
+		this.bestMove = Move.NO_MOVE;
+	}
+	
+	// Solves the position for the player to play within timeLimit milliseconds
+	public int solve(int playerColor, long timeLimit)
+	{
+		this.playerColor = playerColor;
+		this.deadline = System.nanoTime() + timeLimit * 1000000L;
+		this.timeOver = false;
+		this.bestMove = Move.NO_MOVE;
+		this.expandedNodesCount = 0;
+		
+		int outcome = this.search();
+		
+		if(outcome == PROVEN)
+		{
+			this.bestMove = this.getProvenMove();
+			return PROVEN_WIN;
+		}
+		
+		return (outcome == DISPROVEN) ? PROVEN_LOSS : UNKNOWN_RESULT;
+	}
+	
+	// Grows a new tree until the player's win is proven or disproven, or until the time or the nodes run out
+	private int search()
+	{
+		this.usedNodesCount = 1;
+		this.nodeMoves[0] = Move.NO_MOVE;
+		this.parents[0] = NO_NODE;
+		this.firstChildren[0] = UNEXPANDED_NODE;
+		this.proofNumbers[0] = 1;
+		this.disproofNumbers[0] = 1;
+		
+		for(int iteration = 1; this.proofNumbers[0] != 0 && this.disproofNumbers[0] != 0; iteration++)
+		{
+			if(iteration % ITERATIONS_BETWEEN_TIME_CHECKS == 0 && System.nanoTime() > this.deadline)
+			{
+				this.timeOver = true;
+			}
+			
+			if(this.timeOver)
+			{
+				return UNSOLVED;
+			}
+			
+			// Goes down to the most-proving node: the player picks the child easiest to prove, the opponent the one easiest to refute
+			int node = 0;
+			int ply = 0;
+			
+			while(this.firstChildren[node] >= 0 && ply < MAX_PLIES)
+			{
+				node = this.selectChild(node, ply % 2 == 0);
+				this.makeMove(this.nodeMoves[node]);
+				ply++;
+			}
+			
+			boolean expanded = ply < MAX_PLIES && this.expand(node, ply);
+			
+			// Goes back up to the root, updating the numbers of the ancestors
+			while(node != NO_NODE)
+			{
+				this.updateNode(node, ply % 2 == 0);
+				
+				if(this.parents[node] != NO_NODE)
+				{
+					this.unmakeMove(this.nodeMoves[node]);
+				}
+				
+				node = this.parents[node];
+				ply--;
+			}
+			
+			// The tree is full or too deep (repeated positions), or neither player can move
+			if(!expanded)
+			{
+				return UNSOLVED;
+			}
+		}
+		
+		return (this.proofNumbers[0] == 0) ? PROVEN : DISPROVEN;
+	}
+	
+	// Gets the child of a node with the lowest proof number if the player is to play, or the lowest disproof number otherwise
+	private int selectChild(int node, boolean playerToPlay)
+	{
+		int[] numbers = playerToPlay ? this.proofNumbers : this.disproofNumbers;
+		int bestChild = this.firstChildren[node];
+		
+		for(int child = bestChild + 1; child < this.firstChildren[node] + this.childrenCounts[node]; child++)
+		{
+			if(numbers[child] < numbers[bestChild])
+			{
+				bestChild = child;
+			}
+		}
+		
+		return bestChild;
+	}
+	
+	// Creates the children of a leaf and evaluates the ones ending the game. Returns false if the tree is full or if the game can't go on.
+	private boolean expand(int node, int ply)
+	{
+		int moverColor = (ply % 2 == 0) ? this.playerColor : this.getOpponentColor(this.playerColor);
+		int possibleMovesCount = this.board.generatePossibleMoves(moverColor, this.possibleMoves);
+		
+		this.expandedNodesCount++;
+		
+		// A player without moves passes, unless the other player just passed too
+		if(possibleMovesCount == 0)
+		{
+			if(this.parents[node] != NO_NODE && this.nodeMoves[node] == PASS_MOVE)
+			{
+				return false;
+			}
+			
+			this.possibleMoves[0] = PASS_MOVE;
+			possibleMovesCount = 1;
+		}
+		
+		if(this.usedNodesCount + possibleMovesCount > this.nodeMoves.length)
+		{
+			return false;
+		}
+		
+		this.firstChildren[node] = this.usedNodesCount;
+		this.childrenCounts[node] = possibleMovesCount;
+		
+		for(int index = 0; index < possibleMovesCount; index++)
+		{
+			int child = this.usedNodesCount + index;
+			
+			this.nodeMoves[child] = this.possibleMoves[index];
+			this.parents[child] = node;
+			this.firstChildren[child] = UNEXPANDED_NODE;
+			
+			// The mover wins if his move connects his pawns, even if it connects the opponent's pawns too
+			this.makeMove(this.possibleMoves[index]);
+			
+			// A player with a high euler number needs many moves to connect, so his win is harder to prove
+			this.proofNumbers[child] = this.getConnectionDistance(this.playerColor);
+			this.disproofNumbers[child] = this.getConnectionDistance(this.getOpponentColor(this.playerColor));
+			
+			if(this.isConnected(moverColor))
+			{
+				this.setTerminalNode(child, moverColor == this.playerColor);
+			}
+			else if(this.isConnected(this.getOpponentColor(moverColor)))
+			{
+				this.setTerminalNode(child, moverColor != this.playerColor);
+			}
+			
+			this.unmakeMove(this.possibleMoves[index]);
+		}
+		
+		this.usedNodesCount += possibleMovesCount;
+		
+		return true;
+	}
+	
+	// Calculates the numbers of an expanded node from its children. The numbers of the player's nodes are the lowest proof number
+	// and the sum of the disproof numbers of the children, and the opposite for the opponent's nodes.
+	private void updateNode(int node, boolean playerToPlay)
+	{
+		if(this.firstChildren[node] < 0)
+		{
+			return;
+		}
+		
+		int lowestNumber = INFINITE_NUMBER;
+		int numbersSum = 0;
+		int[] lowestNumbers = playerToPlay ? this.proofNumbers : this.disproofNumbers;
+		int[] summedNumbers = playerToPlay ? this.disproofNumbers : this.proofNumbers;
+		
+		for(int child = this.firstChildren[node]; child < this.firstChildren[node] + this.childrenCounts[node]; child++)
+		{
+			lowestNumber = Math.min(lowestNumber, lowestNumbers[child]);
+			numbersSum = Math.min(numbersSum + summedNumbers[child], INFINITE_NUMBER);
+		}
+		
+		lowestNumbers[node] = lowestNumber;
+		summedNumbers[node] = numbersSum;
+	}
+	
+	// Marks a node as ending the game, proven if the player wins and disproven otherwise
+	private void setTerminalNode(int node, boolean proven)
+	{
+		this.firstChildren[node] = TERMINAL_NODE;
+		this.proofNumbers[node] = proven ? 0 : INFINITE_NUMBER;
+		this.disproofNumbers[node] = proven ? INFINITE_NUMBER : 0;
+	}
+	
+	// Plays the move of a node on the board, or passes
+	private void makeMove(int move)
+	{
+		if(move == PASS_MOVE)
+		{
+			this.board.makeNullMove();
+		}
+		else
+		{
+			this.board.makeMove(move);
+		}
+	}
+	
+	private void unmakeMove(int move)
+	{
+		if(move == PASS_MOVE)
+		{
+			this.board.unmakeNullMove();
+		}
+		else
+		{
+			this.board.unmakeMove(move);
+		}
+	}
+	
+	// Gets the move of a proven child of the root
+	private int getProvenMove()
+	{
+		for(int child = this.firstChildren[0]; child < this.firstChildren[0] + this.childrenCounts[0]; child++)
+		{
+			if(this.proofNumbers[child] == 0)
+			{
+				return this.nodeMoves[child];
+			}
+		}
+		
+		return Move.NO_MOVE;
+	}
+	
+	// Estimates the number of moves a player needs to connect his pawns from his euler number
+	private int getConnectionDistance(int playerColor)
+	{
+		return Math.max(1, (int) Math.ceil(this.getEulerNumber(playerColor)));
+	}
+	
+	// Determines if the pawns of a player are connected, checking the euler number first since it's faster
+	private boolean isConnected(int playerColor)
+	{
+		return this.getEulerNumber(playerColor) <= 1 && this.board.isWinning(playerColor);
+	}
+	
+	private float getEulerNumber(int playerColor)
+	{
+		return (playerColor == Board.BLACK_PLAYER) ? this.quadHeuristic.getBlackPawnsValue() : this.quadHeuristic.getWhitePawnsValue();
+	}
+	
+	private int getOpponentColor(int playerColor)
+	{
+		return (playerColor == Board.BLACK_PLAYER) ? Board.WHITE_PLAYER : Board.BLACK_PLAYER;
+	}
+	
+	// Terminates the search in progress
+	public void stop()
+	{
+		this.timeOver = true;
+	}
+	
+	// Gets the winning move found by the last search, or NO_MOVE
+	public int getBestMove()
+	{
+		return this.bestMove;
+	}
+	
+	// Gets the number of positions expanded by the last search
+	public long getExpandedNodesCount()
+	{
+		return this.expandedNodesCount;
+	}
+	
+	// Gets the number of nodes the tree can hold
+	public int getCapacity()
+	{
+		return this.nodeMoves.length;
+	}
+}
@@ -0,0 +1,155 @@
+package ai;
+
+import game.Board;
+import game.Move;
+import game.MoveOrderer;
+import game.QuadHeuristic;
+
+// Search run at the leaves of the main searches. It searches the captures and the moves lowering the player's euler number
+// until the position is quiet, so a leaf isn't evaluated in the middle of a capture or a connection. The player may also
+// stop (stand pat) with the static value. A budget of positions per leaf bounds the search.
+class QuiescenceSearch
+{
+	// Constants
+	private static final int MAX_DEPTH = MoveOrderer.MAX_DEPTH_LEVEL;
+	
+	// Positions visited after each leaf of the main search, and the margin kept by delta pruning
+	private static final int NODES_BUDGET = 256;
+	private static final double DELTA_PRUNING_MARGIN = 1;
+	
+	// Plies of the quiescence search where the moves joining two groups (lowering the euler number by 1) are searched with the captures
+	private static final int CONNECTION_MOVES_PLIES = 1;
+	
+	// Variables holding the game state
+	private Board board;
+	private QuadHeuristic quadHeuristic;
+	private SearchController searchController;
+	
+	// Without the quiescence search, the leaves are evaluated by their static value
+	private boolean enabled;
+	private int nodesLeft;
+	private long nodesCount;
+	
+	// Moves searched at each ply, and how much each one changes the value for the player
+	private int[][] moves;
+	private double[][] movesGains;
+	
+	// Constructor. The search stops with the main search.
+	QuiescenceSearch(Board board, SearchController searchController)
+	{
+		this.board = board;
+		this.quadHeuristic = board.getQuadHeuristic();
+		this.searchController = searchController;
+		
+		this.enabled = true;
+		this.moves = new int[MAX_DEPTH + 1][Board.MAX_MOVES];
+		this.movesGains = new double[MAX_DEPTH + 1][Board.MAX_MOVES];
+	}
+	
+	// Finds the value of a leaf of the main search for the player to play, within the (alpha, beta) window.
+	// The positions visited are counted from the nodes count of the main search, which gets it back with getNodesCount.
+	double search(int playerColor, int ply, double alpha, double beta, long nodesCount)
+	{
+		this.nodesCount = nodesCount;
+		this.nodesLeft = this.enabled ? NODES_BUDGET : 1;
+		
+		return this.quiescence(playerColor, ply, 0, alpha, beta);
+	}
+	
+	private double quiescence(int playerColor, int ply, int quiescencePly, double alpha, double beta)
+	{
+		this.nodesCount++;
+		this.searchController.checkTime(this.nodesCount);
+		this.nodesLeft--;
+		
+		double standPat = Evaluation.value(this.board, playerColor);
+		
+		if(standPat == Evaluation.WIN_SCORE || standPat == -Evaluation.WIN_SCORE || standPat >= beta || ply >= MAX_DEPTH || this.nodesLeft <= 0)
+		{
+			return standPat;
+		}
+		
+		if(standPat > alpha)
+		{
+			alpha = standPat;
+		}
+		
+		int[] moves = this.moves[ply];
+		double[] gains = this.movesGains[ply];
+		int possibleMovesCount = this.board.generatePossibleMoves(playerColor, moves);
+		int opponentColor = (playerColor == Board.BLACK_PLAYER) ? Board.WHITE_PLAYER : Board.BLACK_PLAYER;
+		float playerEulerNumber = (playerColor == Board.BLACK_PLAYER) ? this.quadHeuristic.getBlackPawnsValue() : this.quadHeuristic.getWhitePawnsValue();
+		int movesCount = 0;
+		
+		// Keeps the noisy moves that can still raise alpha (delta pruning). A move that may connect all the pawns is always kept.
+		for(int index = 0; index < possibleMovesCount; index++)
+		{
+			int move = moves[index];
+			float playerEulerDelta = this.quadHeuristic.getPlayerEulerDelta(move);
+			
+			if(Move.getPackedCapturedSquare(move) != Board.BLANK_SQUARE || (quiescencePly < CONNECTION_MOVES_PLIES && playerEulerDelta <= -1))
+			{
+				double gain = Evaluation.getMoveGain(this.board, move);
+				
+				if(standPat + gain + DELTA_PRUNING_MARGIN > alpha || playerEulerNumber + playerEulerDelta <= 1)
+				{
+					moves[movesCount] = move;
+					gains[movesCount] = gain;
+					movesCount++;
+				}
+			}
+		}
+		
+		for(int index = 0; index < movesCount && this.searchController.isSearching(); index++)
+		{
+			// Searches the move with the best gain left first
+			int bestIndex = index;
+			
+			for(int otherIndex = index + 1; otherIndex < movesCount; otherIndex++)
+			{
+				if(gains[otherIndex] > gains[bestIndex])
+				{
+					bestIndex = otherIndex;
+				}
+			}
+			
+			int move = moves[bestIndex];
+			moves[bestIndex] = moves[index];
+			gains[bestIndex] = gains[index];
+			
+			this.board.makeMove(move);
+			double moveValue = -this.quiescence(opponentColor, ply + 1, quiescencePly + 1, -beta, -alpha);
+			this.board.unmakeMove(move);
+			
+			if(moveValue > alpha)
+			{
+				alpha = moveValue;
+				
+				if(alpha >= beta)
+				{
+					break;
+				}
+			}
+		}
+		
+		return alpha;
+	}
+	
+	// Enables or disables the quiescence search
+	void setEnabled(boolean enabled)
+	{
+		this.enabled = enabled;
+	}
+	
+	// Determines if the quiescence search is enabled
+	boolean isEnabled()
+	{
+		return this.enabled;
+	}
+	
+	// Gets the nodes count given to the last search, plus the positions it visited
+	long getNodesCount()
+	{
+		return this.nodesCount;
+	}
+}
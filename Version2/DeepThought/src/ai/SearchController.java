@@ -0,0 +1,71 @@
+package ai;
+
+// Decides when a search stops: when stop is called or when its deadline is reached. The deadline is checked every few
+// positions, so a search stops by itself without another thread waiting for it. The threads of a parallel search share
+// the controller of their engine, so the thread reaching the deadline stops all of them.
+public class SearchController
+{
+	// Deadline of the searches only stopped by stop
+	public static final long NO_DEADLINE = Long.MAX_VALUE;
+	
+	// Positions visited between two checks of the time
+	private static final int NODES_BETWEEN_TIME_CHECKS = 1024;
+	
+	// Written by the thread stopping the search or reaching the deadline, read by all the searching threads
+	private volatile boolean runSearch;
+	private volatile long deadline;
+	
+	// Constructor
+	public SearchController()
+	{
+		this.runSearch = false;
+		this.deadline = NO_DEADLINE;
+	}
+	
+	// Sets the System.nanoTime at which the next searches stop by themselves, or NO_DEADLINE
+	public void setDeadline(long deadline)
+	{
+		this.deadline = deadline;
+	}
+	
+	// Starts a search, which runs until stop is called or the deadline is reached
+	public void start()
+	{
+		this.runSearch = true;
+	}
+	
+	// Terminates the search
+	public void stop()
+	{
+		this.runSearch = false;
+	}
+	
+	// Determines if the search still runs
+	public boolean isSearching()
+	{
+		return this.runSearch;
+	}
+	
+	// Checks the time every few positions visited by a thread, and stops the search once the deadline is reached.
+	// Returns true while the search runs.
+	public boolean checkTime(long nodesCount)
+	{
+		if(nodesCount % NODES_BETWEEN_TIME_CHECKS == 0 && System.nanoTime() > this.deadline)
+		{
+			this.runSearch = false;
+		}
+		
+		return this.runSearch;
+	}
+	
+	// Gets the time in milliseconds a step of the search can take, at most timeLimit, without passing the deadline
+	public long limitTime(long timeLimit)
+	{
+		if(this.deadline == NO_DEADLINE)
+		{
+			return timeLimit;
+		}
+		
+		return Math.max(0, Math.min(timeLimit, (this.deadline - System.nanoTime()) / 1000000L));
+	}
+}
@@ -0,0 +1,198 @@
+package ai;
+
+import game.Board;
+
+// Node of the YBWC search whose moves left are shared between threads once its eldest move has been searched.
+// Each thread takes the next move not searched yet until none are left or a move causes a cutoff, which aborts the
+// searches of all the threads working below the split point.
+class SplitPoint
+{
+	// Index given when no move is left to search
+	static final int NO_MOVE_INDEX = -1;
+	
+	// Split point of an ancestor node, its cutoff aborts this split point too
+	private SplitPoint parent;
+	
+	// Position of the node, copied by the threads joining the split point, with the player to play and the remaining depth
+	private Board board;
+	private int ply;
+	private int playerColor;
+	private int depth;
+	private double beta;
+	
+	// Moves left to search, the ones before nextMoveIndex are searched or being searched. The owner searched
+	// searchedMovesCount moves of the node before the split, so late moves are still reduced.
+	private int[] moves;
+	private int nextMoveIndex;
+	private int movesCount;
+	private int searchedMovesCount;
+	
+	// Best result found by all the threads
+	private double alpha;
+	private double bestValue;
+	private int bestMove;
+	private volatile boolean cutoff;
+	
+	// Number of threads helping the owner of the split point, changed with the lock of the engine's split points
+	private int helpersCount;
+	
+	// Constructor. The first movesCount moves are left to search.
+	// The board must not change until the threads left the split point.
+	SplitPoint(SplitPoint parent, Board board, int ply, int playerColor, int depth, double alpha, double beta, double bestValue, int bestMove,
+			int[] moves, int movesCount, int searchedMovesCount)
+	{
+		this.parent = parent;
+		this.board = board;
+		this.ply = ply;
+		this.playerColor = playerColor;
+		this.depth = depth;
+		this.beta = beta;
+		
+		this.moves = new int[movesCount];
+		System.arraycopy(moves, 0, this.moves, 0, movesCount);
+		this.nextMoveIndex = 0;
+		this.movesCount = movesCount;
+		this.searchedMovesCount = searchedMovesCount;
+		
+		this.alpha = alpha;
+		this.bestValue = bestValue;
+		this.bestMove = bestMove;
+		this.cutoff = false;
+		this.helpersCount = 0;
+	}
+	
+	// Gets the index of the next move to search, or NO_MOVE_INDEX if none are left or a cutoff happened
+	synchronized int nextMoveIndex()
+	{
+		if(this.cutoff || this.nextMoveIndex >= this.movesCount)
+		{
+			return NO_MOVE_INDEX;
+		}
+		
+		return this.nextMoveIndex++;
+	}
+	
+	// Determines if a thread joining the split point would have a move to search
+	synchronized boolean hasMovesLeft()
+	{
+		return !this.cutoff && this.nextMoveIndex < this.movesCount;
+	}
+	
+	// Updates the best result with the value of a searched move. A value reaching beta aborts the other threads.
+	synchronized void updateResult(int move, double moveValue)
+	{
+		if(moveValue > this.bestValue)
+		{
+			this.bestValue = moveValue;
+			this.bestMove = move;
+			
+			if(moveValue > this.alpha)
+			{
+				this.alpha = moveValue;
+			}
+			
+			if(this.alpha >= this.beta)
+			{
+				this.cutoff = true;
+			}
+		}
+	}
+	
+	// Determines if the searches below the split point are useless, because of a cutoff here or at an ancestor
+	boolean isAborted()
+	{
+		for(SplitPoint splitPoint = this; splitPoint != null; splitPoint = splitPoint.parent)
+		{
+			if(splitPoint.cutoff)
+			{
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	// Determines if the split point is a descendant of another one
+	boolean isBelow(SplitPoint ancestor)
+	{
+		for(SplitPoint splitPoint = this.parent; splitPoint != null; splitPoint = splitPoint.parent)
+		{
+			if(splitPoint == ancestor)
+			{
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	// Signals that a thread helps the owner
+	void join()
+	{
+		this.helpersCount++;
+	}
+	
+	// Signals that a helper searched its last move
+	void leave()
+	{
+		this.helpersCount--;
+	}
+	
+	// Determines if threads still help the owner
+	boolean hasHelpers()
+	{
+		return this.helpersCount > 0;
+	}
+	
+	// Gets a move left to search
+	int getMove(int index)
+	{
+		return this.moves[index];
+	}
+	
+	// Gets the number of moves of the node searched before a move left to search
+	int getMoveNumber(int index)
+	{
+		return this.searchedMovesCount + index;
+	}
+	
+	synchronized double getAlpha()
+	{
+		return this.alpha;
+	}
+	
+	synchronized double getBestValue()
+	{
+		return this.bestValue;
+	}
+	
+	synchronized int getBestMove()
+	{
+		return this.bestMove;
+	}
+	
+	Board getBoard()
+	{
+		return this.board;
+	}
+	
+	int getPly()
+	{
+		return this.ply;
+	}
+	
+	int getPlayerColor()
+	{
+		return this.playerColor;
+	}
+	
+	int getDepth()
+	{
+		return this.depth;
+	}
+	
+	double getBeta()
+	{
+		return this.beta;
+	}
+}
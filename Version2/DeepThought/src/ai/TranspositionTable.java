@@ -0,0 +1,251 @@
+package ai;
+
+import game.Move;
+
+// Fixed size table of the positions already searched, indexed by their zobrist key.
+// Each bucket holds a depth-preferred entry followed by an always-replace entry.
+// Entries are stored in primitive arrays so probing and storing never allocate.
+// Several search threads can share the entries without locks, each one through its own table: the key of an entry is stored
+// xored with its score and data, so an entry read while another thread writes it doesn't match its key and is ignored.
+public class TranspositionTable
+{
+	// Bound types of the stored scores
+	public static final int EXACT_BOUND = 0;
+	public static final int LOWER_BOUND = 1;
+	public static final int UPPER_BOUND = 2;
+	
+	public static final int NO_MOVE = Move.NO_MOVE;
+	public static final int NO_ENTRY = -1;
+	
+	// Constants
+	private static final int ENTRY_SIZE_IN_BYTES = 24;
+	private static final int ENTRIES_PER_BUCKET = 2;
+	
+	// Layout of the data bits
+	private static final long MOVE_MASK = 0xFFFFFL;
+	private static final int DEPTH_SHIFT = 20;
+	private static final long DEPTH_MASK = 0xFFL;
+	private static final int BOUND_SHIFT = 28;
+	private static final long BOUND_MASK = 0x3L;
+	private static final int AGE_SHIFT = 30;
+	private static final long AGE_MASK = 0xFFL;
+	private static final long VALID_ENTRY_BIT = 1L << 38;
+	
+	// Entries
+	private long[] keys;
+	private long[] scores;
+	private long[] data;
+	private int bucketMask;
+	private int age;
+	
+	// Words of the last entry probed, so its fields can't be changed by another thread before they are read
+	private int probedEntryIndex;
+	private long probedScore;
+	private long probedData;
+	
+	// Statistics
+	private long probesCount;
+	private long hitsCount;
+	private long storesCount;
+	private long collisionsCount;
+	
+	// Constructor. The table uses at most sizeInMegabytes of memory.
+	public TranspositionTable(int sizeInMegabytes)
+	{
+		long maxEntriesCount = ((long) sizeInMegabytes * 1024 * 1024) / ENTRY_SIZE_IN_BYTES;
+		int bucketsCount = 1;
+		
+		while((long) bucketsCount * 2 * ENTRIES_PER_BUCKET <= maxEntriesCount && bucketsCount < (1 << 28))
+		{
+			bucketsCount *= 2;
+		}
+		
+		this.keys = new long[bucketsCount * ENTRIES_PER_BUCKET];
+		this.scores = new long[bucketsCount * ENTRIES_PER_BUCKET];
+		this.data = new long[bucketsCount * ENTRIES_PER_BUCKET];
+		this.bucketMask = bucketsCount - 1;
+		this.age = 0;
+		this.probedEntryIndex = NO_ENTRY;
+	}
+	
+	// Constructor. The table shares the entries of another table, so several search threads can use them at the same time.
+	public TranspositionTable(TranspositionTable sharedTable)
+	{
+		this.keys = sharedTable.keys;
+		this.scores = sharedTable.scores;
+		this.data = sharedTable.data;
+		this.bucketMask = sharedTable.bucketMask;
+		this.age = sharedTable.age;
+		this.probedEntryIndex = NO_ENTRY;
+	}
+	
+	// Signals that a new search starts so entries of older searches can be replaced
+	public void newSearch()
+	{
+		this.age = (this.age + 1) & (int) AGE_MASK;
+	}
+	
+	// Finds the entry of a position. Returns NO_ENTRY if the position isn't stored.
+	public int probe(long key)
+	{
+		int entryIndex = this.getBucketIndex(key);
+		
+		this.probesCount++;
+		
+		for(int index = entryIndex; index < entryIndex + ENTRIES_PER_BUCKET; index++)
+		{
+			long entryData = this.data[index];
+			long entryScore = this.scores[index];
+			
+			if((entryData & VALID_ENTRY_BIT) != 0 && (this.keys[index] ^ entryScore ^ entryData) == key)
+			{
+				this.hitsCount++;
+				this.probedEntryIndex = index;
+				this.probedScore = entryScore;
+				this.probedData = entryData;
+				return index;
+			}
+		}
+		
+		return NO_ENTRY;
+	}
+	
+	// Stores the result of a search
+	public void store(long key, int depth, int bound, double score, int move)
+	{
+		int entryIndex = this.getBucketIndex(key);
+		long depthPreferredData = this.data[entryIndex];
+		
+		// The depth-preferred entry is only replaced by deeper searches, unless it is outdated
+		if((depthPreferredData & VALID_ENTRY_BIT) == 0 ||
+				this.getEntryKey(entryIndex) == key ||
+				((depthPreferredData >>> AGE_SHIFT) & AGE_MASK) != this.age ||
+				depth >= ((depthPreferredData >>> DEPTH_SHIFT) & DEPTH_MASK))
+		{
+			this.writeEntry(entryIndex, key, depth, bound, score, move);
+		}
+		else
+		{
+			this.writeEntry(entryIndex + 1, key, depth, bound, score, move);
+		}
+	}
+	
+	// Clears all the entries and statistics
+	public void clear()
+	{
+		for(int index = 0; index < this.data.length; index++)
+		{
+			this.keys[index] = 0;
+			this.scores[index] = 0;
+			this.data[index] = 0;
+		}
+		
+		this.probesCount = 0;
+		this.hitsCount = 0;
+		this.storesCount = 0;
+		this.collisionsCount = 0;
+		this.probedEntryIndex = NO_ENTRY;
+	}
+	
+	// Gets the searched depth of an entry
+	public int getDepth(int entryIndex)
+	{
+		return (int) ((this.getEntryData(entryIndex) >>> DEPTH_SHIFT) & DEPTH_MASK);
+	}
+	
+	// Gets the bound type of an entry's score
+	public int getBound(int entryIndex)
+	{
+		return (int) ((this.getEntryData(entryIndex) >>> BOUND_SHIFT) & BOUND_MASK);
+	}
+	
+	// Gets the score of an entry
+	public double getScore(int entryIndex)
+	{
+		return Double.longBitsToDouble((entryIndex == this.probedEntryIndex) ? this.probedScore : this.scores[entryIndex]);
+	}
+	
+	// Gets the best packed move of an entry, or NO_MOVE
+	public int getMove(int entryIndex)
+	{
+		long move = this.getEntryData(entryIndex) & MOVE_MASK;
+		
+		return (move == MOVE_MASK) ? NO_MOVE : (int) move;
+	}
+	
+	public long getProbesCount()
+	{
+		return this.probesCount;
+	}
+	
+	public long getHitsCount()
+	{
+		return this.hitsCount;
+	}
+	
+	public long getStoresCount()
+	{
+		return this.storesCount;
+	}
+	
+	// Gets the number of stores that overwrote another position
+	public long getCollisionsCount()
+	{
+		return this.collisionsCount;
+	}
+	
+	// Gets the number of entries the table can hold
+	public int getCapacity()
+	{
+		return this.data.length;
+	}
+	
+	// Gets the statistics as a printable string
+	public String getStatistics()
+	{
+		return "TT probes: " + this.probesCount + ", hits: " + this.hitsCount + ", stores: " + this.storesCount + ", collisions: " + this.collisionsCount;
+	}
+	
+	// Gets the data of an entry, as it was when it was last probed
+	private long getEntryData(int entryIndex)
+	{
+		return (entryIndex == this.probedEntryIndex) ? this.probedData : this.data[entryIndex];
+	}
+	
+	// Gets the zobrist key of the position stored in an entry
+	private long getEntryKey(int entryIndex)
+	{
+		return this.keys[entryIndex] ^ this.scores[entryIndex] ^ this.data[entryIndex];
+	}
+	
+	private int getBucketIndex(long key)
+	{
+		return ((int) (key ^ (key >>> 32)) & this.bucketMask) * ENTRIES_PER_BUCKET;
+	}
+	
+	private void writeEntry(int entryIndex, long key, int depth, int bound, double score, int move)
+	{
+		if((this.data[entryIndex] & VALID_ENTRY_BIT) != 0 && this.getEntryKey(entryIndex) != key)
+		{
+			this.collisionsCount++;
+		}
+		
+		long entryScore = Double.doubleToRawLongBits(score);
+		long entryData = ((long) move & MOVE_MASK) |
+				(((long) depth & DEPTH_MASK) << DEPTH_SHIFT) |
+				(((long) bound & BOUND_MASK) << BOUND_SHIFT) |
+				(((long) this.age & AGE_MASK) << AGE_SHIFT) |
+				VALID_ENTRY_BIT;
+		
+		this.data[entryIndex] = entryData;
+		this.scores[entryIndex] = entryScore;
+		this.keys[entryIndex] = key ^ entryScore ^ entryData;
+		
+		if(entryIndex == this.probedEntryIndex)
+		{
+			this.probedEntryIndex = NO_ENTRY;
+		}
+		
+		this.storesCount++;
+	}
+}
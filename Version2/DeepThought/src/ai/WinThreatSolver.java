@@ -0,0 +1,260 @@
+package ai;
+
+import game.Board;
+import game.Move;
+import game.QuadHeuristic;
+
+// Connect-in-N solver: proves that a player can connect all his pawns within a few of his own moves whatever the opponent plays.
+// The attacker only tries the moves that complete the connection or keep its euler number from growing, while every move
+// of the defender is tried since any of them may break the connection. A win found is always forced, but wins needing
+// other attacker moves are missed.
+public class WinThreatSolver
+{
+	// Results of a search
+	public static final int NO_FORCED_RESULT = 0;
+	public static final int FORCED_WIN = 1;
+	public static final int FORCED_LOSS = 2;
+	
+	// Maximum number of moves of the attacker searched
+	public static final int MAX_CONNECTION_MOVES = 3;
+	
+	// Constants
+	private static final int MAX_PLIES = 2 * MAX_CONNECTION_MOVES;
+	private static final int NODES_BETWEEN_TIME_CHECKS = 1024;
+	
+	// Variables holding the game state
+	private Board board;
+	private QuadHeuristic quadHeuristic;
+	
+	// Variables used in the search
+	private long deadline;
+	private boolean timeOver;
+	private long nodesCount;
+	private int winningMove;
+	private int connectionMovesCount;
+	
+	// Packed moves of each ply, preallocated so the search doesn't allocate
+	private int[][] movesStack;
+	
+	// Last connecting move found by the attacker at each ply, tried first in the next positions of the same ply
+	private int[] connectingMoves;
+	
+	// Constructor
+	public WinThreatSolver(Board board)
+	{
+		this.board = board;
+		this.quadHeuristic = board.getQuadHeuristic();
+		
+		this.movesStack = new int[MAX_PLIES + 1][Board.MAX_MOVES];
+		this.connectingMoves = new int[MAX_PLIES + 1];
+		this.winningMove = Move.NO_MOVE;
+	}
+	
+	// Searches if the player to play can force a connection, or if the opponent can force one whatever the player plays.
+	// Connections are searched by increasing number of moves, until MAX_CONNECTION_MOVES or until timeLimit milliseconds are spent.
+	public int solve(int playerColor, long timeLimit)
+	{
+		int opponentColor = (playerColor == Board.BLACK_PLAYER) ? Board.WHITE_PLAYER : Board.BLACK_PLAYER;
+		
+		this.deadline = System.nanoTime() + timeLimit * 1000000L;
+		this.timeOver = false;
+		this.nodesCount = 0;
+		this.winningMove = Move.NO_MOVE;
+		this.connectionMovesCount = 0;
+		
+		for(int ply = 0; ply <= MAX_PLIES; ply++)
+		{
+			this.connectingMoves[ply] = Move.NO_MOVE;
+		}
+		
+		// The player's n-th move is played before the opponent's n-th move, so its connection is searched first
+		for(int movesCount = 1; movesCount <= MAX_CONNECTION_MOVES && !this.timeOver; movesCount++)
+		{
+			if(this.attack(playerColor, movesCount, 0))
+			{
+				this.winningMove = this.connectingMoves[0];
+				this.connectionMovesCount = movesCount;
+				return FORCED_WIN;
+			}
+			
+			if(!this.timeOver && this.defend(playerColor, opponentColor, movesCount, 0))
+			{
+				this.connectionMovesCount = movesCount;
+				return FORCED_LOSS;
+			}
+		}
+		
+		return NO_FORCED_RESULT;
+	}
+	
+	// Determines if the attacker, to play, can connect his pawns within movesCount moves
+	private boolean attack(int attackerColor, int movesCount, int ply)
+	{
+		if(!this.visitNode())
+		{
+			return false;
+		}
+		
+		int defenderColor = (attackerColor == Board.BLACK_PLAYER) ? Board.WHITE_PLAYER : Board.BLACK_PLAYER;
+		int[] possibleMoves = this.movesStack[ply];
+		int possibleMovesCount = this.board.generatePossibleMoves(attackerColor, possibleMoves);
+		float eulerNumber = this.getEulerNumber(attackerColor);
+		
+		// The move that connected in a sibling position is likely to connect again
+		this.moveFirst(possibleMoves, possibleMovesCount, this.connectingMoves[ply]);
+		
+		// Completes the connection. A pawn group has an euler number of 1 at most.
+		for(int index = 0; index < possibleMovesCount; index++)
+		{
+			if(eulerNumber + this.quadHeuristic.getPlayerEulerDelta(possibleMoves[index]) <= 1 && this.isConnectingMove(possibleMoves[index], attackerColor))
+			{
+				this.connectingMoves[ply] = possibleMoves[index];
+				return true;
+			}
+		}
+		
+		if(movesCount == 1)
+		{
+			return false;
+		}
+		
+		// Gets closer to the connection: joins groups first, then the moves keeping the euler number
+		for(int pass = 0; pass < 2; pass++)
+		{
+			for(int index = 0; index < possibleMovesCount && !this.timeOver; index++)
+			{
+				float eulerDelta = this.quadHeuristic.getPlayerEulerDelta(possibleMoves[index]);
+				
+				if((pass == 0) ? (eulerDelta < 0) : (eulerDelta == 0))
+				{
+					this.board.makeMove(possibleMoves[index]);
+					boolean connects = this.defend(defenderColor, attackerColor, movesCount - 1, ply + 1);
+					this.board.unmakeMove(possibleMoves[index]);
+					
+					if(connects)
+					{
+						this.connectingMoves[ply] = possibleMoves[index];
+						return true;
+					}
+				}
+			}
+		}
+		
+		return false;
+	}
+	
+	// Determines if the attacker connects his pawns within movesCount moves whatever the defender, to play, does
+	private boolean defend(int defenderColor, int attackerColor, int movesCount, int ply)
+	{
+		if(!this.visitNode())
+		{
+			return false;
+		}
+		
+		// The attacker's last move captured the pawn keeping the defender's pawns apart
+		if(this.isConnected(defenderColor))
+		{
+			return false;
+		}
+		
+		int[] possibleMoves = this.movesStack[ply];
+		int possibleMovesCount = this.board.generatePossibleMoves(defenderColor, possibleMoves);
+		
+		// A defender without moves isn't considered lost
+		if(possibleMovesCount == 0)
+		{
+			return false;
+		}
+		
+		for(int index = 0; index < possibleMovesCount; index++)
+		{
+			this.board.makeMove(possibleMoves[index]);
+			
+			// The defender wins if his move connects his pawns, even if it connects the attacker's pawns too
+			boolean connects = !this.isConnected(defenderColor) &&
+					(this.isConnected(attackerColor) || this.attack(attackerColor, movesCount, ply + 1));
+			
+			this.board.unmakeMove(possibleMoves[index]);
+			
+			if(!connects || this.timeOver)
+			{
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	// Determines if a move connects the pawns of the player making it
+	private boolean isConnectingMove(int packedMove, int playerColor)
+	{
+		this.board.makeMove(packedMove);
+		boolean connected = this.isConnected(playerColor);
+		this.board.unmakeMove(packedMove);
+		
+		return connected;
+	}
+	
+	// Determines if the pawns of a player are connected, checking the euler number first since it's faster
+	private boolean isConnected(int playerColor)
+	{
+		return this.getEulerNumber(playerColor) <= 1 && this.board.isWinning(playerColor);
+	}
+	
+	private float getEulerNumber(int playerColor)
+	{
+		return (playerColor == Board.BLACK_PLAYER) ? this.quadHeuristic.getBlackPawnsValue() : this.quadHeuristic.getWhitePawnsValue();
+	}
+	
+	// Counts a visited position and checks the time left every few positions. Returns false when the time is over.
+	private boolean visitNode()
+	{
+		this.nodesCount++;
+		
+		if(this.nodesCount % NODES_BETWEEN_TIME_CHECKS == 0 && System.nanoTime() > this.deadline)
+		{
+			this.timeOver = true;
+		}
+		
+		return !this.timeOver;
+	}
+	
+	// Moves a packed move to the beginning of the array, keeping the order of the others
+	private void moveFirst(int[] moves, int movesCount, int move)
+	{
+		for(int index = 0; index < movesCount; index++)
+		{
+			if(Move.isSamePackedMove(moves[index], move))
+			{
+				int firstMove = moves[index];
+				System.arraycopy(moves, 0, moves, 1, index);
+				moves[0] = firstMove;
+				break;
+			}
+		}
+	}
+	
+	// Terminates the search in progress
+	public void stop()
+	{
+		this.timeOver = true;
+	}
+	
+	// Gets the first move of the forced connection found by the last search, or NO_MOVE
+	public int getWinningMove()
+	{
+		return this.winningMove;
+	}
+	
+	// Gets the number of moves of the forced connection found by the last search
+	public int getConnectionMovesCount()
+	{
+		return this.connectionMovesCount;
+	}
+	
+	// Gets the number of positions visited by the last search
+	public long getNodesCount()
+	{
+		return this.nodesCount;
+	}
+}
@@ -0,0 +1,317 @@
+package ai;
+
+import java.util.ArrayList;
+
+import game.Board;
+import game.Move;
+
+// Search engine running a parallel alpha-beta search with the Young Brothers Wait Concept (YBWC).
+// The moves of a node are only shared once its eldest move has been searched without a cutoff: the moves left become a
+// split point that idle threads join, each one searching the next move not searched yet on its own board.
+// A cutoff at a split point aborts the searches of all the threads working below it. Each thread runs the search of NegamaxThought
+// (aspiration windows, principal variation search, reductions and quiescence search), the first one from the root.
+public class YbwcThought implements Player {
+	// Constants
+	private static final int TRANSPOSITION_TABLE_SIZE = 32;
+	
+	// Searches of each thread. The first one runs iterative deepening on the player's board in the thread calling searchBestMove.
+	private NegamaxThought[] searchers;
+	private Thread[] helperThreads;
+	
+	// Split points the idle threads can join, also used as the lock of the idle threads and of the helpers counts
+	private ArrayList<SplitPoint> splitPoints;
+	private volatile int idleThreadsCount;
+	
+	// Split points whose owner waits for its helpers, it only joins the split points below them
+	private ArrayList<SplitPoint> waitingSplitPoints;
+	private volatile int waitingOwnersCount;
+	private boolean helpersRunning;
+	
+	// Variables used in the search, the searches of all the threads stop with the same controller
+	private TranspositionTable transpositionTable;
+	private SearchController searchController;
+	private long nodesCount;
+	
+	// Constructor. Uses one thread per available processor.
+	public YbwcThought(Board initialBoard, int playerColor)
+	{
+		this(initialBoard, playerColor, Runtime.getRuntime().availableProcessors());
+	}
+	
+	// Constructor. The search runs in threadsCount threads, including the one calling searchBestMove.
+	public YbwcThought(Board initialBoard, int playerColor, int threadsCount)
+	{
+		this.searchController = new SearchController();
+		this.transpositionTable = new TranspositionTable(TRANSPOSITION_TABLE_SIZE);
+		
+		this.searchers = new NegamaxThought[Math.max(threadsCount, 1)];
+		this.searchers[0] = new NegamaxThought(initialBoard, playerColor, this.transpositionTable);
+		this.searchers[0].setYbwcEngine(this);
+		this.helperThreads = new Thread[this.searchers.length - 1];
+		
+		// The helpers copy the position of the split points they join on their own board, through their own view of the transposition table
+		for(int index = 1; index < this.searchers.length; index++)
+		{
+			this.searchers[index] = new NegamaxThought(initialBoard.copy(), playerColor, new TranspositionTable(this.transpositionTable));
+			this.searchers[index].setYbwcEngine(this);
+		}
+		this.splitPoints = new ArrayList<SplitPoint>();
+		this.waitingSplitPoints = new ArrayList<SplitPoint>();
+	}
+	
+	@Override
+	public void run() {
+		try {
+			this.searchBestMove();
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+	}
+	
+	// Searches the best move possible using iterative deepening. This method stops when stopSearchBestMove is called or at the deadline.
+	// A new search waits that the last one finished.
+	public synchronized void searchBestMove() throws InterruptedException
+	{
+		for(int index = 1; index < this.searchers.length; index++)
+		{
+			this.searchers[index].newHelperSearch();
+		}
+		
+		this.startHelpers();
+		this.searchers[0].searchBestMove();
+		this.stopHelpers();
+		
+		this.nodesCount = 0;
+		
+		for(int index = 0; index < this.searchers.length; index++)
+		{
+			this.nodesCount += this.searchers[index].getNodesCount();
+		}
+		
+		System.out.println("Threads: " + this.searchers.length + ", nodes: " + this.nodesCount);
+	}
+	
+	// Starts the helper threads, which wait for split points to join
+	private void startHelpers()
+	{
+		this.helpersRunning = true;
+		
+		for(int index = 1; index < this.searchers.length; index++)
+		{
+			this.helperThreads[index - 1] = new Thread(new HelperTask(this, this.searchers[index]));
+			this.helperThreads[index - 1].start();
+		}
+	}
+	
+	// Stops the helper threads once they left their split points
+	private void stopHelpers() throws InterruptedException
+	{
+		synchronized(this.splitPoints)
+		{
+			this.helpersRunning = false;
+			this.splitPoints.notifyAll();
+		}
+		
+		for(int index = 0; index < this.helperThreads.length; index++)
+		{
+			this.helperThreads[index].join();
+		}
+	}
+	
+	// Waits until a split point has moves left and joins it. Returns null once the helpers must stop.
+	SplitPoint waitSplitPoint()
+	{
+		synchronized(this.splitPoints)
+		{
+			this.idleThreadsCount++;
+			
+			while(this.helpersRunning)
+			{
+				for(SplitPoint splitPoint : this.splitPoints)
+				{
+					if(splitPoint.hasMovesLeft())
+					{
+						splitPoint.join();
+						this.idleThreadsCount--;
+						return splitPoint;
+					}
+				}
+				
+				this.waitSplitPoints();
+			}
+			
+			this.idleThreadsCount--;
+			return null;
+		}
+	}
+	
+	// Waits until a split point below the owner's split point has moves left and joins it, so the owner helps its helpers instead
+	// of waiting for them. The helpers of these split points never wait for the owner. The owner isn't counted as an idle thread,
+	// hasIdleThreads only counts it for the split points below its own. Returns null once all the helpers left.
+	SplitPoint waitSplitPointBelow(SplitPoint ownSplitPoint)
+	{
+		synchronized(this.splitPoints)
+		{
+			this.waitingSplitPoints.add(ownSplitPoint);
+			this.waitingOwnersCount++;
+			
+			SplitPoint joinedSplitPoint = null;
+			
+			while(joinedSplitPoint == null && ownSplitPoint.hasHelpers())
+			{
+				for(SplitPoint splitPoint : this.splitPoints)
+				{
+					if(splitPoint.hasMovesLeft() && splitPoint.isBelow(ownSplitPoint))
+					{
+						splitPoint.join();
+						joinedSplitPoint = splitPoint;
+						break;
+					}
+				}
+				
+				if(joinedSplitPoint == null)
+				{
+					this.waitSplitPoints();
+				}
+			}
+			
+			this.waitingSplitPoints.remove(ownSplitPoint);
+			this.waitingOwnersCount--;
+			
+			return joinedSplitPoint;
+		}
+	}
+	
+	// Waits for a change of the split points, called with their lock
+	private void waitSplitPoints()
+	{
+		try {
+			this.splitPoints.wait();
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+	}
+	
+	// Lets the idle threads join a split point
+	void addSplitPoint(SplitPoint splitPoint)
+	{
+		synchronized(this.splitPoints)
+		{
+			this.splitPoints.add(splitPoint);
+			this.splitPoints.notifyAll();
+		}
+	}
+	
+	// Prevents other threads from joining a split point
+	void removeSplitPoint(SplitPoint splitPoint)
+	{
+		synchronized(this.splitPoints)
+		{
+			this.splitPoints.remove(splitPoint);
+		}
+	}
+	
+	// Signals that a helper searched its last move of a split point, to the owner waiting for it
+	void leaveSplitPoint(SplitPoint splitPoint)
+	{
+		synchronized(this.splitPoints)
+		{
+			splitPoint.leave();
+			this.splitPoints.notifyAll();
+		}
+	}
+	
+	// Determines if a thread would join a split point created below parentSplitPoint (null outside of split points):
+	// a helper waiting for any split point, or the owner of a split point above waiting for its helpers
+	boolean hasIdleThreads(SplitPoint parentSplitPoint)
+	{
+		if(this.idleThreadsCount > 0)
+		{
+			return true;
+		}
+		
+		if(this.waitingOwnersCount == 0 || parentSplitPoint == null)
+		{
+			return false;
+		}
+		
+		synchronized(this.splitPoints)
+		{
+			for(SplitPoint waitingSplitPoint : this.waitingSplitPoints)
+			{
+				if(parentSplitPoint == waitingSplitPoint || parentSplitPoint.isBelow(waitingSplitPoint))
+				{
+					return true;
+				}
+			}
+		}
+		
+		return false;
+	}
+	
+	// Gets the controller stopping the searches of all the threads
+	SearchController getSearchController()
+	{
+		return this.searchController;
+	}
+	
+	// Terminates the best move search
+	public void stopSearchBestMove()
+	{
+		this.searchers[0].stopSearchBestMove();
+	}
+	
+	// Sets the System.nanoTime at which the next searches stop by themselves
+	public void setDeadline(long deadline)
+	{
+		this.searchController.setDeadline(deadline);
+	}
+	
+	// Gets the best move found
+	public Move getBestMoveFound()
+	{
+		return this.searchers[0].getBestMoveFound();
+	}
+	
+	// Gets the transposition table of the thread calling searchBestMove. The helpers count their statistics in their own views.
+	public TranspositionTable getTranspositionTable()
+	{
+		return this.transpositionTable;
+	}
+	
+	// Gets the number of threads searching
+	public int getThreadsCount()
+	{
+		return this.searchers.length;
+	}
+	
+	// Gets the number of positions visited by the last search, by all the threads
+	public long getNodesCount()
+	{
+		return this.nodesCount;
+	}
+	
+	// Loop of a helper thread: searches the moves of the split points it joins until the engine stops its helpers
+	private static class HelperTask implements Runnable
+	{
+		private YbwcThought engine;
+		private NegamaxThought searcher;
+		
+		HelperTask(YbwcThought engine, NegamaxThought searcher)
+		{
+			this.engine = engine;
+			this.searcher = searcher;
+		}
+		
+		@Override
+		public void run()
+		{
+			SplitPoint splitPoint;
+			
+			while((splitPoint = this.engine.waitSplitPoint()) != null)
+			{
+				this.searcher.joinSplitPoint(splitPoint);
+			}
+		}
+	}
+}
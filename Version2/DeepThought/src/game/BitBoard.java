@@ -0,0 +1,401 @@
+package game;
+
+// Board engine keeping the position in the pawns bitboards (bit index = rowIndex * 8 + columnIndex) only.
+// Moves are made with xors of the bitboards, the pawns on a line are counted with Long.bitCount and the groups are found by
+// dilating the pawns. Board keeps the heuristics, the pawns counts and the zobrist key, updated from the packed moves.
+public class BitBoard extends Board
+{
+	// Constants
+	private static final long FIRST_COLUMN_MASK = 0x0101010101010101L;
+	private static final long LAST_COLUMN_MASK = 0x8080808080808080L;
+	
+	// Squares of the row, column and diagonals going through each square, indexed by direction / 2 then by square
+	private static final long[][] LINE_MASKS = new long[DIRECTIONS_COUNT / 2][BOARD_SQUARES_COUNT];
+	
+	// Squares around each square
+	private static final long[] NEIGHBOUR_MASKS = new long[BOARD_SQUARES_COUNT];
+	
+	static
+	{
+		for(int square = 0; square < BOARD_SQUARES_COUNT; square++)
+		{
+			int rowIndex = square >>> 3;
+			int columnIndex = square & 7;
+			
+			for(int lineSquare = 0; lineSquare < BOARD_SQUARES_COUNT; lineSquare++)
+			{
+				int lineRowIndex = lineSquare >>> 3;
+				int lineColumnIndex = lineSquare & 7;
+				
+				if(lineRowIndex == rowIndex)
+				{
+					LINE_MASKS[0][square] |= 1L << lineSquare;
+				}
+				
+				if(lineColumnIndex == columnIndex)
+				{
+					LINE_MASKS[1][square] |= 1L << lineSquare;
+				}
+				
+				if(lineColumnIndex - lineRowIndex == columnIndex - rowIndex)
+				{
+					LINE_MASKS[2][square] |= 1L << lineSquare;
+				}
+				
+				if(lineRowIndex + lineColumnIndex == rowIndex + columnIndex)
+				{
+					LINE_MASKS[3][square] |= 1L << lineSquare;
+				}
+			}
+			
+			NEIGHBOUR_MASKS[square] = dilate(1L << square) & ~(1L << square);
+		}
+	}
+	
+	// Pawns of each player
+	private long blackPawns;
+	private long whitePawns;
+	
+	// Constructor
+	public BitBoard(int[][] squares)
+	{
+		for(int square = 0; square < BOARD_SQUARES_COUNT; square++)
+		{
+			if(squares[square >>> 3][square & 7] == BLACK_PLAYER)
+			{
+				this.blackPawns |= 1L << square;
+			}
+			else if(squares[square >>> 3][square & 7] == WHITE_PLAYER)
+			{
+				this.whitePawns |= 1L << square;
+			}
+		}
+		
+		this.initialize();
+	}
+	
+	// Constructor copying another board
+	protected BitBoard(BitBoard board)
+	{
+		this.blackPawns = board.blackPawns;
+		this.whitePawns = board.whitePawns;
+		
+		this.initialize(board);
+	}
+	
+	// Creates a bitboard holding the same position, sharing nothing with this board
+	@Override
+	public Board copy()
+	{
+		return new BitBoard(this);
+	}
+	
+	// Copies the pawns of another board, of any engine
+	@Override
+	protected void copySquaresFrom(Board board)
+	{
+		this.blackPawns = board.getPawns(BLACK_PLAYER);
+		this.whitePawns = board.getPawns(WHITE_PLAYER);
+	}
+	
+	// Makes a packed move: the pawn leaves its square for the destination, removing the captured pawn
+	@Override
+	public void makeMove(int packedMove)
+	{
+		this.updatePawns(packedMove);
+		this.updateProperties(packedMove, false);
+	}
+	
+	// Unmakes a packed move, the same xors put the pawns back
+	@Override
+	public void unmakeMove(int packedMove)
+	{
+		this.updatePawns(packedMove);
+		this.updateProperties(packedMove, true);
+	}
+	
+	// Flips the squares of a move in the bitboards, which makes or unmakes it
+	private void updatePawns(int packedMove)
+	{
+		long toBit = 1L << Move.getPackedToSquare(packedMove);
+		long moveBits = (1L << Move.getPackedFromSquare(packedMove)) | toBit;
+		long captureBit = (Move.getPackedCapturedSquare(packedMove) != BLANK_SQUARE) ? toBit : 0;
+		
+		if(Move.getPackedPlayerColor(packedMove) == BLACK_PLAYER)
+		{
+			this.blackPawns ^= moveBits;
+			this.whitePawns ^= captureBit;
+		}
+		else
+		{
+			this.whitePawns ^= moveBits;
+			this.blackPawns ^= captureBit;
+		}
+	}
+	
+	// Writes all valid moves for a given player as packed moves in the array and returns the number of moves
+	@Override
+	public int generatePossibleMoves(int playerColor, int[] moves)
+	{
+		return this.generateMovesTo(playerColor, moves, -1L);
+	}
+	
+	// Writes the valid moves of a player that capture an opponent pawn and returns the number of moves
+	@Override
+	public int generateCaptureMoves(int playerColor, int[] moves)
+	{
+		return this.generateMovesTo(playerColor, moves, this.getPawns((playerColor == BLACK_PLAYER) ? WHITE_PLAYER : BLACK_PLAYER));
+	}
+	
+	// Writes the valid moves of a player that land on an empty square and returns the number of moves
+	@Override
+	public int generateQuietMoves(int playerColor, int[] moves)
+	{
+		return this.generateMovesTo(playerColor, moves, ~(this.blackPawns | this.whitePawns));
+	}
+	
+	// Writes the valid moves of a player whose destination is in the target squares and returns the number of moves
+	private int generateMovesTo(int playerColor, int[] moves, long targetSquares)
+	{
+		int moveCount = 0;
+		
+		int opponentColor = (playerColor == BLACK_PLAYER) ? WHITE_PLAYER : BLACK_PLAYER;
+		long playerPawns = this.getPawns(playerColor);
+		long opponentPawns = this.getPawns(opponentColor);
+		long pawnsToVisit = playerPawns;
+		
+		while(pawnsToVisit != 0)
+		{
+			int square = Long.numberOfTrailingZeros(pawnsToVisit);
+			pawnsToVisit &= pawnsToVisit - 1;
+			
+			for(int direction = 0; direction < DIRECTIONS_COUNT; direction++)
+			{
+				int toSquare = this.getSlideDestination(square, direction, playerPawns, opponentPawns);
+				
+				if(toSquare != SlideTables.NO_DESTINATION && ((targetSquares >>> toSquare) & 1) != 0)
+				{
+					int capturedSquare = (((opponentPawns >>> toSquare) & 1) != 0) ? opponentColor : BLANK_SQUARE;
+					
+					moves[moveCount] = Move.pack(square >>> 3, square & 7, toSquare >>> 3, toSquare & 7, playerColor, capturedSquare);
+					moveCount++;
+				}
+			}
+		}
+		
+		return moveCount;
+	}
+	
+	// Gets the packed move of a player from a square to another, or Move.NO_MOVE if the move isn't valid in this position
+	@Override
+	public int getPossibleMove(int fromSquare, int toSquare, int playerColor)
+	{
+		int opponentColor = (playerColor == BLACK_PLAYER) ? WHITE_PLAYER : BLACK_PLAYER;
+		long playerPawns = this.getPawns(playerColor);
+		long opponentPawns = this.getPawns(opponentColor);
+		int rowIncrement = Integer.signum((toSquare >>> 3) - (fromSquare >>> 3));
+		int columnIncrement = Integer.signum((toSquare & 7) - (fromSquare & 7));
+		
+		if(((playerPawns >>> fromSquare) & 1) == 0)
+		{
+			return Move.NO_MOVE;
+		}
+		
+		for(int direction = 0; direction < DIRECTIONS_COUNT; direction++)
+		{
+			if(DIRECTION_ROW_INCREMENTS[direction] == rowIncrement && DIRECTION_COLUMN_INCREMENTS[direction] == columnIncrement)
+			{
+				if(this.getSlideDestination(fromSquare, direction, playerPawns, opponentPawns) == toSquare)
+				{
+					int capturedSquare = (((opponentPawns >>> toSquare) & 1) != 0) ? opponentColor : BLANK_SQUARE;
+					
+					return Move.pack(fromSquare >>> 3, fromSquare & 7, toSquare >>> 3, toSquare & 7, playerColor, capturedSquare);
+				}
+				
+				return Move.NO_MOVE;
+			}
+		}
+		
+		return Move.NO_MOVE;
+	}
+	
+	// Gets the destination of the pawn's slide in a direction, or SlideTables.NO_DESTINATION if the slide isn't valid.
+	// The slide distance is the number of pawns on the line, counted in the occupied squares.
+	@Override
+	protected int getSlideDestination(int square, int direction, long playerPawns, long opponentPawns)
+	{
+		int distance = Long.bitCount((playerPawns | opponentPawns) & LINE_MASKS[direction >>> 1][square]);
+		int slideIndex = SlideTables.getIndex(square, direction, distance);
+		int toSquare = SlideTables.getDestination(slideIndex);
+		
+		if(toSquare != SlideTables.NO_DESTINATION && ((playerPawns >>> toSquare) & 1) == 0 && (SlideTables.getPath(slideIndex) & opponentPawns) == 0)
+		{
+			return toSquare;
+		}
+		
+		return SlideTables.NO_DESTINATION;
+	}
+	
+	// Counts the valid moves of a player without generating them
+	@Override
+	public int countPossibleMoves(int playerColor)
+	{
+		int moveCount = 0;
+		long pawnsToVisit = this.getPawns(playerColor);
+		
+		while(pawnsToVisit != 0)
+		{
+			int square = Long.numberOfTrailingZeros(pawnsToVisit);
+			pawnsToVisit &= pawnsToVisit - 1;
+			
+			moveCount += this.countPawnPossibleMoves(square >>> 3, square & 7);
+		}
+		
+		return moveCount;
+	}
+	
+	// Counts the valid moves of the pawn on a square
+	@Override
+	public int countPawnPossibleMoves(int rowIndex, int columnIndex)
+	{
+		int square = rowIndex * 8 + columnIndex;
+		int playerColor = this.getSquare(rowIndex, columnIndex);
+		
+		if(playerColor == BLANK_SQUARE)
+		{
+			return 0;
+		}
+		
+		long playerPawns = this.getPawns(playerColor);
+		long opponentPawns = this.getPawns((playerColor == BLACK_PLAYER) ? WHITE_PLAYER : BLACK_PLAYER);
+		int moveCount = 0;
+		
+		for(int direction = 0; direction < DIRECTIONS_COUNT; direction++)
+		{
+			if(this.getSlideDestination(square, direction, playerPawns, opponentPawns) != SlideTables.NO_DESTINATION)
+			{
+				moveCount++;
+			}
+		}
+		
+		return moveCount;
+	}
+	
+	// Gets the number of pawns on the line that goes through the square in a direction
+	@Override
+	protected int getLinePawnsCount(int direction, int rowIndex, int columnIndex)
+	{
+		return Long.bitCount((this.blackPawns | this.whitePawns) & LINE_MASKS[direction >>> 1][rowIndex * 8 + columnIndex]);
+	}
+	
+	// Gets the bitboard of a player's pawns
+	@Override
+	public long getPawns(int playerColor)
+	{
+		return (playerColor == BLACK_PLAYER) ? this.blackPawns : this.whitePawns;
+	}
+	
+	// Gets the bitboard of all the pawns
+	@Override
+	public long getOccupiedSquares()
+	{
+		return this.blackPawns | this.whitePawns;
+	}
+	
+	// Gets the content of a square: BLANK_SQUARE or the color of its pawn
+	@Override
+	public int getSquare(int rowIndex, int columnIndex)
+	{
+		int square = rowIndex * 8 + columnIndex;
+		
+		if(((this.blackPawns >>> square) & 1) != 0)
+		{
+			return BLACK_PLAYER;
+		}
+		else if(((this.whitePawns >>> square) & 1) != 0)
+		{
+			return WHITE_PLAYER;
+		}
+		
+		return BLANK_SQUARE;
+	}
+	
+	// Gets the neighbours of a square holding a pawn of the player, as 8 bits in the order of Board.getNeighbourhood
+	@Override
+	public int getNeighbourhood(int playerColor, int square, int excludedSquare)
+	{
+		long neighbours = this.getPawns(playerColor) & NEIGHBOUR_MASKS[square] & ~(1L << excludedSquare);
+		
+		// Moves the 3x3 squares around the square to the first 3 bits of the first 3 rows, then packs the rows without the square
+		long window = (square >= 9) ? neighbours >>> (square - 9) : neighbours << (9 - square);
+		int rows = (int) (window & 0x7L) | (int) ((window >>> 5) & 0x38L) | (int) ((window >>> 10) & 0x1C0L);
+		
+		return (rows & 0xF) | ((rows >>> 1) & 0xF0);
+	}
+	
+	// Determines if all the pawns of the player are connected by dilating the first pawn's group
+	@Override
+	public boolean isWinning(int playerColor)
+	{
+		long playerPawns = this.getPawns(playerColor);
+		
+		return getGroup(playerPawns & -playerPawns, playerPawns) == playerPawns;
+	}
+	
+	// Counts the groups of connected pawns of a player
+	@Override
+	public int getGroupsCount(int playerColor)
+	{
+		long pawnsToVisit = this.getPawns(playerColor);
+		int groupsCount = 0;
+		
+		while(pawnsToVisit != 0)
+		{
+			pawnsToVisit &= ~getGroup(pawnsToVisit & -pawnsToVisit, pawnsToVisit);
+			groupsCount++;
+		}
+		
+		return groupsCount;
+	}
+	
+	// Gets the number of pawns in the largest group of connected pawns of a player
+	@Override
+	public int getLargestGroupSize(int playerColor)
+	{
+		long pawnsToVisit = this.getPawns(playerColor);
+		int largestGroupSize = 0;
+		
+		while(pawnsToVisit != 0)
+		{
+			long group = getGroup(pawnsToVisit & -pawnsToVisit, pawnsToVisit);
+			
+			largestGroupSize = Math.max(largestGroupSize, Long.bitCount(group));
+			pawnsToVisit &= ~group;
+		}
+		
+		return largestGroupSize;
+	}
+	
+	// Gets the pawns connected to the seed squares
+	public static long getGroup(long seed, long pawns)
+	{
+		long group = seed & pawns;
+		long lastGroup = 0;
+		
+		while(group != lastGroup)
+		{
+			lastGroup = group;
+			group = dilate(group) & pawns;
+		}
+		
+		return group;
+	}
+	
+	// Extends a set of squares to all its neighbours (8-connectivity)
+	public static long dilate(long squares)
+	{
+		long horizontal = squares | ((squares << 1) & ~FIRST_COLUMN_MASK) | ((squares >>> 1) & ~LAST_COLUMN_MASK);
+		
+		return horizontal | (horizontal << 8) | (horizontal >>> 8);
+	}
+}
@@ -5,7 +5,7 @@ import java.util.Arrays;
 public class Board
 {
 	// Constants
-	private static final int BOARD_SQUARES_COUNT = 64;
+	protected static final int BOARD_SQUARES_COUNT = 64;
 	private static final int ROW_SQUARES_COUNT = 8;
 	private static final int COLUMN_SQUARES_COUNT = 8;
 	
@@ -17,9 +17,21 @@ public class Board
 	public static final int BLACK_PLAYER = 2;
 	public static final int WHITE_PLAYER = 4;
 	
-	private static final int MAX_MOVES = 112;
+	// Board engines that can be created
+	public static final int ARRAY_BOARD = 0;
+	public static final int BIT_BOARD = 1;
+	public static final int MAILBOX_BOARD = 2;
 	
-	// Variables that hold the board's informations
+	public static final int MAX_MOVES = 112;
+	
+	// Directions a pawn can move to, in the order used by generatePossibleMoves
+	protected static final int[] DIRECTION_ROW_INCREMENTS = new int[] {0, 0, -1, 1, -1, 1, 1, -1};
+	protected static final int[] DIRECTION_COLUMN_INCREMENTS = new int[] {-1, 1, 0, 0, -1, 1, -1, 1};
+	protected static final int DIRECTIONS_COUNT = 8;
+	
+	// Squares of the array engine, with the number of pawns on each line and the pawns of each player as bitboards
+	// (bit index = rowIndex * 8 + columnIndex). The other engines keep the position in their own storage, so they override
+	// every method reading these variables.
 	private int[][] squares;
 	
 	private int[] rowPawnsCount;
@@ -27,18 +39,35 @@ public class Board
 	private int[] forwardBottomDiagonalPawnsCount;
 	private int[] forwardTopDiagonalPawnsCount;	
 	
+	private long blackPawns;
+	private long whitePawns;
+	
+	// Variables of all the engines, updated with every move
 	private int blackPawnsCount;
 	private int whitePawnsCount;
 	
+	// Position identity, updated with every move
+	private long zobristKey;
+	private int playerToPlay;
+	
 	// Heuristics
 	private QuadHeuristic quadHeuristic;
 	private CentralizationHeuristic centralizationHeuristic;
 	
 	// Variables used to enhance performance
-	private Move[] possibleMovesBuffer;
+	private int[] possibleMovesBuffer;
+	private int[] pawnsToVisit;
+	private int[] visitedSquares;
+	private int visitMark;
 	
-	// Creates a board from its string representation
+	// Creates an array board from its string representation
 	public static Board createBoard(String squaresAsString)
+	{
+		return createBoard(squaresAsString, ARRAY_BOARD);
+	}
+	
+	// Creates a board of the given engine type from its string representation
+	public static Board createBoard(String squaresAsString, int boardType)
 	{
 		Board board = null;
 		
@@ -69,8 +98,7 @@ public class Board
 				
 				if(validBoard)
 				{
-					board = new Board(squares);
-					board.calculatePawnsCount();
+					board = createBoard(squares, boardType);
 				}
 			}
 			else
@@ -82,93 +110,364 @@ public class Board
 		return board;
 	}
 	
-	// Constructor
+	// Creates a board of the given engine type from its squares
+	public static Board createBoard(int[][] squares, int boardType)
+	{
+		if(boardType == BIT_BOARD)
+		{
+			return new BitBoard(squares);
+		}
+		else if(boardType == MAILBOX_BOARD)
+		{
+			return new MailboxBoard(squares);
+		}
+		
+		return new Board(squares);
+	}
+	
+	// Constructor. The board keeps its own copy of the squares.
 	public Board(int[][] squares)
 	{
-		this.squares = squares;
+		this.squares = copySquares(squares);
 		
-		this.rowPawnsCount = new int[8];
-		this.columnPawnsCount = new int[8];
-		this.forwardBottomDiagonalPawnsCount = new int[15];
-		this.forwardTopDiagonalPawnsCount = new int[15];
+		this.calculatePawnsCount();
+		this.calculatePawnsBitBoards();
+		
+		// Variables used to enhance performance
+		this.pawnsToVisit = new int[BOARD_SQUARES_COUNT];
+		this.visitedSquares = new int[BOARD_SQUARES_COUNT];
+		this.visitMark = 0;
+		
+		this.initialize();
+	}
+	
+	// Constructor copying the position, the pawns counts and the heuristics of another board, without computing them again
+	protected Board(Board board)
+	{
+		this.squares = copySquares(board.squares);
+		
+		this.rowPawnsCount = board.rowPawnsCount.clone();
+		this.columnPawnsCount = board.columnPawnsCount.clone();
+		this.forwardBottomDiagonalPawnsCount = board.forwardBottomDiagonalPawnsCount.clone();
+		this.forwardTopDiagonalPawnsCount = board.forwardTopDiagonalPawnsCount.clone();
+		this.blackPawns = board.blackPawns;
+		this.whitePawns = board.whitePawns;
+		
+		// Variables used to enhance performance
+		this.pawnsToVisit = new int[BOARD_SQUARES_COUNT];
+		this.visitedSquares = new int[BOARD_SQUARES_COUNT];
+		this.visitMark = 0;
+		
+		this.initialize(board);
+	}
+	
+	// Constructor of the engines keeping the position in their own storage. They build it, then call initialize.
+	protected Board()
+	{
+	}
+	
+	// Sets up the variables of all the engines from the position held by the engine: pawns counts, heuristics and zobrist key
+	protected void initialize()
+	{
+		this.possibleMovesBuffer = new int[MAX_MOVES];
+		
+		// Positions given to the solvers and tests don't always have 12 pawns per player
+		this.blackPawnsCount = Long.bitCount(this.getPawns(BLACK_PLAYER));
+		this.whitePawnsCount = Long.bitCount(this.getPawns(WHITE_PLAYER));
 		
 		// Init heuristics
 		this.quadHeuristic = new QuadHeuristic(this);
 		this.centralizationHeuristic = new CentralizationHeuristic(this);
 		
-		// Variables used to enhance performance
-		this.possibleMovesBuffer = new Move[MAX_MOVES]; 
+		// Black always plays first
+		this.playerToPlay = BLACK_PLAYER;
+		this.zobristKey = this.calculateZobristKey();
+	}
+	
+	// Copies the variables of all the engines from another board holding the same position, without computing them again
+	protected void initialize(Board board)
+	{
+		this.possibleMovesBuffer = new int[MAX_MOVES];
 		
-		this.blackPawnsCount = 12;
-		this.whitePawnsCount = 12;
+		this.blackPawnsCount = board.blackPawnsCount;
+		this.whitePawnsCount = board.whitePawnsCount;
+		this.zobristKey = board.zobristKey;
+		this.playerToPlay = board.playerToPlay;
 		
-		this.calculatePawnsCount();
+		this.quadHeuristic = new QuadHeuristic(this, board.quadHeuristic);
+		this.centralizationHeuristic = new CentralizationHeuristic(this, board.centralizationHeuristic);
 	}
 	
-	// Makes a move
-	public void makeMove(Move move)
+	// Creates a board of the same engine holding the same position, sharing nothing with this board
+	public Board copy()
 	{
-		// Remembers the square that is overwrited in case we want to undo the move
-		move.setOverwrittenFromSquare(this.squares[move.getFromRowIndex()][move.getFromColumnIndex()]);
-		move.setOverwrittenToSquare(this.squares[move.getToRowIndex()][move.getToColumnIndex()]);
+		return new Board(this);
+	}
 	
-		// Moves the pawn
-		this.squares[move.getToRowIndex()][move.getToColumnIndex()] = move.getOverwrittenFromSquare();
-		this.squares[move.getFromRowIndex()][move.getFromColumnIndex()] = 0;
+	// Sets the position of another board on this board, with its pawns counts and heuristics, without allocating.
+	// Parallel search workers use it to get the position to search.
+	public void copyFrom(Board board)
+	{
+		this.copySquaresFrom(board);
 		
-		// Updates properties
-		this.updatePawnsCount(move);
-		this.quadHeuristic.update(move);
-		this.centralizationHeuristic.update(move);
+		this.blackPawnsCount = board.blackPawnsCount;
+		this.whitePawnsCount = board.whitePawnsCount;
+		this.zobristKey = board.zobristKey;
+		this.playerToPlay = board.playerToPlay;
 		
-		if(move.getOverwrittenToSquare() == Board.BLACK_PLAYER)
+		this.quadHeuristic.copyFrom(board.quadHeuristic);
+		this.centralizationHeuristic.copyFrom(board.centralizationHeuristic);
+	}
+	
+	// Copies the position of another board in the storage of this engine. The position of another engine is read square by square.
+	protected void copySquaresFrom(Board board)
+	{
+		if(board.getClass() != Board.class)
 		{
-			this.blackPawnsCount--;
+			for(int square = 0; square < BOARD_SQUARES_COUNT; square++)
+			{
+				this.squares[square >>> 3][square & 7] = board.getSquare(square >>> 3, square & 7);
+			}
+			
+			this.calculatePawnsCount();
+			this.calculatePawnsBitBoards();
+			return;
 		}
-		else if(move.getOverwrittenToSquare() == Board.WHITE_PLAYER)
+		
+		for(int rowIndex = 0; rowIndex < ROW_SQUARES_COUNT; rowIndex++)
 		{
-			this.whitePawnsCount--;
+			System.arraycopy(board.squares[rowIndex], 0, this.squares[rowIndex], 0, COLUMN_SQUARES_COUNT);
 		}
+		
+		System.arraycopy(board.rowPawnsCount, 0, this.rowPawnsCount, 0, this.rowPawnsCount.length);
+		System.arraycopy(board.columnPawnsCount, 0, this.columnPawnsCount, 0, this.columnPawnsCount.length);
+		System.arraycopy(board.forwardBottomDiagonalPawnsCount, 0, this.forwardBottomDiagonalPawnsCount, 0, this.forwardBottomDiagonalPawnsCount.length);
+		System.arraycopy(board.forwardTopDiagonalPawnsCount, 0, this.forwardTopDiagonalPawnsCount, 0, this.forwardTopDiagonalPawnsCount.length);
+		
+		this.blackPawns = board.blackPawns;
+		this.whitePawns = board.whitePawns;
+	}
+	
+	// Sets the position of another board on this board and makes a move, leaving the other board unchanged (copy-make).
+	// Undoing the move is copying the other board again, so there's no unmake.
+	public void copyMakeMove(Board board, int packedMove)
+	{
+		this.copyFrom(board);
+		this.makeMove(packedMove);
+	}
+	
+	private static int[][] copySquares(int[][] squares)
+	{
+		int[][] squaresCopy = new int[ROW_SQUARES_COUNT][];
+		
+		for(int rowIndex = 0; rowIndex < ROW_SQUARES_COUNT; rowIndex++)
+		{
+			squaresCopy[rowIndex] = squares[rowIndex].clone();
+		}
+		
+		return squaresCopy;
+	}
+	
+	// Makes a move
+	public void makeMove(Move move)
+	{
+		// Remembers the square that is overwrited in case we want to undo the move
+		move.setOverwrittenFromSquare(this.getSquare(move.getFromRowIndex(), move.getFromColumnIndex()));
+		move.setOverwrittenToSquare(this.getSquare(move.getToRowIndex(), move.getToColumnIndex()));
+		
+		this.makeMove(move.pack());
 	}
 	
 	// Unmakes a move
 	public void unmakeMove(Move move)
 	{
-		boolean reversedOldValue = move.isReversed();
+		this.unmakeMove(move.pack());
+	}
+	
+	// Makes a packed move
+	public void makeMove(int packedMove)
+	{
+		// Moves the pawn
+		this.squares[Move.getPackedToRowIndex(packedMove)][Move.getPackedToColumnIndex(packedMove)] = Move.getPackedPlayerColor(packedMove);
+		this.squares[Move.getPackedFromRowIndex(packedMove)][Move.getPackedFromColumnIndex(packedMove)] = 0;
 		
-		// Moves the pawn back and restores the square that was overwrited
-		this.squares[move.getFromRowIndex()][move.getFromColumnIndex()] = move.getOverwrittenFromSquare();
-		this.squares[move.getToRowIndex()][move.getToColumnIndex()] = move.getOverwrittenToSquare();
+		// Updates properties
+		this.updatePawnsCount(packedMove, false);
+		this.updatePawnsBitBoards(packedMove);
+		this.updateProperties(packedMove, false);
+	}
 	
+	// Unmakes a packed move
+	public void unmakeMove(int packedMove)
+	{
+		// Moves the pawn back and restores the square that was overwrited
+		this.squares[Move.getPackedFromRowIndex(packedMove)][Move.getPackedFromColumnIndex(packedMove)] = Move.getPackedPlayerColor(packedMove);
+		this.squares[Move.getPackedToRowIndex(packedMove)][Move.getPackedToColumnIndex(packedMove)] = Move.getPackedCapturedSquare(packedMove);
+		
 		// Updates properties
-		move.setReversed(true);
+		this.updatePawnsCount(packedMove, true);
+		this.updatePawnsBitBoards(packedMove);
+		this.updateProperties(packedMove, true);
+	}
+	
+	// Updates the variables of all the engines once the pawn of a packed move has been moved, or moved back if reversed is true:
+	// the heuristics, the pawns counts, the zobrist key and the player to play
+	protected void updateProperties(int packedMove, boolean reversed)
+	{
+		int playerColor = Move.getPackedPlayerColor(packedMove);
+		int capturedSquare = Move.getPackedCapturedSquare(packedMove);
+		int capturedPawnsIncrement = reversed ? 1 : -1;
 		
-		this.updatePawnsCount(move);
-		this.quadHeuristic.update(move);
-		this.centralizationHeuristic.update(move);
+		this.quadHeuristic.update(packedMove, reversed);
+		this.centralizationHeuristic.update(packedMove, reversed);
 		
-		if(move.getOverwrittenToSquare() == Board.BLACK_PLAYER)
+		if(capturedSquare == Board.BLACK_PLAYER)
 		{
-			this.blackPawnsCount++;
+			this.blackPawnsCount += capturedPawnsIncrement;
 		}
-		else if(move.getOverwrittenToSquare() == Board.WHITE_PLAYER)
+		else if(capturedSquare == Board.WHITE_PLAYER)
 		{
-			this.whitePawnsCount++;
+			this.whitePawnsCount += capturedPawnsIncrement;
 		}
 		
-		move.setReversed(reversedOldValue);
+		this.updateZobristKey(packedMove);
+		this.setPlayerToPlay(reversed ? playerColor : ((playerColor == BLACK_PLAYER) ? WHITE_PLAYER : BLACK_PLAYER));
 	}
 	
 	// Returns all valid moves for a given player
 	public Move[] getPossibleMoves(int playerColor)
+	{
+		int moveCount = this.generatePossibleMoves(playerColor, this.possibleMovesBuffer);
+		Move[] possibleMoves = new Move[moveCount];
+		
+		for(int index = 0; index < moveCount; index++)
+		{
+			possibleMoves[index] = Move.unpack(this.possibleMovesBuffer[index]);
+		}
+		
+		return possibleMoves;
+	}
+	
+	// Writes all valid moves for a given player as packed moves in the array and returns the number of moves.
+	// The array must be able to hold MAX_MOVES moves.
+	public int generatePossibleMoves(int playerColor, int[] moves)
+	{
+		int moveCount = 0;
+		
+		long playerPawns = this.getPawns(playerColor);
+		long opponentPawns = this.getPawns((playerColor == BLACK_PLAYER) ? WHITE_PLAYER : BLACK_PLAYER);
+		
+		for(int square = 0; square < BOARD_SQUARES_COUNT; square++)
+		{
+			if(this.squares[square >>> 3][square & 7] == playerColor)
+			{
+				for(int direction = 0; direction < DIRECTIONS_COUNT; direction++)
+				{
+					int toSquare = this.getSlideDestination(square, direction, playerPawns, opponentPawns);
+					
+					if(toSquare != SlideTables.NO_DESTINATION)
+					{
+						moves[moveCount] = Move.pack(square >>> 3, square & 7, toSquare >>> 3, toSquare & 7, playerColor, this.squares[toSquare >>> 3][toSquare & 7]);
+						moveCount++;
+					}
+				}
+			}
+		}
+		
+		return moveCount;
+	}
+	
+	// Writes the valid moves of a player that capture an opponent pawn and returns the number of moves
+	public int generateCaptureMoves(int playerColor, int[] moves)
+	{
+		return this.generateMovesTo(playerColor, moves, this.getPawns((playerColor == BLACK_PLAYER) ? WHITE_PLAYER : BLACK_PLAYER));
+	}
+	
+	// Writes the valid moves of a player that land on an empty square and returns the number of moves
+	public int generateQuietMoves(int playerColor, int[] moves)
+	{
+		return this.generateMovesTo(playerColor, moves, ~this.getOccupiedSquares());
+	}
+	
+	// Writes the valid moves of a player whose destination is in the target squares and returns the number of moves
+	private int generateMovesTo(int playerColor, int[] moves, long targetSquares)
 	{
 		int moveCount = 0;
 		
-		int opponentColor = (playerColor == BLACK_PLAYER) ? WHITE_PLAYER : BLACK_PLAYER;
-		boolean isValidMove = true;
+		long playerPawns = this.getPawns(playerColor);
+		long opponentPawns = this.getPawns((playerColor == BLACK_PLAYER) ? WHITE_PLAYER : BLACK_PLAYER);
+		long pawnsToVisit = playerPawns;
+		
+		while(pawnsToVisit != 0)
+		{
+			int square = Long.numberOfTrailingZeros(pawnsToVisit);
+			pawnsToVisit &= pawnsToVisit - 1;
+			
+			for(int direction = 0; direction < DIRECTIONS_COUNT; direction++)
+			{
+				int toSquare = this.getSlideDestination(square, direction, playerPawns, opponentPawns);
+				
+				if(toSquare != SlideTables.NO_DESTINATION && ((targetSquares >>> toSquare) & 1) != 0)
+				{
+					moves[moveCount] = Move.pack(square >>> 3, square & 7, toSquare >>> 3, toSquare & 7, playerColor, this.squares[toSquare >>> 3][toSquare & 7]);
+					moveCount++;
+				}
+			}
+		}
+		
+		return moveCount;
+	}
+	
+	// Gets the packed move of a player from a square to another, or Move.NO_MOVE if the move isn't valid in this position.
+	// Used to check moves remembered from other positions, like hash and killer moves.
+	public int getPossibleMove(int fromSquare, int toSquare, int playerColor)
+	{
+		int rowIncrement = Integer.signum((toSquare >>> 3) - (fromSquare >>> 3));
+		int columnIncrement = Integer.signum((toSquare & 7) - (fromSquare & 7));
+		
+		if(((this.getPawns(playerColor) >>> fromSquare) & 1) == 0)
+		{
+			return Move.NO_MOVE;
+		}
+		
+		for(int direction = 0; direction < DIRECTIONS_COUNT; direction++)
+		{
+			if(DIRECTION_ROW_INCREMENTS[direction] == rowIncrement && DIRECTION_COLUMN_INCREMENTS[direction] == columnIncrement)
+			{
+				long playerPawns = this.getPawns(playerColor);
+				long opponentPawns = this.getPawns((playerColor == BLACK_PLAYER) ? WHITE_PLAYER : BLACK_PLAYER);
+				
+				if(this.getSlideDestination(fromSquare, direction, playerPawns, opponentPawns) == toSquare)
+				{
+					return Move.pack(fromSquare >>> 3, fromSquare & 7, toSquare >>> 3, toSquare & 7, playerColor, this.squares[toSquare >>> 3][toSquare & 7]);
+				}
+				
+				return Move.NO_MOVE;
+			}
+		}
+		
+		return Move.NO_MOVE;
+	}
+	
+	// Gets the destination of the pawn's slide in a direction, or SlideTables.NO_DESTINATION if the slide isn't valid.
+	// A slide is valid if it stays on the board, doesn't land on a pawn of the player and doesn't jump over an opponent pawn.
+	protected int getSlideDestination(int square, int direction, long playerPawns, long opponentPawns)
+	{
+		int slideIndex = SlideTables.getIndex(square, direction, this.getLinePawnsCount(direction, square >>> 3, square & 7));
+		int toSquare = SlideTables.getDestination(slideIndex);
 		
-		int toColumnIndex = 0;
-		int toRowIndex = 0;
+		if(toSquare != SlideTables.NO_DESTINATION && ((playerPawns >>> toSquare) & 1) == 0 && (SlideTables.getPath(slideIndex) & opponentPawns) == 0)
+		{
+			return toSquare;
+		}
+		
+		return SlideTables.NO_DESTINATION;
+	}
+	
+	// Counts the valid moves of a player without generating them
+	public int countPossibleMoves(int playerColor)
+	{
+		int moveCount = 0;
 		
 		for(int rowIndex = 0; rowIndex < 8; rowIndex++)
 		{
@@ -176,226 +475,81 @@ public class Board
 			{
 				if(this.squares[rowIndex][columnIndex] == playerColor)
 				{
-					// Horizontal moves
-					int rowPawnsCount = this.countRowPawns(rowIndex);
-					
-					toColumnIndex = columnIndex - rowPawnsCount;
-					
-					if(toColumnIndex >= 0 && this.squares[rowIndex][toColumnIndex] != playerColor)
-					{
-						isValidMove = true;
-						
-						for(int indexIncrement = 1; indexIncrement < rowPawnsCount; indexIncrement++)
-						{
-							if(this.squares[rowIndex][columnIndex - indexIncrement] == opponentColor)
-							{
-								isValidMove = false;
-								break;
-							}
-						}
-						
-						if(isValidMove)
-						{
-							this.possibleMovesBuffer[moveCount] = new Move(rowIndex, columnIndex, rowIndex, toColumnIndex, playerColor, this.squares[rowIndex][toColumnIndex]);
-							moveCount++;
-						}
-					}
-					
-					toColumnIndex = columnIndex + rowPawnsCount;
-					
-					if(toColumnIndex <= 7 && this.squares[rowIndex][toColumnIndex] != playerColor)
-					{
-						isValidMove = true;
-						
-						for(int indexIncrement = 1; indexIncrement < rowPawnsCount; indexIncrement++)
-						{
-							if(this.squares[rowIndex][columnIndex + indexIncrement] == opponentColor)
-							{
-								isValidMove = false;
-								break;
-							}
-						}
-						
-						if(isValidMove)
-						{
-							this.possibleMovesBuffer[moveCount] = new Move(rowIndex, columnIndex, rowIndex, toColumnIndex, playerColor, this.squares[rowIndex][toColumnIndex]);
-							moveCount++;
-						}
-					}
-					
-					// Vertical moves
-					int columnPawnsCount = this.countColumnPawns(columnIndex);
-					
-					toRowIndex = rowIndex - columnPawnsCount;
-					
-					if(toRowIndex >= 0 && this.squares[toRowIndex][columnIndex] != playerColor)
-					{
-						isValidMove = true;
-						
-						for(int indexIncrement = 1; indexIncrement < columnPawnsCount; indexIncrement++)
-						{
-							if(this.squares[rowIndex - indexIncrement][columnIndex] == opponentColor)
-							{
-								isValidMove = false;
-								break;
-							}
-						}
-						
-						if(isValidMove)
-						{
-							this.possibleMovesBuffer[moveCount] = new Move(rowIndex, columnIndex, toRowIndex, columnIndex, playerColor, this.squares[toRowIndex][columnIndex]);
-							moveCount++;
-						}
-					}
-					
-					toRowIndex = rowIndex + columnPawnsCount;
-					
-					if(toRowIndex <= 7 && this.squares[toRowIndex][columnIndex] != playerColor)
-					{
-						isValidMove = true;
-						
-						for(int indexIncrement = 1; indexIncrement < columnPawnsCount; indexIncrement++)
-						{
-							if(this.squares[rowIndex + indexIncrement][columnIndex] == opponentColor)
-							{
-								isValidMove = false;
-								break;
-							}
-						}
-						
-						if(isValidMove)
-						{
-							this.possibleMovesBuffer[moveCount] = new Move(rowIndex, columnIndex, toRowIndex, columnIndex, playerColor, this.squares[toRowIndex][columnIndex]);
-							moveCount++;
-						}
-					}
-					
-					// Forward Top diagonal moves
-					int topDiagonalPawnsCount = this.countForwardTopDiagonalPawns(rowIndex, columnIndex);
-					
-					toRowIndex = rowIndex - topDiagonalPawnsCount;
-					toColumnIndex = columnIndex - topDiagonalPawnsCount;
-					
-					if(toRowIndex >= 0 && toColumnIndex >= 0 && this.squares[toRowIndex][toColumnIndex] != playerColor)
-					{
-						isValidMove = true;
-						
-						for(int indexIncrement = 1; indexIncrement < topDiagonalPawnsCount; indexIncrement++)
-						{
-							if(this.squares[rowIndex - indexIncrement][columnIndex - indexIncrement] == opponentColor)
-							{
-								isValidMove = false;
-								break;
-							}
-						}
-						
-						if(isValidMove)
-						{
-							this.possibleMovesBuffer[moveCount] = new Move(rowIndex, columnIndex, toRowIndex, toColumnIndex, playerColor, this.squares[toRowIndex][toColumnIndex]);
-							moveCount++;
-						}
-					}
-					
-					toRowIndex = rowIndex + topDiagonalPawnsCount;
-					toColumnIndex = columnIndex + topDiagonalPawnsCount;
-					
-					if(toRowIndex <= 7 && toColumnIndex <= 7 && this.squares[toRowIndex][toColumnIndex] != playerColor)
-					{
-						isValidMove = true;
-						
-						for(int indexIncrement = 1; indexIncrement < topDiagonalPawnsCount; indexIncrement++)
-						{
-							if(this.squares[rowIndex + indexIncrement][columnIndex + indexIncrement] == opponentColor)
-							{
-								isValidMove = false;
-								break;
-							}
-						}
-						
-						if(isValidMove)
-						{
-							this.possibleMovesBuffer[moveCount] = new Move(rowIndex, columnIndex, toRowIndex, toColumnIndex, playerColor, this.squares[toRowIndex][toColumnIndex]);
-							moveCount++;
-						}
-					}
-					
-					// Forward Bottom diagonal moves
-					int bottomDiagonalPawnsCount = this.countForwardBottomDiagonalPawns(rowIndex, columnIndex);
-					
-					toRowIndex = rowIndex + bottomDiagonalPawnsCount;
-					toColumnIndex = columnIndex - bottomDiagonalPawnsCount;
-					
-					if(toRowIndex <= 7 && toColumnIndex >= 0 && this.squares[toRowIndex][toColumnIndex] != playerColor)
-					{
-						isValidMove = true;
-						
-						for(int indexIncrement = 1; indexIncrement < bottomDiagonalPawnsCount; indexIncrement++)
-						{
-							if(this.squares[rowIndex + indexIncrement][columnIndex - indexIncrement] == opponentColor)
-							{
-								isValidMove = false;
-								break;
-							}
-						}
-						
-						if(isValidMove)
-						{
-							this.possibleMovesBuffer[moveCount] = new Move(rowIndex, columnIndex, toRowIndex, toColumnIndex, playerColor, this.squares[toRowIndex][toColumnIndex]);
-							moveCount++;
-						}
-					}
-					
-					toRowIndex = rowIndex - bottomDiagonalPawnsCount;
-					toColumnIndex = columnIndex + bottomDiagonalPawnsCount;
-					
-					if(toRowIndex >= 0 && toColumnIndex <= 7 && this.squares[toRowIndex][toColumnIndex] != playerColor)
-					{
-						isValidMove = true;
-						
-						for(int indexIncrement = 1; indexIncrement < bottomDiagonalPawnsCount; indexIncrement++)
-						{
-							if(this.squares[rowIndex - indexIncrement][columnIndex + indexIncrement] == opponentColor)
-							{
-								isValidMove = false;
-								break;
-							}
-						}
-						
-						if(isValidMove)
-						{
-							this.possibleMovesBuffer[moveCount] = new Move(rowIndex, columnIndex, toRowIndex, toColumnIndex, playerColor, this.squares[toRowIndex][toColumnIndex]);
-							moveCount++;
-						}
-					}
+					moveCount += this.countPawnPossibleMoves(rowIndex, columnIndex);
 				}
 			}
 		}
 		
-		return Arrays.copyOf(this.possibleMovesBuffer, moveCount);
+		return moveCount;
+	}
+	
+	// Counts the valid moves of the pawn on a square
+	public int countPawnPossibleMoves(int rowIndex, int columnIndex)
+	{
+		int playerColor = this.squares[rowIndex][columnIndex];
+		
+		if(playerColor == BLANK_SQUARE)
+		{
+			return 0;
+		}
+		
+		int square = rowIndex * 8 + columnIndex;
+		long playerPawns = this.getPawns(playerColor);
+		long opponentPawns = this.getPawns((playerColor == BLACK_PLAYER) ? WHITE_PLAYER : BLACK_PLAYER);
+		int moveCount = 0;
+		
+		for(int direction = 0; direction < DIRECTIONS_COUNT; direction++)
+		{
+			if(this.getSlideDestination(square, direction, playerPawns, opponentPawns) != SlideTables.NO_DESTINATION)
+			{
+				moveCount++;
+			}
+		}
+		
+		return moveCount;
+	}
+	
+	// Gets the number of pawns on the line that goes through the square in a direction
+	protected int getLinePawnsCount(int direction, int rowIndex, int columnIndex)
+	{
+		switch(direction)
+		{
+			case 0 :
+			case 1 :
+				return this.rowPawnsCount[rowIndex];
+			case 2 :
+			case 3 :
+				return this.columnPawnsCount[columnIndex];
+			case 4 :
+			case 5 :
+				return this.forwardTopDiagonalPawnsCount[columnIndex + 7 - rowIndex];
+			default :
+				return this.forwardBottomDiagonalPawnsCount[rowIndex + columnIndex];
+		}
 	}
 	
 	// Counts the number of pawns in the row
 	public int countRowPawns(int rowIndex)
 	{
-		return this.rowPawnsCount[rowIndex];
+		return this.getLinePawnsCount(0, rowIndex, 0);
 	}
 	
 	// Counts the number of pawns in the column
 	public int countColumnPawns(int columnIndex)
 	{
-		return this.columnPawnsCount[columnIndex];
+		return this.getLinePawnsCount(2, 0, columnIndex);
 	}
 	
 	// Counts the number of pawns in the top diagonal
 	public int countForwardTopDiagonalPawns(int rowIndex, int columnIndex)
 	{
-		return this.forwardTopDiagonalPawnsCount[columnIndex + 7 - rowIndex];
+		return this.getLinePawnsCount(4, rowIndex, columnIndex);
 	}
 	
 	// Counts the number of pawns in the bottom diagonal
 	public int countForwardBottomDiagonalPawns(int rowIndex, int columnIndex)
 	{
-		return this.forwardBottomDiagonalPawnsCount[rowIndex + columnIndex];
+		return this.getLinePawnsCount(6, rowIndex, columnIndex);
 	}
 	
 	// Precalculates the number of pawns in a row, column, top diagonal and bottom diagonal
@@ -422,42 +576,206 @@ public class Board
 		}
 	}
 
-	private void updatePawnsCount(Move move)
+	// Builds the pawns bitboards from the squares
+	private void calculatePawnsBitBoards()
 	{
-		if(move.isReversed())
+		this.blackPawns = 0;
+		this.whitePawns = 0;
+		
+		for(int square = 0; square < BOARD_SQUARES_COUNT; square++)
 		{
-			// Updates all pawns count variables
-			this.rowPawnsCount[move.getFromRowIndex()]++;
-			this.columnPawnsCount[move.getFromColumnIndex()]++;
-			this.forwardTopDiagonalPawnsCount[move.getFromColumnIndex() + 7 - move.getFromRowIndex()]++;
-			this.forwardBottomDiagonalPawnsCount[move.getFromRowIndex() + move.getFromColumnIndex()]++;
-			
-			// Pawns count of the destination will only change if a pawn wasn't already there
-			if(move.getOverwrittenToSquare() == 0)
+			if(this.squares[square >>> 3][square & 7] == BLACK_PLAYER)
+			{
+				this.blackPawns |= 1L << square;
+			}
+			else if(this.squares[square >>> 3][square & 7] == WHITE_PLAYER)
 			{
-				this.rowPawnsCount[move.getToRowIndex()]--;
-				this.columnPawnsCount[move.getToColumnIndex()]--;
-				this.forwardTopDiagonalPawnsCount[move.getToColumnIndex() + 7 - move.getToRowIndex()]--;
-				this.forwardBottomDiagonalPawnsCount[move.getToRowIndex() + move.getToColumnIndex()]--;
+				this.whitePawns |= 1L << square;
 			}
 		}
+	}
+	
+	// Updates the pawns bitboards after a move was made or unmade on the squares
+	private void updatePawnsBitBoards(int packedMove)
+	{
+		long toBit = 1L << Move.getPackedToSquare(packedMove);
+		long moveBits = (1L << Move.getPackedFromSquare(packedMove)) | toBit;
+		long captureBit = (Move.getPackedCapturedSquare(packedMove) != BLANK_SQUARE) ? toBit : 0;
+		
+		if(Move.getPackedPlayerColor(packedMove) == BLACK_PLAYER)
+		{
+			this.blackPawns ^= moveBits;
+			this.whitePawns ^= captureBit;
+		}
 		else
 		{
-			// Updates all pawns count variables
-			this.rowPawnsCount[move.getFromRowIndex()]--;
-			this.columnPawnsCount[move.getFromColumnIndex()]--;
-			this.forwardTopDiagonalPawnsCount[move.getFromColumnIndex() + 7 - move.getFromRowIndex()]--;
-			this.forwardBottomDiagonalPawnsCount[move.getFromRowIndex() + move.getFromColumnIndex()]--;
-			
-			// Pawns count of the destination will only change if a pawn wasn't already there
-			if(move.getOverwrittenToSquare() == 0)
+			this.whitePawns ^= moveBits;
+			this.blackPawns ^= captureBit;
+		}
+	}
+	
+	private void updatePawnsCount(int packedMove, boolean reversed)
+	{
+		int fromRowIndex = Move.getPackedFromRowIndex(packedMove);
+		int fromColumnIndex = Move.getPackedFromColumnIndex(packedMove);
+		int toRowIndex = Move.getPackedToRowIndex(packedMove);
+		int toColumnIndex = Move.getPackedToColumnIndex(packedMove);
+		
+		// Pawns count of the source increases when the move is reversed and decreases otherwise
+		int increment = reversed ? 1 : -1;
+		
+		// Updates all pawns count variables
+		this.rowPawnsCount[fromRowIndex] += increment;
+		this.columnPawnsCount[fromColumnIndex] += increment;
+		this.forwardTopDiagonalPawnsCount[fromColumnIndex + 7 - fromRowIndex] += increment;
+		this.forwardBottomDiagonalPawnsCount[fromRowIndex + fromColumnIndex] += increment;
+		
+		// Pawns count of the destination will only change if a pawn wasn't already there
+		if(Move.getPackedCapturedSquare(packedMove) == 0)
+		{
+			this.rowPawnsCount[toRowIndex] -= increment;
+			this.columnPawnsCount[toColumnIndex] -= increment;
+			this.forwardTopDiagonalPawnsCount[toColumnIndex + 7 - toRowIndex] -= increment;
+			this.forwardBottomDiagonalPawnsCount[toRowIndex + toColumnIndex] -= increment;
+		}
+	}
+	
+	// Adds or removes the pawns of a move from the zobrist key. Doing it twice cancels the move.
+	private void updateZobristKey(int packedMove)
+	{
+		int playerColor = Move.getPackedPlayerColor(packedMove);
+		int capturedSquare = Move.getPackedCapturedSquare(packedMove);
+		int toRowIndex = Move.getPackedToRowIndex(packedMove);
+		int toColumnIndex = Move.getPackedToColumnIndex(packedMove);
+		
+		this.zobristKey ^= ZobristKeys.getPawnKey(playerColor, Move.getPackedFromRowIndex(packedMove), Move.getPackedFromColumnIndex(packedMove));
+		this.zobristKey ^= ZobristKeys.getPawnKey(playerColor, toRowIndex, toColumnIndex);
+		
+		if(capturedSquare != BLANK_SQUARE)
+		{
+			this.zobristKey ^= ZobristKeys.getPawnKey(capturedSquare, toRowIndex, toColumnIndex);
+		}
+	}
+	
+	// Passes the turn without moving, used by null move pruning
+	public void makeNullMove()
+	{
+		this.setPlayerToPlay((this.playerToPlay == BLACK_PLAYER) ? WHITE_PLAYER : BLACK_PLAYER);
+	}
+	
+	// Gives the turn back after makeNullMove
+	public void unmakeNullMove()
+	{
+		this.makeNullMove();
+	}
+	
+	// Changes the player to play and keeps the zobrist key in sync
+	public void setPlayerToPlay(int playerColor)
+	{
+		if(playerColor != this.playerToPlay)
+		{
+			this.zobristKey ^= ZobristKeys.getWhiteToPlayKey();
+			this.playerToPlay = playerColor;
+		}
+	}
+	
+	// Gets the player that plays the next move
+	public int getPlayerToPlay()
+	{
+		return this.playerToPlay;
+	}
+	
+	// Gets the zobrist key of the position
+	public long getZobristKey()
+	{
+		return this.zobristKey;
+	}
+	
+	// Calculates the zobrist key from scratch
+	public long calculateZobristKey()
+	{
+		long key = (this.playerToPlay == WHITE_PLAYER) ? ZobristKeys.getWhiteToPlayKey() : 0;
+		
+		for(int rowIndex = 0; rowIndex < 8; rowIndex++)
+		{
+			for(int columnIndex = 0; columnIndex < 8; columnIndex++)
+			{
+				if(this.getSquare(rowIndex, columnIndex) != BLANK_SQUARE)
+				{
+					key ^= ZobristKeys.getPawnKey(this.getSquare(rowIndex, columnIndex), rowIndex, columnIndex);
+				}
+			}
+		}
+		
+		return key;
+	}
+	
+	// Determines if the incremental zobrist key matches the position (for debugging)
+	public boolean isZobristKeyValid()
+	{
+		return this.zobristKey == this.calculateZobristKey();
+	}
+	
+	// Gets the bitboard of a player's pawns
+	public long getPawns(int playerColor)
+	{
+		return (playerColor == BLACK_PLAYER) ? this.blackPawns : this.whitePawns;
+	}
+	
+	// Gets the bitboard of all the pawns
+	public long getOccupiedSquares()
+	{
+		return this.blackPawns | this.whitePawns;
+	}
+	
+	// Gets the number of pawns left to a player
+	public int getPawnsCount(int playerColor)
+	{
+		return (playerColor == BLACK_PLAYER) ? this.blackPawnsCount : this.whitePawnsCount;
+	}
+	
+	// Gets the number of pawns left on the board
+	public int getPawnsCount()
+	{
+		return this.blackPawnsCount + this.whitePawnsCount;
+	}
+	
+	// Gets the content of a square: BLANK_SQUARE or the color of its pawn
+	public int getSquare(int rowIndex, int columnIndex)
+	{
+		return this.squares[rowIndex][columnIndex];
+	}
+	
+	// Gets the neighbours of a square holding a pawn of the player, as 8 bits in the order of the (row, column) increments
+	// (-1, -1), (-1, 0), (-1, 1), (0, -1), (0, 1), (1, -1), (1, 0), (1, 1). The excluded square is left out, so the neighbours
+	// of the squares of a move can be the same before and after the move.
+	public int getNeighbourhood(int playerColor, int square, int excludedSquare)
+	{
+		int pawnRowIndex = square >>> 3;
+		int pawnColumnIndex = square & 7;
+		int neighbourhood = 0;
+		int neighbour = 0;
+		
+		for(int rowIndex = pawnRowIndex - 1; rowIndex <= pawnRowIndex + 1; rowIndex++)
+		{
+			for(int columnIndex = pawnColumnIndex - 1; columnIndex <= pawnColumnIndex + 1; columnIndex++)
 			{
-				this.rowPawnsCount[move.getToRowIndex()]++;
-				this.columnPawnsCount[move.getToColumnIndex()]++;
-				this.forwardTopDiagonalPawnsCount[move.getToColumnIndex() + 7 - move.getToRowIndex()]++;
-				this.forwardBottomDiagonalPawnsCount[move.getToRowIndex() + move.getToColumnIndex()]++;
+				if(rowIndex == pawnRowIndex && columnIndex == pawnColumnIndex)
+				{
+					continue;
+				}
+				
+				if(rowIndex >= 0 && rowIndex <= 7 && columnIndex >= 0 && columnIndex <= 7 &&
+						this.squares[rowIndex][columnIndex] == playerColor && rowIndex * 8 + columnIndex != excludedSquare)
+				{
+					neighbourhood |= 1 << neighbour;
+				}
+				
+				neighbour++;
 			}
 		}
+		
+		return neighbourhood;
 	}
 	
 	public QuadHeuristic getQuadHeuristic()
@@ -470,129 +788,110 @@ public class Board
 		return this.centralizationHeuristic;
 	}
 	
+	// Determines if all the pawns of the player are connected
 	public boolean isWinning(int playerColor)
 	{
-		int pawnRowIndex = -1;
-		int pawnColumnIndex = -1;
+		int connectedPawnsCount = 0;
+		
+		// Fills the group of the first pawn found
+		for(int square = 0; square < BOARD_SQUARES_COUNT; square++)
+		{
+			if(this.squares[square >>> 3][square & 7] == playerColor)
+			{
+				this.nextVisitMark();
+				connectedPawnsCount = this.fillGroup(square, playerColor);
+				break;
+			}
+		}
+		
+		int playerPawnsCount = (playerColor == Board.BLACK_PLAYER) ? this.blackPawnsCount : this.whitePawnsCount;
+		
+		return playerPawnsCount == connectedPawnsCount;
+	}
+	
+	// Counts the groups of connected pawns of a player
+	public int getGroupsCount(int playerColor)
+	{
+		int groupsCount = 0;
 		
-		// Searches a pawn of the player
-		boolean firstPawnFound = false;
+		this.nextVisitMark();
 		
-		for(int rowIndex = 0; rowIndex < 8 && !firstPawnFound; rowIndex++)
+		for(int square = 0; square < BOARD_SQUARES_COUNT; square++)
 		{
-			for(int columnIndex = 0; columnIndex < 8 && !firstPawnFound; columnIndex++)
+			if(this.squares[square >>> 3][square & 7] == playerColor && this.visitedSquares[square] != this.visitMark)
 			{
-				if(this.squares[rowIndex][columnIndex] == playerColor)
-				{
-					firstPawnFound = true;
-					pawnRowIndex = rowIndex;
-					pawnColumnIndex = columnIndex;
-				}
+				this.fillGroup(square, playerColor);
+				groupsCount++;
 			}
 		}
 		
-		int connectedPawnsCount = 0;
+		return groupsCount;
+	}
+	
+	// Gets the number of pawns in the largest group of connected pawns of a player
+	public int getLargestGroupSize(int playerColor)
+	{
+		int largestGroupSize = 0;
 		
-		if(firstPawnFound)
+		this.nextVisitMark();
+		
+		for(int square = 0; square < BOARD_SQUARES_COUNT; square++)
 		{
-			int[] pawnsToVisit = new int[] {-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1};
-			boolean[][] visitedPawns = new boolean[8][8];
-			int currentPawnIndex = 0;
-			int lastPawnIndex = 1;
-			
-			pawnsToVisit[0] = pawnRowIndex*8 + pawnColumnIndex;
-			visitedPawns[pawnRowIndex][pawnColumnIndex] = true;
+			if(this.squares[square >>> 3][square & 7] == playerColor && this.visitedSquares[square] != this.visitMark)
+			{
+				largestGroupSize = Math.max(largestGroupSize, this.fillGroup(square, playerColor));
+			}
+		}
+		
+		return largestGroupSize;
+	}
+	
+	// Marks all the pawns connected to the square with the current visit mark and returns their number.
+	// Uses preallocated buffers so the win detection doesn't allocate.
+	private int fillGroup(int firstSquare, int playerColor)
+	{
+		int currentPawnIndex = 0;
+		int lastPawnIndex = 1;
+		
+		this.pawnsToVisit[0] = firstSquare;
+		this.visitedSquares[firstSquare] = this.visitMark;
+		
+		while(currentPawnIndex < lastPawnIndex)
+		{
+			int pawnRowIndex = this.pawnsToVisit[currentPawnIndex] >>> 3;
+			int pawnColumnIndex = this.pawnsToVisit[currentPawnIndex] & 7;
 			
-			while(pawnsToVisit[currentPawnIndex] != -1)
+			for(int rowIndex = Math.max(pawnRowIndex - 1, 0); rowIndex <= Math.min(pawnRowIndex + 1, 7); rowIndex++)
 			{
-				connectedPawnsCount++;
-				
-				pawnRowIndex = pawnsToVisit[currentPawnIndex] / 8;
-				pawnColumnIndex = pawnsToVisit[currentPawnIndex] % 8;
-				
-				if(pawnRowIndex - 1 >= 0)
+				for(int columnIndex = Math.max(pawnColumnIndex - 1, 0); columnIndex <= Math.min(pawnColumnIndex + 1, 7); columnIndex++)
 				{
-					if(pawnColumnIndex - 1 >= 0 && 
-							this.squares[pawnRowIndex - 1][pawnColumnIndex - 1] == playerColor && 
-							!visitedPawns[pawnRowIndex - 1][pawnColumnIndex - 1])
-					{
-						pawnsToVisit[lastPawnIndex] = (pawnRowIndex - 1)*8 + pawnColumnIndex - 1;
-						visitedPawns[pawnRowIndex - 1][pawnColumnIndex - 1] = true;
-						lastPawnIndex++;
-					}
-					
-					if(pawnColumnIndex + 1 <= 7 && 
-							this.squares[pawnRowIndex - 1][pawnColumnIndex + 1] == playerColor && 
-							!visitedPawns[pawnRowIndex - 1][pawnColumnIndex + 1])
-					{
-						pawnsToVisit[lastPawnIndex] = (pawnRowIndex - 1)*8 + pawnColumnIndex + 1;
-						visitedPawns[pawnRowIndex - 1][pawnColumnIndex + 1] = true;
-						lastPawnIndex++;
-					}
-					
-					if(this.squares[pawnRowIndex - 1][pawnColumnIndex] == playerColor && 
-							!visitedPawns[pawnRowIndex - 1][pawnColumnIndex])
-					{
-						pawnsToVisit[lastPawnIndex] = (pawnRowIndex - 1)*8 + pawnColumnIndex;
-						visitedPawns[pawnRowIndex - 1][pawnColumnIndex] = true;
-						lastPawnIndex++;
-					}
-				}
-				
-				if(pawnRowIndex + 1 <= 7)
-				{
-					if(pawnColumnIndex - 1 >= 0 && 
-							this.squares[pawnRowIndex + 1][pawnColumnIndex - 1] == playerColor && 
-							!visitedPawns[pawnRowIndex + 1][pawnColumnIndex - 1])
-					{
-						pawnsToVisit[lastPawnIndex] = (pawnRowIndex + 1)*8 + pawnColumnIndex - 1;
-						visitedPawns[pawnRowIndex + 1][pawnColumnIndex - 1] = true;
-						lastPawnIndex++;
-					}
+					int square = rowIndex * 8 + columnIndex;
 					
-					if(pawnColumnIndex + 1 <= 7 && 
-							this.squares[pawnRowIndex + 1][pawnColumnIndex + 1] == playerColor && 
-							!visitedPawns[pawnRowIndex + 1][pawnColumnIndex + 1])
+					if(this.squares[rowIndex][columnIndex] == playerColor && this.visitedSquares[square] != this.visitMark)
 					{
-						pawnsToVisit[lastPawnIndex] = (pawnRowIndex + 1)*8 + pawnColumnIndex + 1;
-						visitedPawns[pawnRowIndex + 1][pawnColumnIndex + 1] = true;
+						this.pawnsToVisit[lastPawnIndex] = square;
+						this.visitedSquares[square] = this.visitMark;
 						lastPawnIndex++;
 					}
-					
-					if(this.squares[pawnRowIndex + 1][pawnColumnIndex] == playerColor && 
-							!visitedPawns[pawnRowIndex + 1][pawnColumnIndex])
-					{
-						pawnsToVisit[lastPawnIndex] = (pawnRowIndex + 1)*8 + pawnColumnIndex;
-						visitedPawns[pawnRowIndex + 1][pawnColumnIndex] = true;
-						lastPawnIndex++;
-					}
-				}
-				
-				if(pawnColumnIndex - 1 >= 0 && 
-						this.squares[pawnRowIndex][pawnColumnIndex - 1] == playerColor && 
-						!visitedPawns[pawnRowIndex][pawnColumnIndex - 1])
-				{
-					pawnsToVisit[lastPawnIndex] = (pawnRowIndex)*8 + pawnColumnIndex - 1;
-					visitedPawns[pawnRowIndex][pawnColumnIndex - 1] = true;
-					lastPawnIndex++;
-				}
-				
-				if(pawnColumnIndex + 1 <= 7 && 
-						this.squares[pawnRowIndex][pawnColumnIndex + 1] == playerColor && 
-						!visitedPawns[pawnRowIndex][pawnColumnIndex + 1])
-				{
-					pawnsToVisit[lastPawnIndex] = (pawnRowIndex)*8 + pawnColumnIndex + 1;
-					visitedPawns[pawnRowIndex][pawnColumnIndex + 1] = true;
-					lastPawnIndex++;
 				}
-				
-				currentPawnIndex++;
 			}
+			
+			currentPawnIndex++;
 		}
 		
-		int playerPawnsCount = (playerColor == Board.BLACK_PLAYER) ? this.blackPawnsCount : this.whitePawnsCount;
+		return lastPawnIndex;
+	}
+	
+	// Changes the visit mark so the squares visited by the last fill are considered unvisited
+	private void nextVisitMark()
+	{
+		if(this.visitMark == Integer.MAX_VALUE)
+		{
+			Arrays.fill(this.visitedSquares, 0);
+			this.visitMark = 0;
+		}
 		
-		return playerPawnsCount == connectedPawnsCount;
+		this.visitMark++;
 	}
 	
 	public boolean isBlackWinning()
@@ -600,10 +899,17 @@ public class Board
 		return false;
 	}
 	
-	// Returns the squares of the board
+	// Returns a copy of the squares of the board
 	public int[][] getSquares()
 	{
-		return this.squares;
+		int[][] squares = new int[ROW_SQUARES_COUNT][COLUMN_SQUARES_COUNT];
+		
+		for(int square = 0; square < BOARD_SQUARES_COUNT; square++)
+		{
+			squares[square >>> 3][square & 7] = this.getSquare(square >>> 3, square & 7);
+		}
+		
+		return squares;
 	}
 	
 	public float getValue()
@@ -626,7 +932,7 @@ public class Board
 			System.out.print("* ");
 			for(int columnIndex = 0; columnIndex <= 7; columnIndex++)
 			{
-				System.out.print(Integer.toString(this.squares[rowIndex][columnIndex]) + " ");
+				System.out.print(Integer.toString(this.getSquare(rowIndex, columnIndex)) + " ");
 			}
 			
 			System.out.println("*");
@@ -1,97 +1,215 @@
 package game;
 
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Scanner;
 
+// Sums the piece-square values of each player's pawns. The tables hold one value per square (rowIndex * 8 + columnIndex)
+// for each colour and are shared by all boards, so they can be loaded once at startup.
 public class CentralizationHeuristic
 {
+	// Piece-square tables of each colour given to the new heuristics
+	private static int[] sharedBlackSquareValues = createDefaultSquareValues();
+	private static int[] sharedWhiteSquareValues = createDefaultSquareValues();
+	
 	private Board board;
 	
+	// Tables used by this heuristic, so replacing the shared ones never breaks its incremental values
+	private int[] blackSquareValues;
+	private int[] whiteSquareValues;
+	
 	private int whitePawnsValue;
 	private int blackPawnsValue;
 	
 	public CentralizationHeuristic(Board board)
 	{
 		this.board = board;
+		this.blackSquareValues = sharedBlackSquareValues;
+		this.whiteSquareValues = sharedWhiteSquareValues;
 		
 		this.calculate();
 	}
 	
-	public void update(Move move)
+	// Constructor copying the tables and the values of another board's heuristic, for a board holding the same position
+	public CentralizationHeuristic(Board board, CentralizationHeuristic centralizationHeuristic)
 	{
-		int[][] squares = board.getSquares();
+		this.board = board;
 		
-		if(!move.isReversed())
+		this.copyFrom(centralizationHeuristic);
+	}
+	
+	// Copies the tables and the values of another heuristic, once its position has been copied on the board
+	public void copyFrom(CentralizationHeuristic centralizationHeuristic)
+	{
+		this.blackSquareValues = centralizationHeuristic.blackSquareValues;
+		this.whiteSquareValues = centralizationHeuristic.whiteSquareValues;
+		this.blackPawnsValue = centralizationHeuristic.blackPawnsValue;
+		this.whitePawnsValue = centralizationHeuristic.whitePawnsValue;
+	}
+	
+	// Loads the piece-square tables from a file of whitespace separated integers, row by row.
+	// The file holds either 64 values used by both colours, or 64 black values followed by 64 white values.
+	// Returns false and keeps the current tables if the file can't be read.
+	public static boolean loadSquareValues(String filePath)
+	{
+		int[] values = new int[128];
+		int valuesCount = 0;
+		Scanner scanner = null;
+		
+		try
 		{
-			if(move.getOverwrittenFromSquare() == Board.BLACK_PLAYER)
+			scanner = new Scanner(new File(filePath));
+			
+			while(scanner.hasNextInt() && valuesCount < values.length)
+			{
+				values[valuesCount] = scanner.nextInt();
+				valuesCount++;
+			}
+			
+			if(scanner.hasNext() || (valuesCount != 64 && valuesCount != 128))
 			{
-				this.blackPawnsValue -= this.getCentralizationValue(move.getFromRowIndex(), move.getFromColumnIndex());
-				this.blackPawnsValue += this.getCentralizationValue(move.getToRowIndex(), move.getToColumnIndex());
-				
-				if(move.getOverwrittenToSquare() != Board.BLANK_SQUARE)
-				{
-					this.whitePawnsValue -= this.getCentralizationValue(move.getToRowIndex(), move.getToColumnIndex());
-				}
+				System.err.println("Error, " + filePath + " must hold 64 or 128 square values!");
+				return false;
 			}
-			else if(move.getOverwrittenFromSquare() == Board.WHITE_PLAYER)
+		}
+		catch (FileNotFoundException e)
+		{
+			System.err.println("Error while reading the square values of " + filePath);
+			System.err.println(e.getMessage());
+			return false;
+		}
+		finally
+		{
+			if(scanner != null)
 			{
-				this.whitePawnsValue -= this.getCentralizationValue(move.getFromRowIndex(), move.getFromColumnIndex());
-				this.whitePawnsValue += this.getCentralizationValue(move.getToRowIndex(), move.getToColumnIndex());
-				
-				if(move.getOverwrittenToSquare() != Board.BLANK_SQUARE)
-				{
-					this.blackPawnsValue -= this.getCentralizationValue(move.getToRowIndex(), move.getToColumnIndex());
-				}
+				scanner.close();
 			}
 		}
+		
+		int[] blackValues = new int[64];
+		int[] whiteValues = new int[64];
+		
+		System.arraycopy(values, 0, blackValues, 0, 64);
+		System.arraycopy(values, (valuesCount == 128) ? 64 : 0, whiteValues, 0, 64);
+		
+		setSquareValues(Board.BLACK_PLAYER, blackValues);
+		setSquareValues(Board.WHITE_PLAYER, whiteValues);
+		
+		return true;
+	}
+	
+	// Replaces the piece-square table of a colour. Only the heuristics created afterwards use it.
+	public static void setSquareValues(int playerColor, int[] squareValues)
+	{
+		if(playerColor == Board.BLACK_PLAYER)
+		{
+			sharedBlackSquareValues = squareValues.clone();
+		}
 		else
 		{
-			if(move.getOverwrittenFromSquare() == Board.BLACK_PLAYER)
+			sharedWhiteSquareValues = squareValues.clone();
+		}
+	}
+	
+	// Gets the piece-square table of a colour
+	public static int[] getSquareValues(int playerColor)
+	{
+		return (playerColor == Board.BLACK_PLAYER) ? sharedBlackSquareValues.clone() : sharedWhiteSquareValues.clone();
+	}
+	
+	// Restores the default tables, where a pawn is worth its distance to the nearest edge
+	public static void resetSquareValues()
+	{
+		sharedBlackSquareValues = createDefaultSquareValues();
+		sharedWhiteSquareValues = createDefaultSquareValues();
+	}
+	
+	private static int[] createDefaultSquareValues()
+	{
+		int[] squareValues = new int[64];
+		
+		for(int square = 0; square < 64; square++)
+		{
+			int min = Math.min(square >>> 3, square & 7);
+			int max = Math.max(square >>> 3, square & 7);
+			squareValues[square] = Math.min(((min > 3)?7-min:min), (max > 3)?7-max:max);
+		}
+		
+		return squareValues;
+	}
+	
+	public void update(Move move)
+	{
+		this.update(move.pack(), move.isReversed());
+	}
+	
+	// Updates the pawns values after a packed move was made, or unmade if reversed is true
+	public void update(int packedMove, boolean reversed)
+	{
+		int fromSquare = Move.getPackedFromSquare(packedMove);
+		int toSquare = Move.getPackedToSquare(packedMove);
+		int sign = reversed ? -1 : 1;
+		
+		if(Move.getPackedPlayerColor(packedMove) == Board.BLACK_PLAYER)
+		{
+			this.blackPawnsValue += sign * (this.blackSquareValues[toSquare] - this.blackSquareValues[fromSquare]);
+			
+			if(Move.getPackedCapturedSquare(packedMove) != Board.BLANK_SQUARE)
 			{
-				this.blackPawnsValue += this.getCentralizationValue(move.getFromRowIndex(), move.getFromColumnIndex());
-				this.blackPawnsValue -= this.getCentralizationValue(move.getToRowIndex(), move.getToColumnIndex());
-				
-				if(move.getOverwrittenToSquare() != Board.BLANK_SQUARE)
-				{
-					this.whitePawnsValue += this.getCentralizationValue(move.getToRowIndex(), move.getToColumnIndex());
-				}
+				this.whitePawnsValue -= sign * this.whiteSquareValues[toSquare];
 			}
-			else if(move.getOverwrittenFromSquare() == Board.WHITE_PLAYER)
+		}
+		else
+		{
+			this.whitePawnsValue += sign * (this.whiteSquareValues[toSquare] - this.whiteSquareValues[fromSquare]);
+			
+			if(Move.getPackedCapturedSquare(packedMove) != Board.BLANK_SQUARE)
 			{
-				this.whitePawnsValue += this.getCentralizationValue(move.getFromRowIndex(), move.getFromColumnIndex());
-				this.whitePawnsValue -= this.getCentralizationValue(move.getToRowIndex(), move.getToColumnIndex());
-				
-				if(move.getOverwrittenToSquare() != Board.BLANK_SQUARE)
-				{
-					this.blackPawnsValue += this.getCentralizationValue(move.getToRowIndex(), move.getToColumnIndex());
-				}
+				this.blackPawnsValue -= sign * this.blackSquareValues[toSquare];
 			}
 		}
 	}
 	
-	private int getCentralizationValue(int rowIndex, int columnIndex)
+	// Gets the change of the value of the player making a packed move
+	public int getPlayerValueDelta(int packedMove)
+	{
+		int[] squareValues = (Move.getPackedPlayerColor(packedMove) == Board.BLACK_PLAYER) ? this.blackSquareValues : this.whiteSquareValues;
+		
+		return squareValues[Move.getPackedToSquare(packedMove)] - squareValues[Move.getPackedFromSquare(packedMove)];
+	}
+	
+	// Gets the change of the value of the opponent of the player making a packed move, which only changes with captures
+	public int getOpponentValueDelta(int packedMove)
 	{
-		int min = Math.min(rowIndex, columnIndex);
-		int max = Math.max(rowIndex, columnIndex);
-		return Math.min(((min > 3)?7-min:min), (max > 3)?7-max:max);
+		int capturedSquare = Move.getPackedCapturedSquare(packedMove);
+		
+		if(capturedSquare == Board.BLANK_SQUARE)
+		{
+			return 0;
+		}
+		
+		int[] squareValues = (capturedSquare == Board.BLACK_PLAYER) ? this.blackSquareValues : this.whiteSquareValues;
+		
+		return -squareValues[Move.getPackedToSquare(packedMove)];
 	}
 	
 	private void calculate()
 	{
-		int[][] squares = this.board.getSquares();
+		this.blackPawnsValue = getPawnsValue(this.board.getPawns(Board.BLACK_PLAYER), this.blackSquareValues);
+		this.whitePawnsValue = getPawnsValue(this.board.getPawns(Board.WHITE_PLAYER), this.whiteSquareValues);
+	}
+	
+	private static int getPawnsValue(long pawns, int[] squareValues)
+	{
+		int value = 0;
 		
-		for(int rowIndex = 0; rowIndex < 8; rowIndex++)
+		while(pawns != 0)
 		{
-			for(int columnIndex = 0; columnIndex < 8; columnIndex++)
-			{
-				if(squares[rowIndex][columnIndex] == Board.BLACK_PLAYER)
-				{
-					this.blackPawnsValue += this.getCentralizationValue(rowIndex, columnIndex);
-				}
-				else if(squares[rowIndex][columnIndex] == Board.WHITE_PLAYER)
-				{
-					this.whitePawnsValue += this.getCentralizationValue(rowIndex, columnIndex);
-				}
-			}
+			value += squareValues[Long.numberOfTrailingZeros(pawns)];
+			pawns &= pawns - 1;
 		}
+		
+		return value;
 	}
 	
 	public int getWhitePawnsValue()
@@ -0,0 +1,524 @@
+package game;
+
+import java.util.Arrays;
+
+// Board engine that keeps the squares in a 10x10 byte array surrounded by off-board sentinels (mailbox).
+// Square (rowIndex, columnIndex) is at (rowIndex + 1) * 10 + columnIndex + 1, so rays and neighbours never need edge tests.
+// The mailbox and the number of pawns on each line are the only storage of the position: Board keeps the heuristics,
+// the pawns counts and the zobrist key, updated from the packed moves and the neighbourhoods read in the mailbox.
+public class MailboxBoard extends Board
+{
+	// Constants
+	private static final int MAILBOX_SIZE = 100;
+	private static final int MAILBOX_ROW_SIZE = 10;
+	private static final int FIRST_MAILBOX_INDEX = MAILBOX_ROW_SIZE + 1;
+	private static final int LAST_MAILBOX_INDEX = MAILBOX_SIZE - MAILBOX_ROW_SIZE - 2;
+	private static final byte OFF_BOARD_SQUARE = 1;
+	
+	// Target of generateMoves that accepts every destination
+	private static final int ALL_SQUARES = -1;
+	
+	// Mailbox offsets of the directions, in the same order as Board.DIRECTION_ROW_INCREMENTS
+	private static final int[] DIRECTION_OFFSETS = new int[] {-1, 1, -10, 10, -11, 11, 9, -9};
+	
+	// Mailbox offsets of the neighbours, in the order of the neighbourhood bits of Board.getNeighbourhood
+	private static final int[] NEIGHBOUR_OFFSETS = new int[] {-11, -10, -9, -1, 1, 9, 10, 11};
+	
+	// Squares of the board and sentinels
+	private byte[] mailbox;
+	
+	// Number of pawns on each row, column and diagonal
+	private int[] rowPawnsCount;
+	private int[] columnPawnsCount;
+	private int[] forwardBottomDiagonalPawnsCount;
+	private int[] forwardTopDiagonalPawnsCount;
+	
+	// Variables used to enhance performance
+	private int[] pawnsToVisit;
+	private int[] visitedSquares;
+	private int visitMark;
+	
+	// Constructor
+	public MailboxBoard(int[][] squares)
+	{
+		this.mailbox = new byte[MAILBOX_SIZE];
+		
+		Arrays.fill(this.mailbox, OFF_BOARD_SQUARE);
+		
+		for(int square = 0; square < BOARD_SQUARES_COUNT; square++)
+		{
+			this.mailbox[getMailboxIndex(square)] = (byte) squares[square >>> 3][square & 7];
+		}
+		
+		this.calculatePawnsCount();
+		
+		this.pawnsToVisit = new int[BOARD_SQUARES_COUNT];
+		this.visitedSquares = new int[MAILBOX_SIZE];
+		this.visitMark = 0;
+		
+		this.initialize();
+	}
+	
+	// Constructor copying another board
+	protected MailboxBoard(MailboxBoard board)
+	{
+		this.mailbox = board.mailbox.clone();
+		
+		this.rowPawnsCount = board.rowPawnsCount.clone();
+		this.columnPawnsCount = board.columnPawnsCount.clone();
+		this.forwardBottomDiagonalPawnsCount = board.forwardBottomDiagonalPawnsCount.clone();
+		this.forwardTopDiagonalPawnsCount = board.forwardTopDiagonalPawnsCount.clone();
+		
+		this.pawnsToVisit = new int[BOARD_SQUARES_COUNT];
+		this.visitedSquares = new int[MAILBOX_SIZE];
+		this.visitMark = 0;
+		
+		this.initialize(board);
+	}
+	
+	// Creates a mailbox board holding the same position, sharing nothing with this board
+	@Override
+	public Board copy()
+	{
+		return new MailboxBoard(this);
+	}
+	
+	// Copies the position of another board in the mailbox. The position of another engine is read square by square.
+	@Override
+	protected void copySquaresFrom(Board board)
+	{
+		if(!(board instanceof MailboxBoard))
+		{
+			for(int square = 0; square < BOARD_SQUARES_COUNT; square++)
+			{
+				this.mailbox[getMailboxIndex(square)] = (byte) board.getSquare(square >>> 3, square & 7);
+			}
+			
+			this.calculatePawnsCount();
+			return;
+		}
+		
+		MailboxBoard mailboxBoard = (MailboxBoard) board;
+		
+		System.arraycopy(mailboxBoard.mailbox, 0, this.mailbox, 0, MAILBOX_SIZE);
+		System.arraycopy(mailboxBoard.rowPawnsCount, 0, this.rowPawnsCount, 0, this.rowPawnsCount.length);
+		System.arraycopy(mailboxBoard.columnPawnsCount, 0, this.columnPawnsCount, 0, this.columnPawnsCount.length);
+		System.arraycopy(mailboxBoard.forwardBottomDiagonalPawnsCount, 0, this.forwardBottomDiagonalPawnsCount, 0, this.forwardBottomDiagonalPawnsCount.length);
+		System.arraycopy(mailboxBoard.forwardTopDiagonalPawnsCount, 0, this.forwardTopDiagonalPawnsCount, 0, this.forwardTopDiagonalPawnsCount.length);
+	}
+	
+	// Makes a packed move
+	@Override
+	public void makeMove(int packedMove)
+	{
+		this.mailbox[getMailboxIndex(Move.getPackedFromSquare(packedMove))] = BLANK_SQUARE;
+		this.mailbox[getMailboxIndex(Move.getPackedToSquare(packedMove))] = (byte) Move.getPackedPlayerColor(packedMove);
+		
+		this.updatePawnsCount(packedMove, false);
+		this.updateProperties(packedMove, false);
+	}
+	
+	// Unmakes a packed move
+	@Override
+	public void unmakeMove(int packedMove)
+	{
+		this.mailbox[getMailboxIndex(Move.getPackedFromSquare(packedMove))] = (byte) Move.getPackedPlayerColor(packedMove);
+		this.mailbox[getMailboxIndex(Move.getPackedToSquare(packedMove))] = (byte) Move.getPackedCapturedSquare(packedMove);
+		
+		this.updatePawnsCount(packedMove, true);
+		this.updateProperties(packedMove, true);
+	}
+	
+	// Writes all valid moves for a given player as packed moves in the array and returns the number of moves
+	@Override
+	public int generatePossibleMoves(int playerColor, int[] moves)
+	{
+		return this.generateMoves(playerColor, moves, ALL_SQUARES);
+	}
+	
+	// Writes the valid moves of a player that capture an opponent pawn and returns the number of moves
+	@Override
+	public int generateCaptureMoves(int playerColor, int[] moves)
+	{
+		return this.generateMoves(playerColor, moves, (playerColor == BLACK_PLAYER) ? WHITE_PLAYER : BLACK_PLAYER);
+	}
+	
+	// Writes the valid moves of a player that land on an empty square and returns the number of moves
+	@Override
+	public int generateQuietMoves(int playerColor, int[] moves)
+	{
+		return this.generateMoves(playerColor, moves, BLANK_SQUARE);
+	}
+	
+	// Writes the valid moves of a player landing on a square holding the target (ALL_SQUARES for any) and returns the number of moves
+	private int generateMoves(int playerColor, int[] moves, int targetSquare)
+	{
+		int moveCount = 0;
+		
+		for(int mailboxIndex = FIRST_MAILBOX_INDEX; mailboxIndex <= LAST_MAILBOX_INDEX; mailboxIndex++)
+		{
+			if(this.mailbox[mailboxIndex] == playerColor)
+			{
+				int square = getSquareIndex(mailboxIndex);
+				
+				for(int direction = 0; direction < DIRECTIONS_COUNT; direction++)
+				{
+					int toMailboxIndex = this.getSlideDestination(mailboxIndex, direction, playerColor);
+					
+					if(toMailboxIndex != SlideTables.NO_DESTINATION && (targetSquare == ALL_SQUARES || this.mailbox[toMailboxIndex] == targetSquare))
+					{
+						int toSquare = getSquareIndex(toMailboxIndex);
+						
+						moves[moveCount] = Move.pack(square >>> 3, square & 7, toSquare >>> 3, toSquare & 7, playerColor, this.mailbox[toMailboxIndex]);
+						moveCount++;
+					}
+				}
+			}
+		}
+		
+		return moveCount;
+	}
+	
+	// Gets the packed move of a player from a square to another, or Move.NO_MOVE if the move isn't valid in this position
+	@Override
+	public int getPossibleMove(int fromSquare, int toSquare, int playerColor)
+	{
+		int mailboxIndex = getMailboxIndex(fromSquare);
+		int toMailboxIndex = getMailboxIndex(toSquare);
+		int rowIncrement = Integer.signum((toSquare >>> 3) - (fromSquare >>> 3));
+		int columnIncrement = Integer.signum((toSquare & 7) - (fromSquare & 7));
+		
+		if(this.mailbox[mailboxIndex] != playerColor)
+		{
+			return Move.NO_MOVE;
+		}
+		
+		for(int direction = 0; direction < DIRECTIONS_COUNT; direction++)
+		{
+			if(DIRECTION_ROW_INCREMENTS[direction] == rowIncrement && DIRECTION_COLUMN_INCREMENTS[direction] == columnIncrement)
+			{
+				if(this.getSlideDestination(mailboxIndex, direction, playerColor) == toMailboxIndex)
+				{
+					return Move.pack(fromSquare >>> 3, fromSquare & 7, toSquare >>> 3, toSquare & 7, playerColor, this.mailbox[toMailboxIndex]);
+				}
+				
+				return Move.NO_MOVE;
+			}
+		}
+		
+		return Move.NO_MOVE;
+	}
+	
+	// Counts the valid moves of a player without generating them
+	@Override
+	public int countPossibleMoves(int playerColor)
+	{
+		int moveCount = 0;
+		
+		for(int mailboxIndex = FIRST_MAILBOX_INDEX; mailboxIndex <= LAST_MAILBOX_INDEX; mailboxIndex++)
+		{
+			if(this.mailbox[mailboxIndex] == playerColor)
+			{
+				for(int direction = 0; direction < DIRECTIONS_COUNT; direction++)
+				{
+					if(this.getSlideDestination(mailboxIndex, direction, playerColor) != SlideTables.NO_DESTINATION)
+					{
+						moveCount++;
+					}
+				}
+			}
+		}
+		
+		return moveCount;
+	}
+	
+	// Counts the valid moves of the pawn on a square
+	@Override
+	public int countPawnPossibleMoves(int rowIndex, int columnIndex)
+	{
+		int mailboxIndex = (rowIndex + 1) * MAILBOX_ROW_SIZE + columnIndex + 1;
+		int playerColor = this.mailbox[mailboxIndex];
+		int moveCount = 0;
+		
+		if(playerColor == BLANK_SQUARE)
+		{
+			return 0;
+		}
+		
+		for(int direction = 0; direction < DIRECTIONS_COUNT; direction++)
+		{
+			if(this.getSlideDestination(mailboxIndex, direction, playerColor) != SlideTables.NO_DESTINATION)
+			{
+				moveCount++;
+			}
+		}
+		
+		return moveCount;
+	}
+	
+	// Gets the number of pawns on the line that goes through the square in a direction
+	@Override
+	protected int getLinePawnsCount(int direction, int rowIndex, int columnIndex)
+	{
+		switch(direction)
+		{
+			case 0 :
+			case 1 :
+				return this.rowPawnsCount[rowIndex];
+			case 2 :
+			case 3 :
+				return this.columnPawnsCount[columnIndex];
+			case 4 :
+			case 5 :
+				return this.forwardTopDiagonalPawnsCount[columnIndex + 7 - rowIndex];
+			default :
+				return this.forwardBottomDiagonalPawnsCount[rowIndex + columnIndex];
+		}
+	}
+	
+	// Gets the bitboard of a player's pawns, built by scanning the mailbox
+	@Override
+	public long getPawns(int playerColor)
+	{
+		long pawns = 0;
+		
+		for(int mailboxIndex = FIRST_MAILBOX_INDEX; mailboxIndex <= LAST_MAILBOX_INDEX; mailboxIndex++)
+		{
+			if(this.mailbox[mailboxIndex] == playerColor)
+			{
+				pawns |= 1L << getSquareIndex(mailboxIndex);
+			}
+		}
+		
+		return pawns;
+	}
+	
+	// Gets the bitboard of all the pawns, built by scanning the mailbox
+	@Override
+	public long getOccupiedSquares()
+	{
+		return this.getPawns(BLACK_PLAYER) | this.getPawns(WHITE_PLAYER);
+	}
+	
+	// Gets the content of a square: BLANK_SQUARE or the color of its pawn
+	@Override
+	public int getSquare(int rowIndex, int columnIndex)
+	{
+		return this.mailbox[(rowIndex + 1) * MAILBOX_ROW_SIZE + columnIndex + 1];
+	}
+	
+	// Gets the neighbours of a square holding a pawn of the player, as 8 bits in the order of Board.getNeighbourhood.
+	// The sentinels never hold a pawn, so the neighbours need no edge tests.
+	@Override
+	public int getNeighbourhood(int playerColor, int square, int excludedSquare)
+	{
+		int mailboxIndex = getMailboxIndex(square);
+		int excludedMailboxIndex = getMailboxIndex(excludedSquare);
+		int neighbourhood = 0;
+		
+		for(int neighbour = 0; neighbour < NEIGHBOUR_OFFSETS.length; neighbour++)
+		{
+			int neighbourMailboxIndex = mailboxIndex + NEIGHBOUR_OFFSETS[neighbour];
+			
+			if(this.mailbox[neighbourMailboxIndex] == playerColor && neighbourMailboxIndex != excludedMailboxIndex)
+			{
+				neighbourhood |= 1 << neighbour;
+			}
+		}
+		
+		return neighbourhood;
+	}
+	
+	// Determines if all the pawns of the player are connected
+	@Override
+	public boolean isWinning(int playerColor)
+	{
+		int connectedPawnsCount = 0;
+		
+		for(int mailboxIndex = FIRST_MAILBOX_INDEX; mailboxIndex <= LAST_MAILBOX_INDEX; mailboxIndex++)
+		{
+			if(this.mailbox[mailboxIndex] == playerColor)
+			{
+				this.nextVisitMark();
+				connectedPawnsCount = this.fillGroup(mailboxIndex, playerColor);
+				break;
+			}
+		}
+		
+		int playerPawnsCount = this.getPawnsCount(playerColor);
+		
+		return playerPawnsCount == connectedPawnsCount;
+	}
+	
+	// Counts the groups of connected pawns of a player
+	@Override
+	public int getGroupsCount(int playerColor)
+	{
+		int groupsCount = 0;
+		
+		this.nextVisitMark();
+		
+		for(int mailboxIndex = FIRST_MAILBOX_INDEX; mailboxIndex <= LAST_MAILBOX_INDEX; mailboxIndex++)
+		{
+			if(this.mailbox[mailboxIndex] == playerColor && this.visitedSquares[mailboxIndex] != this.visitMark)
+			{
+				this.fillGroup(mailboxIndex, playerColor);
+				groupsCount++;
+			}
+		}
+		
+		return groupsCount;
+	}
+	
+	// Gets the number of pawns in the largest group of connected pawns of a player
+	@Override
+	public int getLargestGroupSize(int playerColor)
+	{
+		int largestGroupSize = 0;
+		
+		this.nextVisitMark();
+		
+		for(int mailboxIndex = FIRST_MAILBOX_INDEX; mailboxIndex <= LAST_MAILBOX_INDEX; mailboxIndex++)
+		{
+			if(this.mailbox[mailboxIndex] == playerColor && this.visitedSquares[mailboxIndex] != this.visitMark)
+			{
+				largestGroupSize = Math.max(largestGroupSize, this.fillGroup(mailboxIndex, playerColor));
+			}
+		}
+		
+		return largestGroupSize;
+	}
+	
+	// Gets the mailbox index of the pawn's slide destination in a direction, or SlideTables.NO_DESTINATION if the slide isn't valid.
+	// The walk stops on the first sentinel, so it never leaves the mailbox.
+	private int getSlideDestination(int mailboxIndex, int direction, int playerColor)
+	{
+		int square = getSquareIndex(mailboxIndex);
+		int distance = this.getLinePawnsCount(direction, square >>> 3, square & 7);
+		int offset = DIRECTION_OFFSETS[direction];
+		int opponentColor = (playerColor == BLACK_PLAYER) ? WHITE_PLAYER : BLACK_PLAYER;
+		
+		for(int indexIncrement = 1; indexIncrement < distance; indexIncrement++)
+		{
+			mailboxIndex += offset;
+			
+			if(this.mailbox[mailboxIndex] == opponentColor || this.mailbox[mailboxIndex] == OFF_BOARD_SQUARE)
+			{
+				return SlideTables.NO_DESTINATION;
+			}
+		}
+		
+		mailboxIndex += offset;
+		
+		if(this.mailbox[mailboxIndex] == playerColor || this.mailbox[mailboxIndex] == OFF_BOARD_SQUARE)
+		{
+			return SlideTables.NO_DESTINATION;
+		}
+		
+		return mailboxIndex;
+	}
+	
+	// Marks all the pawns connected to the mailbox index with the current visit mark and returns their number
+	private int fillGroup(int firstMailboxIndex, int playerColor)
+	{
+		int currentPawnIndex = 0;
+		int lastPawnIndex = 1;
+		
+		this.pawnsToVisit[0] = firstMailboxIndex;
+		this.visitedSquares[firstMailboxIndex] = this.visitMark;
+		
+		while(currentPawnIndex < lastPawnIndex)
+		{
+			int pawnMailboxIndex = this.pawnsToVisit[currentPawnIndex];
+			
+			for(int neighbour = 0; neighbour < NEIGHBOUR_OFFSETS.length; neighbour++)
+			{
+				int mailboxIndex = pawnMailboxIndex + NEIGHBOUR_OFFSETS[neighbour];
+				
+				if(this.mailbox[mailboxIndex] == playerColor && this.visitedSquares[mailboxIndex] != this.visitMark)
+				{
+					this.pawnsToVisit[lastPawnIndex] = mailboxIndex;
+					this.visitedSquares[mailboxIndex] = this.visitMark;
+					lastPawnIndex++;
+				}
+			}
+			
+			currentPawnIndex++;
+		}
+		
+		return lastPawnIndex;
+	}
+	
+	// Changes the visit mark so the squares visited by the last fill are considered unvisited
+	private void nextVisitMark()
+	{
+		if(this.visitMark == Integer.MAX_VALUE)
+		{
+			Arrays.fill(this.visitedSquares, 0);
+			this.visitMark = 0;
+		}
+		
+		this.visitMark++;
+	}
+	
+	// Counts the pawns on each row, column and diagonal of the mailbox
+	private void calculatePawnsCount()
+	{
+		this.rowPawnsCount = new int[8];
+		this.columnPawnsCount = new int[8];
+		this.forwardBottomDiagonalPawnsCount = new int[15];
+		this.forwardTopDiagonalPawnsCount = new int[15];
+		
+		for(int mailboxIndex = FIRST_MAILBOX_INDEX; mailboxIndex <= LAST_MAILBOX_INDEX; mailboxIndex++)
+		{
+			if(this.mailbox[mailboxIndex] != BLANK_SQUARE && this.mailbox[mailboxIndex] != OFF_BOARD_SQUARE)
+			{
+				int rowIndex = getSquareIndex(mailboxIndex) >>> 3;
+				int columnIndex = getSquareIndex(mailboxIndex) & 7;
+				
+				this.rowPawnsCount[rowIndex]++;
+				this.columnPawnsCount[columnIndex]++;
+				this.forwardBottomDiagonalPawnsCount[rowIndex + columnIndex]++;
+				this.forwardTopDiagonalPawnsCount[columnIndex + 7 - rowIndex]++;
+			}
+		}
+	}
+	
+	// Updates the pawns on the lines of a packed move once it was made, or unmade if reversed is true
+	private void updatePawnsCount(int packedMove, boolean reversed)
+	{
+		int fromRowIndex = Move.getPackedFromRowIndex(packedMove);
+		int fromColumnIndex = Move.getPackedFromColumnIndex(packedMove);
+		int toRowIndex = Move.getPackedToRowIndex(packedMove);
+		int toColumnIndex = Move.getPackedToColumnIndex(packedMove);
+		
+		// Pawns count of the source increases when the move is reversed and decreases otherwise
+		int increment = reversed ? 1 : -1;
+		
+		this.rowPawnsCount[fromRowIndex] += increment;
+		this.columnPawnsCount[fromColumnIndex] += increment;
+		this.forwardTopDiagonalPawnsCount[fromColumnIndex + 7 - fromRowIndex] += increment;
+		this.forwardBottomDiagonalPawnsCount[fromRowIndex + fromColumnIndex] += increment;
+		
+		// Pawns count of the destination only changes if it didn't hold a captured pawn
+		if(Move.getPackedCapturedSquare(packedMove) == BLANK_SQUARE)
+		{
+			this.rowPawnsCount[toRowIndex] -= increment;
+			this.columnPawnsCount[toColumnIndex] -= increment;
+			this.forwardTopDiagonalPawnsCount[toColumnIndex + 7 - toRowIndex] -= increment;
+			this.forwardBottomDiagonalPawnsCount[toRowIndex + toColumnIndex] -= increment;
+		}
+	}
+	
+	// Converts a square (rowIndex * 8 + columnIndex) to its mailbox index
+	private static int getMailboxIndex(int square)
+	{
+		return ((square >>> 3) + 1) * MAILBOX_ROW_SIZE + (square & 7) + 1;
+	}
+	
+	// Converts a mailbox index to its square (rowIndex * 8 + columnIndex)
+	private static int getSquareIndex(int mailboxIndex)
+	{
+		return (mailboxIndex / MAILBOX_ROW_SIZE - 1) * 8 + mailboxIndex % MAILBOX_ROW_SIZE - 1;
+	}
+}
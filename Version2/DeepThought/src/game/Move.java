@@ -6,6 +6,17 @@ import java.io.StringReader;
 public class Move {
 	private static final int MOVE_STRING_LENGTH = 7;
 	
+	// Packed moves are ints holding the from square (bits 0-5), the to square (bits 6-11),
+	// the moving pawn (bits 12-14) and the captured square value (bits 15-17). A square is rowIndex * 8 + columnIndex.
+	public static final int NO_MOVE = -1;
+	
+	private static final int TO_SQUARE_SHIFT = 6;
+	private static final int PLAYER_COLOR_SHIFT = 12;
+	private static final int CAPTURED_SQUARE_SHIFT = 15;
+	private static final int SQUARE_MASK = 0x3F;
+	private static final int SQUARE_VALUE_MASK = 0x7;
+	private static final int FROM_TO_SQUARES_MASK = 0xFFF;
+	
 	// Position of the square to move
 	private int fromRowIndex;
 	private int fromColumnIndex;
@@ -89,6 +100,80 @@ public class Move {
 		this.overwrittenToSquare = overwrittenToSquare;
 	}
 	
+	// Packs a move into an int
+	public static int pack(int fromRowIndex, int fromColumnIndex, int toRowIndex, int toColumnIndex, int playerColor, int capturedSquare)
+	{
+		return (fromRowIndex * 8 + fromColumnIndex) |
+				((toRowIndex * 8 + toColumnIndex) << TO_SQUARE_SHIFT) |
+				(playerColor << PLAYER_COLOR_SHIFT) |
+				(capturedSquare << CAPTURED_SQUARE_SHIFT);
+	}
+	
+	// Creates a move from its packed representation
+	public static Move unpack(int packedMove)
+	{
+		return new Move(getPackedFromRowIndex(packedMove), getPackedFromColumnIndex(packedMove), 
+				getPackedToRowIndex(packedMove), getPackedToColumnIndex(packedMove), 
+				getPackedPlayerColor(packedMove), getPackedCapturedSquare(packedMove));
+	}
+	
+	// Gets the from square (rowIndex * 8 + columnIndex) of a packed move
+	public static int getPackedFromSquare(int packedMove)
+	{
+		return packedMove & SQUARE_MASK;
+	}
+	
+	// Gets the to square (rowIndex * 8 + columnIndex) of a packed move
+	public static int getPackedToSquare(int packedMove)
+	{
+		return (packedMove >>> TO_SQUARE_SHIFT) & SQUARE_MASK;
+	}
+	
+	public static int getPackedFromRowIndex(int packedMove)
+	{
+		return (packedMove & SQUARE_MASK) >>> 3;
+	}
+	
+	public static int getPackedFromColumnIndex(int packedMove)
+	{
+		return packedMove & 7;
+	}
+	
+	public static int getPackedToRowIndex(int packedMove)
+	{
+		return ((packedMove >>> TO_SQUARE_SHIFT) & SQUARE_MASK) >>> 3;
+	}
+	
+	public static int getPackedToColumnIndex(int packedMove)
+	{
+		return (packedMove >>> TO_SQUARE_SHIFT) & 7;
+	}
+	
+	// Gets the color of the pawn moved by a packed move
+	public static int getPackedPlayerColor(int packedMove)
+	{
+		return (packedMove >>> PLAYER_COLOR_SHIFT) & SQUARE_VALUE_MASK;
+	}
+	
+	// Gets the value of the square captured by a packed move
+	public static int getPackedCapturedSquare(int packedMove)
+	{
+		return (packedMove >>> CAPTURED_SQUARE_SHIFT) & SQUARE_VALUE_MASK;
+	}
+	
+	// Determines if two packed moves move the same squares
+	public static boolean isSamePackedMove(int packedMove, int otherPackedMove)
+	{
+		return packedMove != NO_MOVE && otherPackedMove != NO_MOVE && 
+				(packedMove & FROM_TO_SQUARES_MASK) == (otherPackedMove & FROM_TO_SQUARES_MASK);
+	}
+	
+	// Gets the packed representation of the move
+	public int pack()
+	{
+		return pack(this.fromRowIndex, this.fromColumnIndex, this.toRowIndex, this.toColumnIndex, this.overwrittenFromSquare, this.overwrittenToSquare);
+	}
+	
 	// Gets the row index of the pawn to move
 	public int getFromRowIndex()
 	{
@@ -1,43 +1,192 @@
 package game;
 
+// Orders packed moves to search the ones most likely to produce a cutoff first.
+// Moves are scored by killer moves of the depth, then the counter move of the opponent's previous move,
+// then the history of the cutoffs they produced, and sorted by decreasing score.
 public class MoveOrderer
 {
-	private static final int MAX_DEPTH_LEVEL = 10;
+	public static final int MAX_DEPTH_LEVEL = 64;
 	private static final int NUMBER_KILLER_MOVES_PER_DEPTH = 2;
 	
-	private Move[][] killerMoves;
-
+	// Scores of the moves, killer moves and counter moves always come before the history scores
+	private static final int KILLER_MOVE_SCORE = 1 << 30;
+	private static final int COUNTER_MOVE_SCORE = 1 << 29;
+	private static final int MAX_HISTORY_SCORE = 1 << 28;
+	
+	// Number of from/to squares pairs
+	private static final int FROM_TO_COUNT = 64 * 64;
+	
+	// Killer moves are packed moves, the most recent one is in the first slot
+	private int[][] killerMoves;
+	
+	// History scores and counter moves of each colour, indexed by from/to squares
+	private int[][] historyScores;
+	private int[][] counterMoves;
+	
+	// Scores of the moves being sorted at each depth
+	private int[][] movesScores;
+	
 	public MoveOrderer()
 	{
-		this.killerMoves = new Move[MAX_DEPTH_LEVEL][NUMBER_KILLER_MOVES_PER_DEPTH];
+		this.killerMoves = new int[MAX_DEPTH_LEVEL][NUMBER_KILLER_MOVES_PER_DEPTH];
+		this.historyScores = new int[2][FROM_TO_COUNT];
+		this.counterMoves = new int[2][FROM_TO_COUNT];
+		this.movesScores = new int[MAX_DEPTH_LEVEL][Board.MAX_MOVES];
+		
+		this.resetKillerMoves();
+		this.resetCounterMoves();
+	}
+	
+	public void signalCutoff(int move, int depth)
+	{
+		this.signalCutoff(move, depth, 1, Move.NO_MOVE);
+	}
+	
+	// Remembers a move that produced a cutoff at a depth with remainingDepth plies left to search, in reply to previousMove
+	public void signalCutoff(int move, int depth, int remainingDepth, int previousMove)
+	{
+		// Killer moves
+		if(!Move.isSamePackedMove(move, this.killerMoves[depth][0]))
+		{
+			this.killerMoves[depth][1] = this.killerMoves[depth][0];
+			this.killerMoves[depth][0] = move;
+		}
+		
+		// History, deeper cutoffs prune more so they weigh more
+		int[] colourHistoryScores = this.historyScores[getColourIndex(Move.getPackedPlayerColor(move))];
+		int fromToIndex = getFromToIndex(move);
+		
+		colourHistoryScores[fromToIndex] += remainingDepth * remainingDepth;
+		
+		if(colourHistoryScores[fromToIndex] >= MAX_HISTORY_SCORE)
+		{
+			this.ageHistory();
+		}
+		
+		// Counter move
+		if(previousMove != Move.NO_MOVE)
+		{
+			this.counterMoves[getColourIndex(Move.getPackedPlayerColor(previousMove))][getFromToIndex(previousMove)] = move;
+		}
+	}
+	
+	public void orderMoves(int[] moves, int movesCount, int depth)
+	{
+		this.orderMoves(moves, movesCount, depth, Move.NO_MOVE);
+	}
+	
+	// Sorts the moves of a depth by decreasing score, previousMove being the opponent's move that led to the position
+	public void orderMoves(int[] moves, int movesCount, int depth, int previousMove)
+	{
+		int[] scores = this.movesScores[depth];
+		
+		for(int index = 0; index < movesCount; index++)
+		{
+			scores[index] = this.getMoveScore(moves[index], depth, previousMove);
+		}
+		
+		// Insertion sort, the lists are short and often almost sorted
+		for(int index = 1; index < movesCount; index++)
+		{
+			int move = moves[index];
+			int score = scores[index];
+			int sortedIndex = index - 1;
+			
+			while(sortedIndex >= 0 && scores[sortedIndex] < score)
+			{
+				moves[sortedIndex + 1] = moves[sortedIndex];
+				scores[sortedIndex + 1] = scores[sortedIndex];
+				sortedIndex--;
+			}
+			
+			moves[sortedIndex + 1] = move;
+			scores[sortedIndex + 1] = score;
+		}
 	}
 	
-	public void signalCutoff(Move move, int depth)
+	// Gets the score of a move, higher scores are searched first
+	public int getMoveScore(int move, int depth, int previousMove)
 	{
-		if(!move.isEquals(this.killerMoves[depth][0]) && !move.isEquals(this.killerMoves[depth][1]))
+		if(Move.isSamePackedMove(move, this.killerMoves[depth][0]))
 		{
-			this.killerMoves[depth][0] = this.killerMoves[depth][1];
-			this.killerMoves[depth][1] = move;
+			return KILLER_MOVE_SCORE + 1;
 		}
+		else if(Move.isSamePackedMove(move, this.killerMoves[depth][1]))
+		{
+			return KILLER_MOVE_SCORE;
+		}
+		else if(Move.isSamePackedMove(move, this.getCounterMove(previousMove)))
+		{
+			return COUNTER_MOVE_SCORE;
+		}
+		
+		return this.getHistoryScore(move);
+	}
+	
+	// Gets the history score of a move
+	public int getHistoryScore(int move)
+	{
+		return this.historyScores[getColourIndex(Move.getPackedPlayerColor(move))][getFromToIndex(move)];
 	}
 	
-	public void orderMoves(Move[] moves, int depth)
+	// Gets the move that last refuted a move, or Move.NO_MOVE
+	public int getCounterMove(int previousMove)
 	{
-		int killerMovesFound = 0;
+		if(previousMove == Move.NO_MOVE)
+		{
+			return Move.NO_MOVE;
+		}
 		
-		for(int index = 0; index < moves.length; index++)
+		return this.counterMoves[getColourIndex(Move.getPackedPlayerColor(previousMove))][getFromToIndex(previousMove)];
+	}
+	
+	// Gets a killer move of a depth, slot 0 being the most recent one
+	public int getKillerMove(int depth, int slot)
+	{
+		return this.killerMoves[depth][slot];
+	}
+	
+	// Halves the history scores so the cutoffs of the previous moves weigh less than the new ones
+	public void ageHistory()
+	{
+		for(int colourIndex = 0; colourIndex < 2; colourIndex++)
 		{
-			if(moves[index].isEquals(this.killerMoves[depth][0]) || moves[index].isEquals(this.killerMoves[depth][1]))
+			for(int index = 0; index < FROM_TO_COUNT; index++)
 			{
-				Move moveTemp = moves[killerMovesFound];
-				moves[killerMovesFound] = moves[index];
-				moves[index] = moveTemp;
+				this.historyScores[colourIndex][index] >>= 1;
 			}
 		}
 	}
 	
 	public void resetKillerMoves()
 	{
-		this.killerMoves = new Move[MAX_DEPTH_LEVEL][NUMBER_KILLER_MOVES_PER_DEPTH];
+		for(int depth = 0; depth < MAX_DEPTH_LEVEL; depth++)
+		{
+			for(int index = 0; index < NUMBER_KILLER_MOVES_PER_DEPTH; index++)
+			{
+				this.killerMoves[depth][index] = Move.NO_MOVE;
+			}
+		}
+	}
+	
+	public void resetCounterMoves()
+	{
+		for(int colourIndex = 0; colourIndex < 2; colourIndex++)
+		{
+			for(int index = 0; index < FROM_TO_COUNT; index++)
+			{
+				this.counterMoves[colourIndex][index] = Move.NO_MOVE;
+			}
+		}
+	}
+	
+	private static int getColourIndex(int playerColor)
+	{
+		return (playerColor == Board.BLACK_PLAYER) ? 0 : 1;
+	}
+	
+	private static int getFromToIndex(int move)
+	{
+		return (Move.getPackedFromSquare(move) << 6) | Move.getPackedToSquare(move);
 	}
 }
@@ -0,0 +1,231 @@
+package game;
+
+// Gives the moves of a position one at a time, in stages generated only when the previous stages are exhausted:
+// the hash move, the captures (those connecting to more of the player's pawns first), the killer and counter moves,
+// then the quiet moves by decreasing history score. A cutoff on an early move skips the generation of the later stages.
+public class MovePicker
+{
+	// Stages
+	private static final int FIRST_MOVE_STAGE = 0;
+	private static final int GENERATE_CAPTURES_STAGE = 1;
+	private static final int CAPTURES_STAGE = 2;
+	private static final int KILLER_MOVES_STAGE = 3;
+	private static final int GENERATE_QUIET_MOVES_STAGE = 4;
+	private static final int QUIET_MOVES_STAGE = 5;
+	private static final int DONE_STAGE = 6;
+	
+	// Killer moves of the depth followed by the counter move
+	private static final int KILLER_MOVES_COUNT = 3;
+	
+	private Board board;
+	private MoveOrderer moveOrderer;
+	
+	// Position being searched
+	private int playerColor;
+	private int depth;
+	private int stage;
+	private int firstMove;
+	
+	// Moves of the current stage and their scores
+	private int[] moves;
+	private int[] scores;
+	private int movesCount;
+	private int moveIndex;
+	
+	// Killer and counter moves, checked before being given
+	private int[] killerMoves;
+	private int killerMoveIndex;
+	
+	// Constructor
+	public MovePicker(Board board, MoveOrderer moveOrderer)
+	{
+		this.board = board;
+		this.moveOrderer = moveOrderer;
+		
+		this.moves = new int[Board.MAX_MOVES];
+		this.scores = new int[Board.MAX_MOVES];
+		this.killerMoves = new int[KILLER_MOVES_COUNT];
+		
+		this.stage = DONE_STAGE;
+	}
+	
+	// Starts picking the moves of a player at a depth. The first move (usually the hash move) is given first if it is valid.
+	// previousMove is the opponent's move that led to the position.
+	public void init(int playerColor, int depth, int firstMove, int previousMove)
+	{
+		this.playerColor = playerColor;
+		this.depth = depth;
+		this.stage = FIRST_MOVE_STAGE;
+		this.firstMove = Move.NO_MOVE;
+		
+		if(firstMove != Move.NO_MOVE)
+		{
+			this.firstMove = this.board.getPossibleMove(Move.getPackedFromSquare(firstMove), Move.getPackedToSquare(firstMove), playerColor);
+		}
+		
+		this.killerMoves[0] = this.moveOrderer.getKillerMove(depth, 0);
+		this.killerMoves[1] = this.moveOrderer.getKillerMove(depth, 1);
+		this.killerMoves[2] = this.moveOrderer.getCounterMove(previousMove);
+		this.killerMoveIndex = 0;
+	}
+	
+	// Gets the next packed move to search, or Move.NO_MOVE when all the moves were given.
+	// Each stage moves on to the next one when it is exhausted.
+	public int nextMove()
+	{
+		while(true)
+		{
+			switch(this.stage)
+			{
+				case FIRST_MOVE_STAGE :
+					this.stage = GENERATE_CAPTURES_STAGE;
+					
+					if(this.firstMove != Move.NO_MOVE)
+					{
+						return this.firstMove;
+					}
+					
+					break;
+				
+				case GENERATE_CAPTURES_STAGE :
+					this.movesCount = this.board.generateCaptureMoves(this.playerColor, this.moves);
+					this.moveIndex = 0;
+					this.scoreCaptures();
+					this.stage = CAPTURES_STAGE;
+					break;
+				
+				case CAPTURES_STAGE :
+					while(this.moveIndex < this.movesCount)
+					{
+						int move = this.pickBestMove();
+						
+						if(!Move.isSamePackedMove(move, this.firstMove))
+						{
+							return move;
+						}
+					}
+					
+					this.stage = KILLER_MOVES_STAGE;
+					break;
+				
+				case KILLER_MOVES_STAGE :
+					while(this.killerMoveIndex < KILLER_MOVES_COUNT)
+					{
+						int move = this.getValidKillerMove(this.killerMoveIndex);
+						this.killerMoveIndex++;
+						
+						if(move != Move.NO_MOVE)
+						{
+							return move;
+						}
+					}
+					
+					this.stage = GENERATE_QUIET_MOVES_STAGE;
+					break;
+				
+				case GENERATE_QUIET_MOVES_STAGE :
+					this.movesCount = this.board.generateQuietMoves(this.playerColor, this.moves);
+					this.moveIndex = 0;
+					
+					for(int index = 0; index < this.movesCount; index++)
+					{
+						this.scores[index] = this.moveOrderer.getHistoryScore(this.moves[index]);
+					}
+					
+					this.stage = QUIET_MOVES_STAGE;
+					break;
+				
+				case QUIET_MOVES_STAGE :
+					while(this.moveIndex < this.movesCount)
+					{
+						int move = this.pickBestMove();
+						
+						if(!Move.isSamePackedMove(move, this.firstMove) && !this.isKillerMove(move))
+						{
+							return move;
+						}
+					}
+					
+					this.stage = DONE_STAGE;
+					break;
+				
+				default :
+					return Move.NO_MOVE;
+			}
+		}
+	}
+	
+	// Scores the captures by the number of the player's pawns around the captured square
+	private void scoreCaptures()
+	{
+		for(int index = 0; index < this.movesCount; index++)
+		{
+			int neighbourhood = this.board.getNeighbourhood(this.playerColor, Move.getPackedToSquare(this.moves[index]), Move.getPackedFromSquare(this.moves[index]));
+			
+			this.scores[index] = Integer.bitCount(neighbourhood);
+		}
+	}
+	
+	// Moves the best scored move left at the current index and returns it, so only the given moves are sorted
+	private int pickBestMove()
+	{
+		int bestIndex = this.moveIndex;
+		
+		for(int index = this.moveIndex + 1; index < this.movesCount; index++)
+		{
+			if(this.scores[index] > this.scores[bestIndex])
+			{
+				bestIndex = index;
+			}
+		}
+		
+		int move = this.moves[bestIndex];
+		this.moves[bestIndex] = this.moves[this.moveIndex];
+		this.scores[bestIndex] = this.scores[this.moveIndex];
+		this.moveIndex++;
+		
+		return move;
+	}
+	
+	// Gets a killer or counter move if it is a valid quiet move that wasn't given yet, or Move.NO_MOVE
+	private int getValidKillerMove(int killerIndex)
+	{
+		int killerMove = this.killerMoves[killerIndex];
+		
+		if(killerMove == Move.NO_MOVE || Move.isSamePackedMove(killerMove, this.firstMove))
+		{
+			return Move.NO_MOVE;
+		}
+		
+		for(int index = 0; index < killerIndex; index++)
+		{
+			if(Move.isSamePackedMove(killerMove, this.killerMoves[index]))
+			{
+				return Move.NO_MOVE;
+			}
+		}
+		
+		int move = this.board.getPossibleMove(Move.getPackedFromSquare(killerMove), Move.getPackedToSquare(killerMove), this.playerColor);
+		
+		// Captures were given in their own stage
+		if(move == Move.NO_MOVE || Move.getPackedCapturedSquare(move) != Board.BLANK_SQUARE)
+		{
+			return Move.NO_MOVE;
+		}
+		
+		return move;
+	}
+	
+	private boolean isKillerMove(int move)
+	{
+		for(int index = 0; index < KILLER_MOVES_COUNT; index++)
+		{
+			if(Move.isSamePackedMove(move, this.killerMoves[index]))
+			{
+				return true;
+			}
+		}
+		
+		return false;
+	}
+}
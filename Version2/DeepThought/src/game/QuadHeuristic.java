@@ -3,43 +3,115 @@ package game;
 
 public class QuadHeuristic
 {
+	// Ways of computing the euler numbers
+	public static final int ARRAY_MODE = 0;
+	public static final int BITBOARD_MODE = 1;
+	
+	// Bitboard masks of the quads anchors (top left square of the quads inside the board, and pairs along the edges)
+	private static final long INNER_QUADS_MASK = 0x007F7F7F7F7F7F7FL;
+	private static final long FIRST_ROW_PAIRS_MASK = 0x000000000000007FL;
+	private static final long LAST_ROW_PAIRS_MASK = 0x7F00000000000000L;
+	private static final long FIRST_COLUMN_PAIRS_MASK = 0x0001010101010101L;
+	private static final long LAST_COLUMN_PAIRS_MASK = 0x0080808080808080L;
+	private static final long CORNERS_MASK = 0x8100000000000081L;
+	
+	// Change of the euler number, in quarters, when a pawn is added to a square, indexed by its 8 neighbours bits (see Board.getNeighbourhood)
+	private static final int[] EULER_QUARTERS_DELTAS = new int[256];
+	
+	static
+	{
+		for(int neighbourhood = 0; neighbourhood < 256; neighbourhood++)
+		{
+			boolean[] n = new boolean[8];
+			
+			for(int neighbour = 0; neighbour < 8; neighbour++)
+			{
+				n[neighbour] = (neighbourhood & (1 << neighbour)) != 0;
+			}
+			
+			// The four quads around the square, with and without a pawn on it
+			EULER_QUARTERS_DELTAS[neighbourhood] =
+					getQuadQuarters(n[0], n[1], n[3], true) - getQuadQuarters(n[0], n[1], n[3], false) +
+					getQuadQuarters(n[1], n[2], true, n[4]) - getQuadQuarters(n[1], n[2], false, n[4]) +
+					getQuadQuarters(n[3], true, n[5], n[6]) - getQuadQuarters(n[3], false, n[5], n[6]) +
+					getQuadQuarters(true, n[4], n[6], n[7]) - getQuadQuarters(false, n[4], n[6], n[7]);
+		}
+	}
+	
 	private Board board;
+	private int mode;
 	
 	private float whiteEulerNumber;
 	private float blackEulerNumber;
 	
+	// Constructor. The euler numbers are computed from the board bitboards.
 	public QuadHeuristic(Board board)
+	{
+		this(board, BITBOARD_MODE);
+	}
+	
+	public QuadHeuristic(Board board, int mode)
 	{
 		this.board = board;
+		this.mode = mode;
 		
 		this.calculate();
 	}
 	
+	// Constructor copying the euler numbers of another board's heuristic, for a board holding the same position
+	public QuadHeuristic(Board board, QuadHeuristic quadHeuristic)
+	{
+		this.board = board;
+		
+		this.copyFrom(quadHeuristic);
+	}
+	
+	// Copies the mode and the euler numbers of another heuristic, once its position has been copied on the board
+	public void copyFrom(QuadHeuristic quadHeuristic)
+	{
+		this.mode = quadHeuristic.mode;
+		this.blackEulerNumber = quadHeuristic.blackEulerNumber;
+		this.whiteEulerNumber = quadHeuristic.whiteEulerNumber;
+	}
+	
 	public void update(Move move)
 	{
+		this.update(move.pack(), move.isReversed());
+	}
+	
+	// Updates the euler numbers after a packed move was made, or unmade if reversed is true
+	public void update(int packedMove, boolean reversed)
+	{
+		if(this.mode == BITBOARD_MODE)
+		{
+			this.updateFromBitBoards(packedMove, reversed);
+			return;
+		}
+		
+		// Copy of the squares the move is undone on
 		int[][] squares = this.board.getSquares();
 		
-		int tempFromValue = squares[move.getFromRowIndex()][move.getFromColumnIndex()];
-		int tempToValue = squares[move.getToRowIndex()][move.getToColumnIndex()];
+		int fromRowIndex = Move.getPackedFromRowIndex(packedMove);
+		int fromColumnIndex = Move.getPackedFromColumnIndex(packedMove);
+		int toRowIndex = Move.getPackedToRowIndex(packedMove);
+		int toColumnIndex = Move.getPackedToColumnIndex(packedMove);
+		int overwrittenFromSquare = Move.getPackedPlayerColor(packedMove);
+		int overwrittenToSquare = Move.getPackedCapturedSquare(packedMove);
 		
 		float fromValueBefore = 0;
 		float toValueBefore = 0;
 		float toValueAfter = 0;
 		
 		// Calculates quads value before moving the pawn
-		squares[move.getFromRowIndex()][move.getFromColumnIndex()] = move.getOverwrittenFromSquare();
-		squares[move.getToRowIndex()][move.getToColumnIndex()] = move.getOverwrittenToSquare();
-		
-		fromValueBefore = this.getPawnQuadsValue(move.getFromRowIndex(), move.getFromColumnIndex(), move.getOverwrittenFromSquare(), squares);
-		toValueBefore = this.getPawnQuadsValue(move.getToRowIndex(), move.getToColumnIndex(), move.getOverwrittenToSquare(), squares);
-		toValueAfter = this.getPawnQuadsValue(move.getToRowIndex(), move.getToColumnIndex(), move.getOverwrittenFromSquare(), squares);
+		squares[fromRowIndex][fromColumnIndex] = overwrittenFromSquare;
+		squares[toRowIndex][toColumnIndex] = overwrittenToSquare;
 		
-		// Resets squares value
-		squares[move.getFromRowIndex()][move.getFromColumnIndex()] = tempFromValue;
-		squares[move.getToRowIndex()][move.getToColumnIndex()] = tempToValue;
+		fromValueBefore = this.getPawnQuadsValue(fromRowIndex, fromColumnIndex, overwrittenFromSquare, squares);
+		toValueBefore = this.getPawnQuadsValue(toRowIndex, toColumnIndex, overwrittenToSquare, squares);
+		toValueAfter = this.getPawnQuadsValue(toRowIndex, toColumnIndex, overwrittenFromSquare, squares);
 		
 		// Changes euler number values
-		if(move.isReversed())
+		if(reversed)
 		{
 			fromValueBefore *= -1;
 			toValueBefore *= -1;
@@ -49,7 +121,7 @@ public class QuadHeuristic
 			toValueAfter *= -1;
 		}
 		
-		if(move.getOverwrittenFromSquare() == Board.BLACK_PLAYER)
+		if(overwrittenFromSquare == Board.BLACK_PLAYER)
 		{
 			this.blackEulerNumber -= fromValueBefore + toValueAfter;
 			this.whiteEulerNumber -= toValueBefore;
@@ -145,8 +217,122 @@ public class QuadHeuristic
 		return value - lines * 0.5f + 1;
 	}
 	
+	// Updates the euler numbers from the four quads around the from and to squares, with the neighbourhoods given by the board
+	private void updateFromBitBoards(int packedMove, boolean reversed)
+	{
+		int playerColor = Move.getPackedPlayerColor(packedMove);
+		int playerQuarters = this.getPlayerEulerQuartersDelta(packedMove);
+		int opponentQuarters = this.getOpponentEulerQuartersDelta(packedMove);
+		
+		if(reversed)
+		{
+			playerQuarters = -playerQuarters;
+			opponentQuarters = -opponentQuarters;
+		}
+		
+		if(playerColor == Board.BLACK_PLAYER)
+		{
+			this.blackEulerNumber += playerQuarters * 0.25f;
+			this.whiteEulerNumber += opponentQuarters * 0.25f;
+		}
+		else
+		{
+			this.whiteEulerNumber += playerQuarters * 0.25f;
+			this.blackEulerNumber += opponentQuarters * 0.25f;
+		}
+	}
+	
+	// Gets the change of the euler number of the player making a packed move. The result is the same before and after the move.
+	public float getPlayerEulerDelta(int packedMove)
+	{
+		return this.getPlayerEulerQuartersDelta(packedMove) * 0.25f;
+	}
+	
+	// Gets the change of the euler number of the opponent of the player making a packed move, which only changes with captures
+	public float getOpponentEulerDelta(int packedMove)
+	{
+		return this.getOpponentEulerQuartersDelta(packedMove) * 0.25f;
+	}
+	
+	private int getPlayerEulerQuartersDelta(int packedMove)
+	{
+		int fromSquare = Move.getPackedFromSquare(packedMove);
+		int toSquare = Move.getPackedToSquare(packedMove);
+		
+		int playerColor = Move.getPackedPlayerColor(packedMove);
+		
+		// The moving pawn is removed from its square then added to the other one, among the other pawns of the player
+		return EULER_QUARTERS_DELTAS[this.board.getNeighbourhood(playerColor, toSquare, fromSquare)] -
+				EULER_QUARTERS_DELTAS[this.board.getNeighbourhood(playerColor, fromSquare, toSquare)];
+	}
+	
+	private int getOpponentEulerQuartersDelta(int packedMove)
+	{
+		if(Move.getPackedCapturedSquare(packedMove) == Board.BLANK_SQUARE)
+		{
+			return 0;
+		}
+		
+		int toSquare = Move.getPackedToSquare(packedMove);
+		
+		return -EULER_QUARTERS_DELTAS[this.board.getNeighbourhood(Move.getPackedCapturedSquare(packedMove), toSquare, toSquare)];
+	}
+	
+	// Gets the euler number of a quad in quarters: Q1 quads count 1, Q3 quads -1 and diagonal quads -2
+	private static int getQuadQuarters(boolean topLeft, boolean topRight, boolean bottomLeft, boolean bottomRight)
+	{
+		int pawnsCount = (topLeft ? 1 : 0) + (topRight ? 1 : 0) + (bottomLeft ? 1 : 0) + (bottomRight ? 1 : 0);
+		
+		if(pawnsCount == 1)
+		{
+			return 1;
+		}
+		else if(pawnsCount == 3)
+		{
+			return -1;
+		}
+		else if(pawnsCount == 2 && topLeft == bottomRight)
+		{
+			return -2;
+		}
+		
+		return 0;
+	}
+	
+	// Gets the euler number of a player's pawns, in quarters, by counting the Q1, Q3 and diagonal quads with shifted bitboards
+	private static int getEulerQuarters(long pawns)
+	{
+		// Squares of the quads anchored on each bit
+		long topLeft = pawns;
+		long topRight = pawns >>> 1;
+		long bottomLeft = pawns >>> 8;
+		long bottomRight = pawns >>> 9;
+		
+		long oddQuads = (topLeft ^ topRight ^ bottomLeft ^ bottomRight) & INNER_QUADS_MASK;
+		long fullPairs = (topLeft & topRight) | (bottomLeft & bottomRight);
+		long diagonalQuads = ((topLeft & bottomRight & ~topRight & ~bottomLeft) | (topRight & bottomLeft & ~topLeft & ~bottomRight)) & INNER_QUADS_MASK;
+		
+		int q1Count = Long.bitCount(oddQuads & ~fullPairs);
+		int q3Count = Long.bitCount(oddQuads & fullPairs);
+		int qdCount = Long.bitCount(diagonalQuads);
+		
+		// Quads overlapping the edges hold two squares of the board, or one in the corners, so they are Q1 quads when only one is taken
+		q1Count += Long.bitCount((pawns ^ (pawns >>> 1)) & (FIRST_ROW_PAIRS_MASK | LAST_ROW_PAIRS_MASK));
+		q1Count += Long.bitCount((pawns ^ (pawns >>> 8)) & (FIRST_COLUMN_PAIRS_MASK | LAST_COLUMN_PAIRS_MASK));
+		q1Count += Long.bitCount(pawns & CORNERS_MASK);
+		
+		return q1Count - q3Count - 2 * qdCount;
+	}
+	
 	public void calculate()
 	{
+		if(this.mode == BITBOARD_MODE)
+		{
+			this.blackEulerNumber = getEulerQuarters(this.board.getPawns(Board.BLACK_PLAYER)) * 0.25f;
+			this.whiteEulerNumber = getEulerQuarters(this.board.getPawns(Board.WHITE_PLAYER)) * 0.25f;
+			return;
+		}
+		
 		this.blackEulerNumber = 0;
 		this.whiteEulerNumber = 0;
 		
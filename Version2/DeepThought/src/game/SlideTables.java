@@ -0,0 +1,62 @@
+package game;
+
+// Precalculated destinations and paths of every slide, indexed by (square, direction, distance).
+// A slide is legal when its destination exists, isn't a pawn of the player and its path holds no opponent pawn.
+public class SlideTables
+{
+	public static final int NO_DESTINATION = -1;
+	
+	// A line holds up to 8 pawns, so slides go from 0 to 8 squares
+	private static final int DISTANCES_COUNT = 9;
+	
+	private static final int[] DESTINATIONS = new int[64 * Board.DIRECTIONS_COUNT * DISTANCES_COUNT];
+	private static final long[] PATHS = new long[64 * Board.DIRECTIONS_COUNT * DISTANCES_COUNT];
+	
+	static
+	{
+		for(int square = 0; square < 64; square++)
+		{
+			for(int direction = 0; direction < Board.DIRECTIONS_COUNT; direction++)
+			{
+				long path = 0;
+				
+				for(int distance = 0; distance < DISTANCES_COUNT; distance++)
+				{
+					int toRowIndex = (square >>> 3) + Board.DIRECTION_ROW_INCREMENTS[direction] * distance;
+					int toColumnIndex = (square & 7) + Board.DIRECTION_COLUMN_INCREMENTS[direction] * distance;
+					int index = getIndex(square, direction, distance);
+					
+					if(distance > 0 && ((toRowIndex | toColumnIndex) & ~7) == 0)
+					{
+						DESTINATIONS[index] = toRowIndex * 8 + toColumnIndex;
+						PATHS[index] = path;
+						
+						path |= 1L << DESTINATIONS[index];
+					}
+					else
+					{
+						DESTINATIONS[index] = NO_DESTINATION;
+					}
+				}
+			}
+		}
+	}
+	
+	// Gets the index of a slide in the tables, for a distance from 0 to 8
+	public static int getIndex(int square, int direction, int distance)
+	{
+		return (square * Board.DIRECTIONS_COUNT + direction) * DISTANCES_COUNT + distance;
+	}
+	
+	// Gets the square reached by a slide, or NO_DESTINATION if the slide leaves the board
+	public static int getDestination(int slideIndex)
+	{
+		return DESTINATIONS[slideIndex];
+	}
+	
+	// Gets the squares crossed by a slide, excluding its origin and destination
+	public static long getPath(int slideIndex)
+	{
+		return PATHS[slideIndex];
+	}
+}
@@ -0,0 +1,40 @@
+package game;
+
+import java.util.Random;
+
+// Random keys used to hash the board positions (Zobrist hashing)
+public class ZobristKeys
+{
+	// Fixed seed so the keys are the same between executions
+	private static final long SEED = 320L;
+	
+	private static final long[][] PAWN_KEYS = new long[2][64];
+	private static final long WHITE_TO_PLAY_KEY;
+	
+	static
+	{
+		Random random = new Random(SEED);
+		
+		for(int playerIndex = 0; playerIndex < 2; playerIndex++)
+		{
+			for(int square = 0; square < 64; square++)
+			{
+				PAWN_KEYS[playerIndex][square] = random.nextLong();
+			}
+		}
+		
+		WHITE_TO_PLAY_KEY = random.nextLong();
+	}
+	
+	// Gets the key of a player's pawn on a square
+	public static long getPawnKey(int playerColor, int rowIndex, int columnIndex)
+	{
+		return PAWN_KEYS[(playerColor == Board.BLACK_PLAYER) ? 0 : 1][rowIndex * 8 + columnIndex];
+	}
+	
+	// Gets the key that is present when white is the next player to play
+	public static long getWhiteToPlayKey()
+	{
+		return WHITE_TO_PLAY_KEY;
+	}
+}
@@ -1,38 +1,65 @@
 import ai.DeepThought;
+import ai.LazySmpThought;
+import ai.MctsThought;
+import ai.NegamaxThought;
+import ai.Player;
+import ai.YbwcThought;
 import game.Board;
 import game.Move;
 import game.QuadHeuristic;
 
+import java.util.Arrays;
+import java.util.Random;
+
 
 public class main {
 	
-	public static void main(String[] args) {
-		
-		// TODO Auto-generated method stub
-		int[][] squares = new int[][] {
-				{0,2,2,2,2,2,2,0},
-				{4,0,0,0,0,0,0,4},
-				{4,0,0,0,0,0,0,4},
-				{4,0,0,0,0,0,0,4},
-				{4,0,0,0,0,0,0,4},
-				{4,0,0,0,0,0,0,4},
-				{4,0,0,0,0,0,0,4},
-				{0,2,2,2,2,2,2,0},
-		};
+	// Search engines that can play a match, see createPlayer
+	private static final String[] PLAYER_NAMES = new String[] {"deepthought", "deepthought-no-quiescence", "negamax", "negamax-no-pruning", "mcts", "lazysmp", "ybwc"};
+	
+	public static void main(String[] args) throws InterruptedException {
 		
-		Board board = new Board(squares);
-		DeepThought ai = new DeepThought(board, 2);
+		// "parallel [depth]" only measures the speedup of DeepThought's parallel root search, to run on the machine playing the games
+		if(args.length > 0 && args[0].equals("parallel"))
+		{
+			benchmarkParallelSearch((args.length > 1) ? Integer.parseInt(args[1]) : 6, new int[] {1, 2, 4, 8, 16});
+			return;
+		}
 		
-		for(int i=0; i < 2; i++)
+		// "match <player> <player> [games] [ms per move]" plays games between two search engines and prints the score
+		if(args.length > 2 && args[0].equals("match"))
 		{
-		long startNano = System.nanoTime();
+			playMatch(args[1], args[2], (args.length > 3) ? Integer.parseInt(args[3]) : 10, (args.length > 4) ? Long.parseLong(args[4]) : 1000);
+			return;
+		}
 		
-		//Move move = ai.findBestMove();
+		// Compares the board engines on the same random games. Each engine keeps the position in its own storage only:
+		// the squares array, the bitboards or the mailbox.
+		benchmarkBoard("Array", Board.ARRAY_BOARD);
+		benchmarkBoard("Bitboard", Board.BIT_BOARD);
+		benchmarkBoard("Mailbox", Board.MAILBOX_BOARD);
 		
-		long endNano = System.nanoTime();
+		// Compares the nodes visited by the search engines in the same time
+		Board deepThoughtBoard = createInitialBoard(Board.BIT_BOARD);
+		benchmarkPlayer("DeepThought", new DeepThought(deepThoughtBoard, Board.BLACK_PLAYER));
+		Board negamaxBoard = createInitialBoard(Board.BIT_BOARD);
+		benchmarkPlayer("Negamax", new NegamaxThought(negamaxBoard, Board.BLACK_PLAYER));
+		Board noPruningBoard = createInitialBoard(Board.BIT_BOARD);
+		benchmarkPlayer("Negamax without late move reductions and null move pruning", createPlayer("negamax-no-pruning", noPruningBoard, Board.BLACK_PLAYER));
+		Board mctsBoard = createInitialBoard(Board.BIT_BOARD);
+		benchmarkPlayer("MCTS", new MctsThought(mctsBoard, Board.BLACK_PLAYER));
 		
-		System.out.println("Took : " + (double)(endNano - startNano) / 1000000000.0);
-		}
+		// Compares the parallel search engines in the same time, with one thread per available processor
+		Board lazySmpBoard = createInitialBoard(Board.BIT_BOARD);
+		benchmarkPlayer("Lazy SMP", new LazySmpThought(lazySmpBoard, Board.BLACK_PLAYER));
+		Board ybwcBoard = createInitialBoard(Board.BIT_BOARD);
+		benchmarkPlayer("YBWC", new YbwcThought(ybwcBoard, Board.BLACK_PLAYER));
+		MctsThought parallelMcts = new MctsThought(createInitialBoard(Board.BIT_BOARD), Board.BLACK_PLAYER);
+		parallelMcts.setThreadsCount(Runtime.getRuntime().availableProcessors());
+		benchmarkPlayer("Root parallel MCTS", parallelMcts);
+		
+		// Measures the speedup of DeepThought's parallel root search
+		benchmarkParallelSearch(6, new int[] {1, 2, 4, 8, 16});
 		
 		/*
 		int[][] squares = new int[][] {
@@ -60,4 +87,292 @@ public class main {
 		System.out.println("Took : " + (double)(endNano - startNano) / 1000000000.0);
 		*/
 	}
+	
+	// Measures move generation, make/unmake and win detection on random games played with the same seed
+	private static void benchmarkBoard(String name, int boardType)
+	{
+		final int gamesCount = 20000;
+		int[] moves = new int[Board.MAX_MOVES];
+		int[] playedMoves = new int[200];
+		
+		// The first half of the games lets the JIT compile the board, the second half is measured
+		for(int pass = 0; pass < 2; pass++)
+		{
+			Random random = new Random(320);
+			long startNano = System.nanoTime();
+			
+			for(int gameIndex = 0; gameIndex < gamesCount; gameIndex++)
+			{
+				Board board = createInitialBoard(boardType);
+				
+				int playerColor = Board.BLACK_PLAYER;
+				int playedMovesCount = 0;
+				
+				while(playedMovesCount < playedMoves.length && !board.isWinning(Board.BLACK_PLAYER) && !board.isWinning(Board.WHITE_PLAYER))
+				{
+					int movesCount = board.generatePossibleMoves(playerColor, moves);
+					
+					if(movesCount == 0)
+					{
+						break;
+					}
+					
+					playedMoves[playedMovesCount] = moves[random.nextInt(movesCount)];
+					board.makeMove(playedMoves[playedMovesCount]);
+					playedMovesCount++;
+					
+					playerColor = (playerColor == Board.BLACK_PLAYER) ? Board.WHITE_PLAYER : Board.BLACK_PLAYER;
+				}
+				
+				while(playedMovesCount > 0)
+				{
+					playedMovesCount--;
+					board.unmakeMove(playedMoves[playedMovesCount]);
+				}
+			}
+			
+			long endNano = System.nanoTime();
+			
+			if(pass == 1)
+			{
+				System.out.println(name + " board took : " + (double)(endNano - startNano) / 1000000000.0 + " s for " + gamesCount + " games");
+			}
+		}
+	}
+	
+	// Lets a search engine search the initial position for 3 seconds, its iterations print the nodes visited at each depth
+	private static void benchmarkPlayer(String name, Player player) throws InterruptedException
+	{
+		player.setDeadline(System.nanoTime() + 3000 * 1000000L);
+		player.searchBestMove();
+		
+		System.out.println(name + " visited " + player.getNodesCount() + " nodes and played " + player.getBestMoveFound());
+	}
+	
+	// Lets DeepThought search the initial position up to the same depth with each number of threads and prints the speedup curve.
+	// Each thread count keeps its best time of a few runs. A speedup is only measured up to the number of available processors,
+	// past it the table only shows the cost of the extra threads.
+	private static void benchmarkParallelSearch(int depth, int[] threadsCounts) throws InterruptedException
+	{
+		final int runsCount = 3;
+		int processorsCount = Runtime.getRuntime().availableProcessors();
+		double[] times = new double[threadsCounts.length];
+		long[] nodesCounts = new long[threadsCounts.length];
+		Move[] playedMoves = new Move[threadsCounts.length];
+		
+		for(int index = 0; index < threadsCounts.length; index++)
+		{
+			times[index] = Double.MAX_VALUE;
+			
+			for(int run = 0; run < runsCount; run++)
+			{
+				DeepThought deepThought = new DeepThought(createInitialBoard(Board.BIT_BOARD), Board.BLACK_PLAYER);
+				deepThought.setThreadsCount(threadsCounts[index]);
+				deepThought.setMaxSearchDepth(depth);
+				
+				long startNano = System.nanoTime();
+				deepThought.searchBestMove();
+				double time = (double)(System.nanoTime() - startNano) / 1000000000.0;
+				
+				if(time < times[index])
+				{
+					times[index] = time;
+					nodesCounts[index] = deepThought.getNodesCount();
+					playedMoves[index] = deepThought.getBestMoveFound();
+				}
+				
+				// Stops the threads of the pool
+				deepThought.setThreadsCount(1);
+			}
+		}
+		
+		System.out.println("DeepThought parallel root search, depth " + depth + ", available processors: " + processorsCount);
+		System.out.println("threads\ttime (s)\tspeedup\tefficiency\tnodes\tmove");
+		
+		for(int index = 0; index < threadsCounts.length; index++)
+		{
+			double speedup = times[0] / times[index];
+			
+			System.out.println(threadsCounts[index] + "\t" + String.format("%.3f", times[index]) + "\t" + String.format("%.2f", speedup) + "\t" +
+					String.format("%.2f", speedup / threadsCounts[index]) + "\t" + nodesCounts[index] + "\t" + playedMoves[index] +
+					((threadsCounts[index] > processorsCount) ? "\t(more threads than processors, not a speedup)" : ""));
+		}
+	}
+	
+	// Plays games between two search engines, each with the same time per move. The searches are deterministic, so the games
+	// start from random openings, and each opening is played twice with the colours swapped.
+	private static void playMatch(String firstPlayerName, String secondPlayerName, int gamesCount, long moveTime) throws InterruptedException
+	{
+		int firstPlayerWinsCount = 0;
+		int secondPlayerWinsCount = 0;
+		int drawsCount = 0;
+		
+		if(!Arrays.asList(PLAYER_NAMES).contains(firstPlayerName) || !Arrays.asList(PLAYER_NAMES).contains(secondPlayerName))
+		{
+			System.err.println("Error, the players can be: " + Arrays.toString(PLAYER_NAMES));
+			return;
+		}
+		
+		String[] results = new String[gamesCount];
+		
+		for(int gameIndex = 0; gameIndex < gamesCount; gameIndex++)
+		{
+			boolean firstPlayerIsBlack = (gameIndex % 2 == 0);
+			String blackPlayerName = firstPlayerIsBlack ? firstPlayerName : secondPlayerName;
+			String whitePlayerName = firstPlayerIsBlack ? secondPlayerName : firstPlayerName;
+			
+			int winnerColor = playGame(blackPlayerName, whitePlayerName, new Random(gameIndex / 2), moveTime);
+			
+			if(winnerColor == Board.BLANK_SQUARE)
+			{
+				drawsCount++;
+				results[gameIndex] = "draw";
+			}
+			else if((winnerColor == Board.BLACK_PLAYER) == firstPlayerIsBlack)
+			{
+				firstPlayerWinsCount++;
+				results[gameIndex] = firstPlayerName + " wins";
+			}
+			else
+			{
+				secondPlayerWinsCount++;
+				results[gameIndex] = secondPlayerName + " wins";
+			}
+			
+			System.out.println("Game " + (gameIndex + 1) + ", " + blackPlayerName + " (black) against " + whitePlayerName + " (white): " + results[gameIndex]);
+		}
+		
+		System.out.println("Match, " + moveTime + " ms per move:");
+		
+		for(int gameIndex = 0; gameIndex < gamesCount; gameIndex++)
+		{
+			System.out.println("Game " + (gameIndex + 1) + ": " + results[gameIndex]);
+		}
+		
+		System.out.println(firstPlayerName + " " + firstPlayerWinsCount + " - " + secondPlayerWinsCount + " " + secondPlayerName + ", " + drawsCount + " draws");
+	}
+	
+	// Plays a game from a random opening and returns the colour of the winner, or Board.BLANK_SQUARE for a draw.
+	// A player without moves passes, and a player playing an invalid move or no move loses.
+	private static int playGame(String blackPlayerName, String whitePlayerName, Random random, long moveTime) throws InterruptedException
+	{
+		final int openingPliesCount = 4;
+		final int maxPliesCount = 200;
+		
+		Board board = createInitialBoard(Board.BIT_BOARD);
+		int[] moves = new int[Board.MAX_MOVES];
+		int playerColor = Board.BLACK_PLAYER;
+		
+		for(int ply = 0; ply < openingPliesCount; ply++)
+		{
+			board.makeMove(moves[random.nextInt(board.generatePossibleMoves(playerColor, moves))]);
+			playerColor = (playerColor == Board.BLACK_PLAYER) ? Board.WHITE_PLAYER : Board.BLACK_PLAYER;
+		}
+		
+		// Both engines search the same board, each leaves it as it found it
+		Player blackPlayer = createPlayer(blackPlayerName, board, Board.BLACK_PLAYER);
+		Player whitePlayer = createPlayer(whitePlayerName, board, Board.WHITE_PLAYER);
+		
+		for(int ply = openingPliesCount; ply < maxPliesCount; ply++)
+		{
+			int opponentColor = (playerColor == Board.BLACK_PLAYER) ? Board.WHITE_PLAYER : Board.BLACK_PLAYER;
+			
+			if(board.generatePossibleMoves(playerColor, moves) == 0)
+			{
+				board.setPlayerToPlay(opponentColor);
+				playerColor = opponentColor;
+				continue;
+			}
+			
+			Player player = (playerColor == Board.BLACK_PLAYER) ? blackPlayer : whitePlayer;
+			player.setDeadline(System.nanoTime() + moveTime * 1000000L);
+			player.searchBestMove();
+			
+			Move move = player.getBestMoveFound();
+			int packedMove = Move.NO_MOVE;
+			
+			if(move != null)
+			{
+				packedMove = board.getPossibleMove(move.getFromRowIndex() * 8 + move.getFromColumnIndex(), move.getToRowIndex() * 8 + move.getToColumnIndex(), playerColor);
+			}
+			
+			if(packedMove == Move.NO_MOVE)
+			{
+				System.out.println("Invalid move played by " + ((playerColor == Board.BLACK_PLAYER) ? blackPlayerName : whitePlayerName) + ": " + move);
+				return opponentColor;
+			}
+			
+			board.makeMove(packedMove);
+			
+			// A move connecting the pawns of both players wins for the player making it
+			if(board.isWinning(playerColor))
+			{
+				return playerColor;
+			}
+			else if(board.isWinning(opponentColor))
+			{
+				return opponentColor;
+			}
+			
+			playerColor = opponentColor;
+		}
+		
+		return Board.BLANK_SQUARE;
+	}
+	
+	// Creates a search engine from one of the PLAYER_NAMES, or null if the name is unknown
+	private static Player createPlayer(String name, Board board, int playerColor)
+	{
+		if(name.equals("deepthought"))
+		{
+			return new DeepThought(board, playerColor);
+		}
+		else if(name.equals("deepthought-no-quiescence"))
+		{
+			DeepThought deepThought = new DeepThought(board, playerColor);
+			deepThought.setQuiescenceSearch(false);
+			
+			return deepThought;
+		}
+		else if(name.equals("negamax"))
+		{
+			return new NegamaxThought(board, playerColor);
+		}
+		else if(name.equals("negamax-no-pruning"))
+		{
+			NegamaxThought negamaxThought = new NegamaxThought(board, playerColor);
+			negamaxThought.setLateMoveReductions(false, 0, 0);
+			negamaxThought.setNullMovePruning(false, 0);
+			
+			return negamaxThought;
+		}
+		else if(name.equals("mcts"))
+		{
+			return new MctsThought(board, playerColor);
+		}
+		else if(name.equals("lazysmp"))
+		{
+			return new LazySmpThought(board, playerColor);
+		}
+		else if(name.equals("ybwc"))
+		{
+			return new YbwcThought(board, playerColor);
+		}
+		
+		return null;
+	}
+	
+	private static Board createInitialBoard(int boardType)
+	{
+		return Board.createBoard(new int[][] {
+				{0,2,2,2,2,2,2,0},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{0,2,2,2,2,2,2,0},
+		}, boardType);
+	}
 }
@@ -1,11 +1,24 @@
 package server;
 
 import game.Board;
+import game.CentralizationHeuristic;
 import game.Move;
 import ai.DeepThought;
+import ai.LazySmpThought;
+import ai.MctsThought;
+import ai.NegamaxThought;
+import ai.Player;
+import ai.YbwcThought;
 
 import java.io.IOException;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public class MessageDispatcher {
 	// Server settings
@@ -18,32 +31,64 @@ public class MessageDispatcher {
 	private static final char NEXT_MOVE_MSG = '3';
 	private static final char INVALID_MOVE_MSG = '4';
 	
+	// Search times in milliseconds. A search late to stop at its deadline is stopped after SEARCH_STOP_WAIT_TIME more.
 	private static final int SEARCH_BEST_MOVE_TIME = 4700;
+	private static final int WARM_UP_SEARCH_TIME = 3000;
+	private static final int SEARCH_STOP_WAIT_TIME = 100;
+	
+	// Board engine used by the player
+	private static final int BOARD_TYPE = Board.BIT_BOARD;
+	
+	// Search engines
+	private static final int DEEPTHOUGHT_PLAYER = 0;
+	private static final int NEGAMAX_PLAYER = 1;
+	private static final int MCTS_PLAYER = 2;
+	private static final int LAZY_SMP_PLAYER = 3;
+	private static final int YBWC_PLAYER = 4;
+	
+	// Search engine used by the player
+	private static final int PLAYER_TYPE = NEGAMAX_PLAYER;
+	
+	// Number of threads searching with the parallel engines
+	private static final int SEARCH_THREADS_COUNT = Runtime.getRuntime().availableProcessors();
+	
+	// Thread running the searches one after the other
+	private static final ExecutorService SEARCH_EXECUTOR = Executors.newSingleThreadExecutor();
 	
 	private Client client;
 	private Board board;
-	private DeepThought player;
+	private Player player;
 	private int playerColor;
 	
 	public static void main(String[] args) throws IOException, InterruptedException {
-		warmUp();
-		
-		Client client = Client.connectClient(SERVER_HOST, SERVER_PORT);
-				
-		// Connection to the server has been established
-		if(client != null)
+		// The centralization piece-square tables can be tuned in a file given as first argument
+		if(args.length > 0)
 		{
-			MessageDispatcher dispatcher = new MessageDispatcher(client);
+			CentralizationHeuristic.loadSquareValues(args[0]);
+		}
+		
+		try {
+			warmUp();
 			
-			// Iterates while the game is not finished
-			while(dispatcher.nextMessage());
+			Client client = Client.connectClient(SERVER_HOST, SERVER_PORT);
+			
+			// Connection to the server has been established
+			if(client != null)
+			{
+				MessageDispatcher dispatcher = new MessageDispatcher(client);
+				
+				// Iterates while the game is not finished
+				while(dispatcher.nextMessage());
+			}
+		} finally {
+			SEARCH_EXECUTOR.shutdownNow();
 		}
 	}
 	
 	// Executes a quick search to let JIT optimized frequent functions
 	public static void warmUp() throws InterruptedException
 	{
-		Board board = new Board(new int[][] {
+		Board board = Board.createBoard(new int[][] {
 				{0,2,2,2,2,2,2,0},
 				{4,0,0,0,0,0,0,4},
 				{4,0,0,0,0,0,0,4},
@@ -52,14 +97,70 @@ public class MessageDispatcher {
 				{4,0,0,0,0,0,0,4},
 				{4,0,0,0,0,0,0,4},
 				{0,2,2,2,2,2,2,0},
+		}, BOARD_TYPE);
+		
+		Player ai = createPlayer(board, 2);
+		searchBestMove(ai, WARM_UP_SEARCH_TIME);
+	}
+	
+	// Searches the best move with the player until timeLimit milliseconds are spent. The search stops by itself at its deadline,
+	// or sooner when it finds a forced result, and gives its best move back through a future.
+	// Returns once the search stopped using the player's board, with null if it found no move.
+	private static Move searchBestMove(final Player player, long timeLimit) throws InterruptedException
+	{
+		player.setDeadline(System.nanoTime() + timeLimit * 1000000L);
+		
+		Future<Move> searchResult = SEARCH_EXECUTOR.submit(new Callable<Move>() {
+			@Override
+			public Move call() throws InterruptedException {
+				player.searchBestMove();
+				return player.getBestMoveFound();
+			}
 		});
 		
-		DeepThought ai = new DeepThought(board, 2);
+		try {
+			try {
+				return searchResult.get(timeLimit + SEARCH_STOP_WAIT_TIME, TimeUnit.MILLISECONDS);
+			} catch (TimeoutException e) {
+				System.out.println("Warning: the search missed its deadline");
+				player.stopSearchBestMove();
+				
+				// The search makes and unmakes moves on the board until it returns
+				return searchResult.get();
+			}
+		} catch (ExecutionException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+	
+	// Creates the search engine selected by PLAYER_TYPE
+	private static Player createPlayer(Board board, int playerColor)
+	{
+		if(PLAYER_TYPE == NEGAMAX_PLAYER)
+		{
+			return new NegamaxThought(board, playerColor);
+		}
+		else if(PLAYER_TYPE == MCTS_PLAYER)
+		{
+			MctsThought mctsThought = new MctsThought(board, playerColor);
+			mctsThought.setThreadsCount(SEARCH_THREADS_COUNT);
+			
+			return mctsThought;
+		}
+		else if(PLAYER_TYPE == LAZY_SMP_PLAYER)
+		{
+			return new LazySmpThought(board, playerColor, SEARCH_THREADS_COUNT);
+		}
+		else if(PLAYER_TYPE == YBWC_PLAYER)
+		{
+			return new YbwcThought(board, playerColor, SEARCH_THREADS_COUNT);
+		}
 		
-		Thread searchThread = new Thread(ai);
-		searchThread.start();
-		Thread.sleep(3000);
-		ai.stopSearchBestMove();
+		DeepThought deepThought = new DeepThought(board, playerColor);
+		deepThought.setThreadsCount(SEARCH_THREADS_COUNT);
+		
+		return deepThought;
 	}
 	
 	// Constructor
@@ -129,24 +230,30 @@ public class MessageDispatcher {
 	{
 		System.out.println("Invalid Move has been called");
 		
+		this.client.sendOutputs(this.getRandomMove().toString().getBytes());
+	}
+	
+	// Gets one of the legal moves of the player at random
+	private Move getRandomMove()
+	{
 		Move[] moves = this.board.getPossibleMoves(this.playerColor);
 		
 		Random random = new Random(System.nanoTime());
-		this.client.sendOutputs(moves[random.nextInt(moves.length)].toString().getBytes());
+		return moves[random.nextInt(moves.length)];
 	}
 	
 	private void playNextMove() throws IOException, InterruptedException
-	{		
-		// Starts the search
-		Thread searchThread = new Thread(this.player);
-		searchThread.start();
+	{
+		// Plays the best move found in the time given. The search ends sooner when a forced connection is found.
+		Move nextMove = searchBestMove(this.player, SEARCH_BEST_MOVE_TIME);
 		
-		// Lets the search run a maximum amount of time
-		Thread.sleep(SEARCH_BEST_MOVE_TIME);
-		this.player.stopSearchBestMove();
+		// A search stopped before it finished searching any move still plays a legal move
+		if(nextMove == null)
+		{
+			System.out.println("Warning: no move found, a random move is played");
+			nextMove = this.getRandomMove();
+		}
 		
-		// Plays the best move found so far
-		Move nextMove = this.player.getBestMoveFound();
 		this.client.sendOutputs(nextMove.toString().getBytes());
 		this.board.makeMove(nextMove);
 	}
@@ -166,7 +273,7 @@ public class MessageDispatcher {
 	{
 		System.out.println("Read Board has been called");
 		
-		this.board = Board.createBoard(squaresAsString);
+		this.board = Board.createBoard(squaresAsString, BOARD_TYPE);
 		
 		this.board.printIntoConsole();
 		
@@ -179,7 +286,7 @@ public class MessageDispatcher {
 		
 		int opponentColor = (playerColor == 2) ? 4 : 2;
 		
-		this.player = new DeepThought(this.board, playerColor);
+		this.player = createPlayer(this.board, playerColor);
 		this.playerColor = playerColor;
 	}
 }
@@ -0,0 +1,146 @@
+package test;
+
+import static org.junit.Assert.*;
+import game.BitBoard;
+import game.Board;
+import game.Move;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class BitBoardTest
+{
+	private static int[][] createInitialSquares()
+	{
+		return new int[][] {
+				{0,2,2,2,2,2,2,0},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{0,2,2,2,2,2,2,0}
+			};
+	}
+	
+	@Test
+	public void sameMovesAsArrayBoard()
+	{
+		Board arrayBoard = new Board(createInitialSquares());
+		Board bitBoard = new BitBoard(createInitialSquares());
+		Random random = new Random(320);
+		int playerColor = Board.BLACK_PLAYER;
+		
+		for(int moveIndex = 0; moveIndex < 60; moveIndex++)
+		{
+			Move[] arrayMoves = arrayBoard.getPossibleMoves(playerColor);
+			Move[] bitMoves = bitBoard.getPossibleMoves(playerColor);
+			
+			assertEquals(arrayMoves.length, bitMoves.length);
+			assertEquals(arrayMoves.length, arrayBoard.countPossibleMoves(playerColor));
+			assertEquals(arrayMoves.length, bitBoard.countPossibleMoves(playerColor));
+			
+			for(int index = 0; index < arrayMoves.length; index++)
+			{
+				assertTrue(arrayMoves[index].isEquals(bitMoves[index]));
+			}
+			
+			assertEquals(arrayBoard.isWinning(Board.BLACK_PLAYER), bitBoard.isWinning(Board.BLACK_PLAYER));
+			assertEquals(arrayBoard.isWinning(Board.WHITE_PLAYER), bitBoard.isWinning(Board.WHITE_PLAYER));
+			assertEquals(arrayBoard.getGroupsCount(playerColor), bitBoard.getGroupsCount(playerColor));
+			assertEquals(arrayBoard.getLargestGroupSize(playerColor), bitBoard.getLargestGroupSize(playerColor));
+			
+			// The bitboards hold the same position as the squares
+			assertTrue(Arrays.deepEquals(arrayBoard.getSquares(), bitBoard.getSquares()));
+			assertEquals(arrayBoard.getZobristKey(), bitBoard.getZobristKey());
+			assertEquals(arrayBoard.getValue(), bitBoard.getValue(), 0.0001);
+			
+			for(int square = 0; square < 64; square++)
+			{
+				assertEquals(arrayBoard.getNeighbourhood(playerColor, square, 27), bitBoard.getNeighbourhood(playerColor, square, 27));
+			}
+			
+			if(arrayMoves.length == 0 || arrayBoard.isWinning(Board.BLACK_PLAYER) || arrayBoard.isWinning(Board.WHITE_PLAYER))
+			{
+				break;
+			}
+			
+			int chosenMove = random.nextInt(arrayMoves.length);
+			arrayBoard.makeMove(arrayMoves[chosenMove]);
+			bitBoard.makeMove(bitMoves[chosenMove]);
+			
+			playerColor = (playerColor == Board.BLACK_PLAYER) ? Board.WHITE_PLAYER : Board.BLACK_PLAYER;
+		}
+	}
+	
+	@Test
+	public void makeAndUnmakeMove()
+	{
+		BitBoard board = new BitBoard(createInitialSquares());
+		long blackPawns = board.getPawns(Board.BLACK_PLAYER);
+		long whitePawns = board.getPawns(Board.WHITE_PLAYER);
+		
+		Move[] moves = board.getPossibleMoves(Board.BLACK_PLAYER);
+		
+		for(int index = 0; index < moves.length; index++)
+		{
+			board.makeMove(moves[index]);
+			
+			assertEquals(12, Long.bitCount(board.getPawns(Board.BLACK_PLAYER)));
+			assertEquals(0, board.getPawns(Board.BLACK_PLAYER) & board.getPawns(Board.WHITE_PLAYER));
+			
+			board.unmakeMove(moves[index]);
+			
+			assertEquals(blackPawns, board.getPawns(Board.BLACK_PLAYER));
+			assertEquals(whitePawns, board.getPawns(Board.WHITE_PLAYER));
+		}
+	}
+	
+	@Test
+	public void copyIsIndependent()
+	{
+		Board board = new BitBoard(createInitialSquares());
+		Move move = board.getPossibleMoves(Board.BLACK_PLAYER)[0];
+		board.makeMove(move);
+		
+		Board copy = board.copy();
+		
+		assertTrue(copy instanceof BitBoard);
+		assertEquals(board.getZobristKey(), copy.getZobristKey());
+		assertEquals(board.getPawns(Board.BLACK_PLAYER), copy.getPawns(Board.BLACK_PLAYER));
+		assertEquals(board.getQuadHeuristic().getBlackPawnsValue(), copy.getQuadHeuristic().getBlackPawnsValue(), 0);
+		
+		// Moves on the copy don't change the original board
+		long blackPawns = board.getPawns(Board.BLACK_PLAYER);
+		copy.makeMove(copy.getPossibleMoves(Board.WHITE_PLAYER)[0]);
+		
+		assertEquals(blackPawns, board.getPawns(Board.BLACK_PLAYER));
+		assertTrue(board.getZobristKey() != copy.getZobristKey());
+	}
+	
+	@Test
+	public void connectedPawnsWin()
+	{
+		int[][] squares = new int[][] {
+				{0,4,4,4,4,4,4,0},
+				{0,2,0,0,0,0,0,0},
+				{0,2,0,0,0,0,0,0},
+				{0,0,2,0,0,0,0,0},
+				{2,2,0,2,0,0,0,0},
+				{2,2,0,0,2,0,0,0},
+				{2,2,2,0,0,0,0,0},
+				{0,4,4,4,4,4,4,0}
+			};
+		
+		Board board = new BitBoard(squares);
+		
+		assertFalse(board.isWinning(Board.WHITE_PLAYER));
+		assertTrue(board.isWinning(Board.BLACK_PLAYER));
+		assertEquals(1, board.getGroupsCount(Board.BLACK_PLAYER));
+		assertEquals(2, board.getGroupsCount(Board.WHITE_PLAYER));
+		assertEquals(6, board.getLargestGroupSize(Board.WHITE_PLAYER));
+	}
+}
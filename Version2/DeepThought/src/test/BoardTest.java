@@ -2,8 +2,11 @@ package test;
 
 import static org.junit.Assert.*;
 import game.Board;
+import game.Move;
 import game.QuadHeuristic;
 
+import java.util.Random;
+
 import org.junit.Test;
 
 public class BoardTest {
@@ -27,4 +30,117 @@ public class BoardTest {
 		assertFalse(board.isWinning(4));
 		assertTrue(board.isWinning(2));
 	}
+	
+	@Test
+	public void zobristKey()
+	{
+		int[][] squares = new int[][] {
+				{0,2,2,2,2,2,2,0},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{0,2,2,2,2,2,2,0}
+			};
+		
+		Board board = new Board(squares);
+		long initialKey = board.getZobristKey();
+		Random random = new Random(320);
+		Move[] playedMoves = new Move[40];
+		int playerColor = Board.BLACK_PLAYER;
+		int playedMovesCount = 0;
+		
+		assertTrue(board.isZobristKeyValid());
+		
+		for(; playedMovesCount < playedMoves.length; playedMovesCount++)
+		{
+			Move[] moves = board.getPossibleMoves(playerColor);
+			long keyBefore = board.getZobristKey();
+			
+			playedMoves[playedMovesCount] = moves[random.nextInt(moves.length)];
+			board.makeMove(playedMoves[playedMovesCount]);
+			
+			assertTrue(board.isZobristKeyValid());
+			assertTrue(keyBefore != board.getZobristKey());
+			
+			playerColor = (playerColor == Board.BLACK_PLAYER) ? Board.WHITE_PLAYER : Board.BLACK_PLAYER;
+		}
+		
+		for(playedMovesCount--; playedMovesCount >= 0; playedMovesCount--)
+		{
+			board.unmakeMove(playedMoves[playedMovesCount]);
+			
+			assertTrue(board.isZobristKeyValid());
+		}
+		
+		assertEquals(initialKey, board.getZobristKey());
+	}
+	
+	@Test
+	public void zobristKeyTransposition()
+	{
+		int[][] squares = new int[][] {
+				{0,2,2,2,2,2,2,0},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{0,2,2,2,2,2,2,0}
+			};
+		
+		Board board = new Board(squares);
+		
+		Move blackMove1 = new Move(0, 1, 2, 1);
+		Move whiteMove1 = new Move(1, 0, 1, 2);
+		Move blackMove2 = new Move(7, 1, 5, 1);
+		Move whiteMove2 = new Move(1, 7, 1, 5);
+		
+		board.makeMove(blackMove1);
+		board.makeMove(whiteMove1);
+		board.makeMove(blackMove2);
+		board.makeMove(whiteMove2);
+		long firstOrderKey = board.getZobristKey();
+		
+		board.unmakeMove(whiteMove2);
+		board.unmakeMove(blackMove2);
+		board.unmakeMove(whiteMove1);
+		board.unmakeMove(blackMove1);
+		
+		board.makeMove(blackMove2);
+		board.makeMove(whiteMove2);
+		board.makeMove(blackMove1);
+		board.makeMove(whiteMove1);
+		
+		assertEquals(firstOrderKey, board.getZobristKey());
+	}
+	
+	@Test
+	public void squaresNotShared()
+	{
+		int[][] squares = new int[][] {
+				{0,2,2,2,2,2,2,0},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{0,2,2,2,2,2,2,0}
+			};
+		
+		Board board = new Board(squares);
+		long zobristKey = board.getZobristKey();
+		
+		// Changing the array given to the board or the one it returns doesn't change the board
+		squares[0][1] = Board.BLANK_SQUARE;
+		board.getSquares()[0][2] = Board.BLANK_SQUARE;
+		
+		assertEquals(Board.BLACK_PLAYER, board.getSquares()[0][1]);
+		assertEquals(Board.BLACK_PLAYER, board.getSquares()[0][2]);
+		assertEquals(zobristKey, board.calculateZobristKey());
+	}
 }
@@ -1,14 +1,103 @@
 package test;
 
 import static org.junit.Assert.*;
+import game.Board;
+import game.CentralizationHeuristic;
+import game.Move;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
 
 import org.junit.Test;
 
 public class CentralizationHeuristicTest {
-
+	
+	private static int[][] createInitialSquares()
+	{
+		return new int[][] {
+				{0,2,2,2,2,2,2,0},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{0,2,2,2,2,2,2,0}
+			};
+	}
+	
 	@Test
-	public void test() {
-		fail("Not yet implemented");
+	public void defaultSquareValues()
+	{
+		CentralizationHeuristic.resetSquareValues();
+		
+		Board board = new Board(createInitialSquares());
+		CentralizationHeuristic heuristic = board.getCentralizationHeuristic();
+		
+		assertEquals(0, heuristic.getBlackPawnsValue());
+		assertEquals(0, heuristic.getWhitePawnsValue());
+		
+		// B1 to B3 leaves the edge for a square one step away from it
+		Move move = new Move(0, 1, 2, 1, 2, 0);
+		board.makeMove(move);
+		
+		assertEquals(1, heuristic.getBlackPawnsValue());
+		assertEquals(0, heuristic.getWhitePawnsValue());
+		
+		board.unmakeMove(move);
+		
+		assertEquals(0, heuristic.getBlackPawnsValue());
+		assertEquals(0, heuristic.getWhitePawnsValue());
+	}
+	
+	@Test
+	public void loadedSquareValues() throws IOException
+	{
+		File file = File.createTempFile("centralization", ".txt");
+		FileWriter writer = new FileWriter(file);
+		
+		// Black pawns are worth their row index, white pawns their column index
+		for(int square = 0; square < 64; square++)
+		{
+			writer.write((square >>> 3) + " ");
+		}
+		
+		for(int square = 0; square < 64; square++)
+		{
+			writer.write((square & 7) + " ");
+		}
+		
+		writer.close();
+		
+		try
+		{
+			assertTrue(CentralizationHeuristic.loadSquareValues(file.getPath()));
+			
+			Board board = new Board(createInitialSquares());
+			CentralizationHeuristic heuristic = board.getCentralizationHeuristic();
+			
+			assertEquals(6 * 7, heuristic.getBlackPawnsValue());
+			assertEquals(6 * 7, heuristic.getWhitePawnsValue());
+			
+			// Black B8 captures the white pawn on H2
+			Move move = new Move(7, 1, 1, 7, 2, 4);
+			board.makeMove(move);
+			
+			assertEquals(6 * 7 - 7 + 1, heuristic.getBlackPawnsValue());
+			assertEquals(6 * 7 - 7, heuristic.getWhitePawnsValue());
+		}
+		finally
+		{
+			CentralizationHeuristic.resetSquareValues();
+			file.delete();
+		}
+	}
+	
+	@Test
+	public void invalidSquareValuesFile()
+	{
+		assertFalse(CentralizationHeuristic.loadSquareValues("missing-centralization.txt"));
+		assertArrayEquals(CentralizationHeuristic.getSquareValues(Board.BLACK_PLAYER), CentralizationHeuristic.getSquareValues(Board.WHITE_PLAYER));
 	}
-
 }
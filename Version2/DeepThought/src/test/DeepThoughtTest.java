@@ -0,0 +1,117 @@
+package test;
+
+import static org.junit.Assert.*;
+import ai.DeepThought;
+import game.Board;
+import game.Move;
+
+import org.junit.Test;
+
+public class DeepThoughtTest
+{
+	// Nodes a search with a passed deadline visits before its first check of the time
+	private static final int NODES_BEFORE_TIME_CHECK = 1024;
+	
+	@Test
+	public void interruptedDepthKeepsLastCompletedMove() throws InterruptedException
+	{
+		// The searches are deterministic, so a search stopped at a number of nodes has done the same depths as
+		// the searches limited to these depths
+		Move completedDepthMove = null;
+		int depth = 1;
+		
+		while(true)
+		{
+			DeepThought deepThought = new DeepThought(createInitialBoard(), Board.BLACK_PLAYER);
+			deepThought.setMaxSearchDepth(depth);
+			deepThought.searchBestMove();
+			
+			if(deepThought.getNodesCount() >= NODES_BEFORE_TIME_CHECK)
+			{
+				break;
+			}
+			
+			completedDepthMove = deepThought.getBestMoveFound();
+			depth++;
+		}
+		
+		assertNotNull(completedDepthMove);
+		
+		// The deadline is already passed, so the search stops at its first check of the time, during the depth searched above
+		DeepThought deepThought = new DeepThought(createInitialBoard(), Board.BLACK_PLAYER);
+		deepThought.setDeadline(System.nanoTime() - 1);
+		deepThought.searchBestMove();
+		
+		assertEquals(NODES_BEFORE_TIME_CHECK, deepThought.getNodesCount());
+		assertEquals(completedDepthMove.toString(), deepThought.getBestMoveFound().toString());
+	}
+	
+	@Test
+	public void quiescenceSearchSeesConnectionAfterHorizon() throws InterruptedException
+	{
+		// Position of a random game. At depth 1 A6D3 has the best static value, but white then connects all his pawns.
+		int[][] squares = new int[][] {
+				{0,0,0,2,0,2,0,0},
+				{0,0,2,0,0,2,0,0},
+				{0,0,0,4,2,0,0,0},
+				{0,0,0,0,0,0,0,0},
+				{2,0,0,0,0,0,0,0},
+				{2,0,4,0,2,4,0,0},
+				{0,0,0,4,0,0,4,4},
+				{0,0,4,0,2,0,2,0},
+		};
+		
+		DeepThought staticLeaves = new DeepThought(Board.createBoard(squares, Board.BIT_BOARD), Board.BLACK_PLAYER);
+		staticLeaves.setMaxSearchDepth(1);
+		staticLeaves.setQuiescenceSearch(false);
+		staticLeaves.searchBestMove();
+		
+		assertEquals("A6D3", staticLeaves.getBestMoveFound().toString());
+		assertTrue(canConnectAfter(Board.createBoard(squares, Board.BIT_BOARD), staticLeaves.getBestMoveFound(), Board.WHITE_PLAYER));
+		
+		// The quiescence search at the leaves plays white's connection and avoids the move
+		DeepThought quiescentLeaves = new DeepThought(Board.createBoard(squares, Board.BIT_BOARD), Board.BLACK_PLAYER);
+		quiescentLeaves.setMaxSearchDepth(1);
+		quiescentLeaves.searchBestMove();
+		
+		assertFalse(canConnectAfter(Board.createBoard(squares, Board.BIT_BOARD), quiescentLeaves.getBestMoveFound(), Board.WHITE_PLAYER));
+	}
+	
+	// Determines if the opponent can connect all his pawns in one move after a move of the player
+	private static boolean canConnectAfter(Board board, Move move, int opponentColor)
+	{
+		int playerColor = (opponentColor == Board.BLACK_PLAYER) ? Board.WHITE_PLAYER : Board.BLACK_PLAYER;
+		board.makeMove(board.getPossibleMove(move.getFromRowIndex() * 8 + move.getFromColumnIndex(), move.getToRowIndex() * 8 + move.getToColumnIndex(), playerColor));
+		
+		int[] moves = new int[Board.MAX_MOVES];
+		int movesCount = board.generatePossibleMoves(opponentColor, moves);
+		
+		for(int index = 0; index < movesCount; index++)
+		{
+			board.makeMove(moves[index]);
+			boolean connected = board.isWinning(opponentColor);
+			board.unmakeMove(moves[index]);
+			
+			if(connected)
+			{
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	private static Board createInitialBoard()
+	{
+		return Board.createBoard(new int[][] {
+				{0,2,2,2,2,2,2,0},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{0,2,2,2,2,2,2,0},
+		}, Board.BIT_BOARD);
+	}
+}
@@ -0,0 +1,122 @@
+package test;
+
+import static org.junit.Assert.*;
+import game.Board;
+import game.MailboxBoard;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MailboxBoardTest
+{
+	@Test
+	public void sameMovesAsArrayBoard()
+	{
+		int[][] squares = new int[][] {
+				{0,2,2,2,2,2,2,0},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{0,2,2,2,2,2,2,0}
+			};
+		
+		int[][] mailboxSquares = new int[8][];
+		
+		for(int rowIndex = 0; rowIndex < 8; rowIndex++)
+		{
+			mailboxSquares[rowIndex] = squares[rowIndex].clone();
+		}
+		
+		Board arrayBoard = new Board(squares);
+		Board mailboxBoard = new MailboxBoard(mailboxSquares);
+		int[] arrayMoves = new int[Board.MAX_MOVES];
+		int[] mailboxMoves = new int[Board.MAX_MOVES];
+		Random random = new Random(320);
+		int playerColor = Board.BLACK_PLAYER;
+		
+		for(int moveIndex = 0; moveIndex < 60; moveIndex++)
+		{
+			int arrayMovesCount = arrayBoard.generatePossibleMoves(playerColor, arrayMoves);
+			int mailboxMovesCount = mailboxBoard.generatePossibleMoves(playerColor, mailboxMoves);
+			
+			assertEquals(arrayMovesCount, mailboxMovesCount);
+			assertEquals(arrayMovesCount, mailboxBoard.countPossibleMoves(playerColor));
+			
+			for(int index = 0; index < arrayMovesCount; index++)
+			{
+				assertEquals(arrayMoves[index], mailboxMoves[index]);
+			}
+			
+			assertEquals(arrayBoard.isWinning(playerColor), mailboxBoard.isWinning(playerColor));
+			assertEquals(arrayBoard.getGroupsCount(playerColor), mailboxBoard.getGroupsCount(playerColor));
+			assertEquals(arrayBoard.getLargestGroupSize(playerColor), mailboxBoard.getLargestGroupSize(playerColor));
+			
+			// The mailbox holds the same position as the squares
+			assertTrue(Arrays.deepEquals(arrayBoard.getSquares(), mailboxBoard.getSquares()));
+			assertEquals(arrayBoard.getPawns(playerColor), mailboxBoard.getPawns(playerColor));
+			assertEquals(arrayBoard.getZobristKey(), mailboxBoard.getZobristKey());
+			assertEquals(arrayBoard.getValue(), mailboxBoard.getValue(), 0.0001);
+			
+			for(int square = 0; square < 64; square++)
+			{
+				assertEquals(arrayBoard.getNeighbourhood(playerColor, square, 27), mailboxBoard.getNeighbourhood(playerColor, square, 27));
+			}
+			
+			if(arrayMovesCount == 0 || arrayBoard.isWinning(Board.BLACK_PLAYER) || arrayBoard.isWinning(Board.WHITE_PLAYER))
+			{
+				break;
+			}
+			
+			int chosenMove = arrayMoves[random.nextInt(arrayMovesCount)];
+			arrayBoard.makeMove(chosenMove);
+			mailboxBoard.makeMove(chosenMove);
+			
+			playerColor = (playerColor == Board.BLACK_PLAYER) ? Board.WHITE_PLAYER : Board.BLACK_PLAYER;
+		}
+	}
+	
+	@Test
+	public void copyMakeMove()
+	{
+		Board board = new MailboxBoard(new int[][] {
+				{0,2,2,2,2,2,2,0},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{0,2,2,2,2,2,2,0}
+			});
+		Board copy = board.copy();
+		int[] moves = new int[Board.MAX_MOVES];
+		int[] copyMoves = new int[Board.MAX_MOVES];
+		int movesCount = board.generatePossibleMoves(Board.BLACK_PLAYER, moves);
+		long zobristKey = board.getZobristKey();
+		
+		for(int index = 0; index < movesCount; index++)
+		{
+			copy.copyMakeMove(board, moves[index]);
+			
+			// The copy holds the position after the move, the board is unchanged
+			assertEquals(zobristKey, board.getZobristKey());
+			assertTrue(copy.isZobristKeyValid());
+			
+			board.makeMove(moves[index]);
+			
+			assertEquals(board.getZobristKey(), copy.getZobristKey());
+			assertEquals(board.getPawns(Board.WHITE_PLAYER), copy.getPawns(Board.WHITE_PLAYER));
+			assertEquals(board.getPawns(Board.BLACK_PLAYER), copy.getPawns(Board.BLACK_PLAYER));
+			assertEquals(board.getQuadHeuristic().getBlackPawnsValue(), copy.getQuadHeuristic().getBlackPawnsValue(), 0);
+			assertEquals(board.getCentralizationHeuristic().getBlackPawnsValue(), copy.getCentralizationHeuristic().getBlackPawnsValue());
+			assertEquals(board.generatePossibleMoves(Board.WHITE_PLAYER, new int[Board.MAX_MOVES]), copy.generatePossibleMoves(Board.WHITE_PLAYER, copyMoves));
+			
+			board.unmakeMove(moves[index]);
+		}
+	}
+}
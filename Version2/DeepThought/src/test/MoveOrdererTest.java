@@ -0,0 +1,60 @@
+package test;
+
+import static org.junit.Assert.*;
+import game.Board;
+import game.Move;
+import game.MoveOrderer;
+
+import org.junit.Test;
+
+public class MoveOrdererTest
+{
+	private static int createMove(int fromSquare, int toSquare, int playerColor)
+	{
+		return Move.pack(fromSquare >>> 3, fromSquare & 7, toSquare >>> 3, toSquare & 7, playerColor, Board.BLANK_SQUARE);
+	}
+	
+	@Test
+	public void killerMovesFirst()
+	{
+		MoveOrderer orderer = new MoveOrderer();
+		int[] moves = new int[] {createMove(1, 17, 2), createMove(2, 18, 2), createMove(3, 19, 2), createMove(4, 20, 2)};
+		
+		orderer.signalCutoff(moves[3], 2);
+		orderer.signalCutoff(moves[2], 2);
+		orderer.orderMoves(moves, moves.length, 2);
+		
+		// The most recent killer move comes first, then the older one
+		assertTrue(Move.isSamePackedMove(createMove(3, 19, 2), moves[0]));
+		assertTrue(Move.isSamePackedMove(createMove(4, 20, 2), moves[1]));
+	}
+	
+	@Test
+	public void historyAndCounterMoves()
+	{
+		MoveOrderer orderer = new MoveOrderer();
+		int opponentMove = createMove(8, 16, 4);
+		int[] moves = new int[] {createMove(1, 17, 2), createMove(2, 18, 2), createMove(3, 19, 2)};
+		
+		// Cutoffs at another depth only leave history scores
+		orderer.signalCutoff(moves[1], 5, 2, Move.NO_MOVE);
+		orderer.signalCutoff(moves[2], 5, 3, Move.NO_MOVE);
+		orderer.signalCutoff(moves[0], 6, 1, opponentMove);
+		orderer.orderMoves(moves, moves.length, 1);
+		
+		assertTrue(Move.isSamePackedMove(createMove(3, 19, 2), moves[0]));
+		assertTrue(Move.isSamePackedMove(createMove(2, 18, 2), moves[1]));
+		assertTrue(Move.isSamePackedMove(createMove(1, 17, 2), moves[2]));
+		
+		// The counter move of the opponent's move comes before the history
+		orderer.orderMoves(moves, moves.length, 1, opponentMove);
+		
+		assertTrue(Move.isSamePackedMove(createMove(1, 17, 2), moves[0]));
+		
+		// Aging halves the history scores
+		assertEquals(9, orderer.getHistoryScore(createMove(3, 19, 2)));
+		orderer.ageHistory();
+		assertEquals(4, orderer.getHistoryScore(createMove(3, 19, 2)));
+		assertEquals(0, orderer.getHistoryScore(createMove(3, 19, 4)));
+	}
+}
@@ -0,0 +1,120 @@
+package test;
+
+import static org.junit.Assert.*;
+import game.Board;
+import game.BitBoard;
+import game.Move;
+import game.MoveOrderer;
+import game.MovePicker;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MovePickerTest
+{
+	@Test
+	public void givesEveryMoveOnce()
+	{
+		Board board = new BitBoard(new int[][] {
+				{0,2,2,2,2,2,2,0},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{0,2,2,2,2,2,2,0}
+			});
+		MoveOrderer orderer = new MoveOrderer();
+		MovePicker picker = new MovePicker(board, orderer);
+		Random random = new Random(320);
+		int[] moves = new int[Board.MAX_MOVES];
+		int playerColor = Board.BLACK_PLAYER;
+		int previousMove = Move.NO_MOVE;
+		
+		for(int moveIndex = 0; moveIndex < 40; moveIndex++)
+		{
+			int movesCount = board.generatePossibleMoves(playerColor, moves);
+			
+			if(movesCount == 0 || board.isWinning(Board.BLACK_PLAYER) || board.isWinning(Board.WHITE_PLAYER))
+			{
+				break;
+			}
+			
+			// Remembers random moves as hash, killer and counter moves, some of them invalid in the position
+			int hashMove = moves[random.nextInt(movesCount)];
+			orderer.signalCutoff(moves[random.nextInt(movesCount)], 1, 1, previousMove);
+			orderer.signalCutoff(Move.pack(3, 3, 4, 4, playerColor, Board.BLANK_SQUARE), 1);
+			
+			picker.init(playerColor, 1, hashMove, previousMove);
+			
+			int pickedMovesCount = 0;
+			boolean[] picked = new boolean[movesCount];
+			int move;
+			
+			while((move = picker.nextMove()) != Move.NO_MOVE)
+			{
+				int foundIndex = -1;
+				
+				for(int index = 0; index < movesCount; index++)
+				{
+					if(moves[index] == move)
+					{
+						foundIndex = index;
+					}
+				}
+				
+				assertTrue(foundIndex != -1);
+				assertFalse(picked[foundIndex]);
+				
+				picked[foundIndex] = true;
+				pickedMovesCount++;
+			}
+			
+			assertEquals(movesCount, pickedMovesCount);
+			
+			previousMove = moves[random.nextInt(movesCount)];
+			board.makeMove(previousMove);
+			playerColor = (playerColor == Board.BLACK_PLAYER) ? Board.WHITE_PLAYER : Board.BLACK_PLAYER;
+		}
+	}
+	
+	@Test
+	public void hashMoveThenCaptures()
+	{
+		Board board = new BitBoard(new int[][] {
+				{0,0,0,0,0,0,0,0},
+				{0,0,0,0,4,0,0,0},
+				{0,0,0,0,0,0,0,0},
+				{0,0,2,0,0,0,0,0},
+				{0,0,0,0,0,0,0,0},
+				{0,0,0,0,0,0,0,0},
+				{0,0,0,0,0,0,0,0},
+				{0,0,0,0,0,0,0,0}
+			});
+		MovePicker picker = new MovePicker(board, new MoveOrderer());
+		int hashMove = Move.pack(3, 2, 4, 2, Board.BLACK_PLAYER, Board.BLANK_SQUARE);
+		
+		picker.init(Board.BLACK_PLAYER, 0, hashMove, Move.NO_MOVE);
+		
+		assertEquals(hashMove, picker.nextMove());
+		
+		// C4 captures E2 before the quiet moves
+		int capture = picker.nextMove();
+		
+		assertEquals(Board.WHITE_PLAYER, Move.getPackedCapturedSquare(capture));
+		assertEquals(1 * 8 + 4, Move.getPackedToSquare(capture));
+		
+		int move;
+		int quietMovesCount = 0;
+		
+		while((move = picker.nextMove()) != Move.NO_MOVE)
+		{
+			assertEquals(Board.BLANK_SQUARE, Move.getPackedCapturedSquare(move));
+			quietMovesCount++;
+		}
+		
+		assertEquals(6, quietMovesCount);
+	}
+}
@@ -0,0 +1,90 @@
+package test;
+
+import static org.junit.Assert.*;
+import game.Board;
+import game.Move;
+import ai.ProofNumberSolver;
+
+import org.junit.Test;
+
+public class ProofNumberSolverTest
+{
+	private static final long TIME_LIMIT = 2000;
+	
+	@Test
+	public void provesWinAndLoss()
+	{
+		Board board = new Board(new int[][] {
+				{4,0,0,0,2,0,0,0},
+				{0,0,0,0,0,0,0,0},
+				{0,0,0,0,0,0,0,0},
+				{0,0,0,0,0,0,0,0},
+				{0,0,0,2,2,0,0,0},
+				{0,0,0,2,0,0,0,0},
+				{0,0,0,0,0,0,0,0},
+				{0,0,0,0,0,0,0,4}
+			});
+		ProofNumberSolver solver = new ProofNumberSolver(board, 4);
+		long blackPawns = board.getPawns(Board.BLACK_PLAYER);
+		long whitePawns = board.getPawns(Board.WHITE_PLAYER);
+		
+		assertEquals(4, board.getPawnsCount(Board.BLACK_PLAYER));
+		assertEquals(6, board.getPawnsCount());
+		assertEquals(ProofNumberSolver.PROVEN_WIN, solver.solve(Board.BLACK_PLAYER, TIME_LIMIT));
+		assertEquals(blackPawns, board.getPawns(Board.BLACK_PLAYER));
+		assertEquals(whitePawns, board.getPawns(Board.WHITE_PLAYER));
+		
+		// After the winning move, white loses whatever he plays
+		int winningMove = solver.getBestMove();
+		
+		assertTrue(winningMove != Move.NO_MOVE);
+		board.makeMove(winningMove);
+		assertEquals(ProofNumberSolver.PROVEN_LOSS, solver.solve(Board.WHITE_PLAYER, TIME_LIMIT));
+		assertEquals(Move.NO_MOVE, solver.getBestMove());
+	}
+	
+	@Test
+	public void playerWithoutMovesPasses()
+	{
+		// White's pawns are surrounded by black pawns they can't jump over
+		Board board = new Board(new int[][] {
+				{0,0,0,0,0,0,0,2},
+				{0,0,0,0,0,0,0,0},
+				{0,0,0,0,0,0,0,0},
+				{0,0,0,0,0,0,0,0},
+				{2,2,0,0,0,0,0,0},
+				{4,2,0,0,0,0,0,0},
+				{2,2,0,0,0,0,0,0},
+				{4,2,0,0,0,0,0,0}
+			});
+		ProofNumberSolver solver = new ProofNumberSolver(board, 4);
+		
+		assertEquals(0, board.generatePossibleMoves(Board.WHITE_PLAYER, new int[Board.MAX_MOVES]));
+		
+		// White passes and black connects his pawns
+		assertEquals(ProofNumberSolver.PROVEN_LOSS, solver.solve(Board.WHITE_PLAYER, TIME_LIMIT));
+		assertEquals(Move.NO_MOVE, solver.getBestMove());
+		assertEquals(ProofNumberSolver.PROVEN_WIN, solver.solve(Board.BLACK_PLAYER, TIME_LIMIT));
+		assertTrue(solver.getBestMove() != Move.NO_MOVE);
+	}
+	
+	@Test
+	public void unknownWhenTreeIsFull()
+	{
+		Board board = new Board(new int[][] {
+				{0,2,2,2,2,2,2,0},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{0,2,2,2,2,2,2,0}
+			});
+		ProofNumberSolver solver = new ProofNumberSolver(board, 1);
+		
+		assertEquals(ProofNumberSolver.UNKNOWN_RESULT, solver.solve(Board.BLACK_PLAYER, TIME_LIMIT));
+		assertEquals(Move.NO_MOVE, solver.getBestMove());
+		assertTrue(solver.getExpandedNodesCount() > 0);
+	}
+}
@@ -5,6 +5,8 @@ import game.Board;
 import game.Move;
 import game.QuadHeuristic;
 
+import java.util.Random;
+
 import org.junit.Test;
 
 public class QuadHeuristicTest 
@@ -234,4 +236,59 @@ public class QuadHeuristicTest
 		assertEquals(3, heuristic.getBlackPawnsValue(), DELTA);
 		assertEquals(3, heuristic.getWhitePawnsValue(), DELTA);
 	}
+	
+	@Test
+	public void bitBoardModeMatchesArrayMode()
+	{
+		int[][] squares = new int[][] {
+				{0,2,2,2,2,2,2,0},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{0,2,2,2,2,2,2,0}
+			};
+		
+		Board board = new Board(squares);
+		QuadHeuristic heuristic = new QuadHeuristic(board, QuadHeuristic.BITBOARD_MODE);
+		Random random = new Random(320);
+		int[] moves = new int[Board.MAX_MOVES];
+		int[] playedMoves = new int[80];
+		int playerColor = Board.BLACK_PLAYER;
+		int playedMovesCount = 0;
+		
+		while(playedMovesCount < playedMoves.length)
+		{
+			int movesCount = board.generatePossibleMoves(playerColor, moves);
+			
+			if(movesCount == 0 || board.isWinning(Board.BLACK_PLAYER) || board.isWinning(Board.WHITE_PLAYER))
+			{
+				break;
+			}
+			
+			playedMoves[playedMovesCount] = moves[random.nextInt(movesCount)];
+			board.makeMove(playedMoves[playedMovesCount]);
+			heuristic.update(playedMoves[playedMovesCount], false);
+			playedMovesCount++;
+			
+			QuadHeuristic arrayHeuristic = new QuadHeuristic(board, QuadHeuristic.ARRAY_MODE);
+			
+			assertEquals(arrayHeuristic.getBlackPawnsValue(), heuristic.getBlackPawnsValue(), DELTA);
+			assertEquals(arrayHeuristic.getWhitePawnsValue(), heuristic.getWhitePawnsValue(), DELTA);
+			
+			playerColor = (playerColor == Board.BLACK_PLAYER) ? Board.WHITE_PLAYER : Board.BLACK_PLAYER;
+		}
+		
+		while(playedMovesCount > 0)
+		{
+			playedMovesCount--;
+			board.unmakeMove(playedMoves[playedMovesCount]);
+			heuristic.update(playedMoves[playedMovesCount], true);
+		}
+		
+		assertEquals(2, heuristic.getBlackPawnsValue(), DELTA);
+		assertEquals(2, heuristic.getWhitePawnsValue(), DELTA);
+	}
 }
@@ -0,0 +1,63 @@
+package test;
+
+import static org.junit.Assert.*;
+import ai.SearchController;
+
+import org.junit.Test;
+
+public class SearchControllerTest
+{
+	@Test
+	public void stop()
+	{
+		SearchController controller = new SearchController();
+		
+		assertFalse(controller.isSearching());
+		
+		controller.start();
+		assertTrue(controller.isSearching());
+		assertTrue(controller.checkTime(1024));
+		
+		controller.stop();
+		assertFalse(controller.isSearching());
+		assertFalse(controller.checkTime(1));
+	}
+	
+	@Test
+	public void deadline()
+	{
+		SearchController controller = new SearchController();
+		
+		controller.setDeadline(System.nanoTime() - 1);
+		controller.start();
+		
+		// The time is only checked every few positions
+		assertTrue(controller.checkTime(1));
+		assertTrue(controller.isSearching());
+		assertFalse(controller.checkTime(1024));
+		assertFalse(controller.isSearching());
+		
+		// A new search runs until the next check of the same deadline
+		controller.start();
+		assertTrue(controller.isSearching());
+		assertFalse(controller.checkTime(2048));
+	}
+	
+	@Test
+	public void limitTime()
+	{
+		SearchController controller = new SearchController();
+		
+		assertEquals(200, controller.limitTime(200));
+		
+		controller.setDeadline(System.nanoTime() + 1000 * 1000000L);
+		assertEquals(200, controller.limitTime(200));
+		assertTrue(controller.limitTime(5000) <= 1000);
+		
+		controller.setDeadline(System.nanoTime() - 1000000L);
+		assertEquals(0, controller.limitTime(200));
+		
+		controller.setDeadline(SearchController.NO_DEADLINE);
+		assertEquals(5000, controller.limitTime(5000));
+	}
+}
@@ -0,0 +1,76 @@
+package test;
+
+import static org.junit.Assert.*;
+import game.Board;
+import game.Move;
+import game.SlideTables;
+
+import org.junit.Test;
+
+public class SlideTablesTest
+{
+	@Test
+	public void distinctIndexes()
+	{
+		boolean[] usedIndexes = new boolean[64 * 8 * 9];
+		
+		for(int square = 0; square < 64; square++)
+		{
+			for(int direction = 0; direction < 8; direction++)
+			{
+				for(int distance = 0; distance <= 8; distance++)
+				{
+					int index = SlideTables.getIndex(square, direction, distance);
+					
+					assertFalse(usedIndexes[index]);
+					usedIndexes[index] = true;
+				}
+				
+				// A slide as long as a full line always leaves the board
+				assertEquals(SlideTables.NO_DESTINATION, SlideTables.getDestination(SlideTables.getIndex(square, direction, 8)));
+			}
+		}
+	}
+	
+	@Test
+	public void fullLines()
+	{
+		// Black fills the first row and white the rest of the last column, so both lines hold 8 pawns
+		int[][] squares = new int[8][8];
+		
+		for(int index = 0; index < 8; index++)
+		{
+			squares[0][index] = Board.BLACK_PLAYER;
+		}
+		
+		for(int rowIndex = 1; rowIndex < 8; rowIndex++)
+		{
+			squares[rowIndex][7] = Board.WHITE_PLAYER;
+		}
+		
+		int[] boardTypes = new int[] {Board.ARRAY_BOARD, Board.BIT_BOARD, Board.MAILBOX_BOARD};
+		int[] moves = new int[Board.MAX_MOVES];
+		
+		for(int typeIndex = 0; typeIndex < boardTypes.length; typeIndex++)
+		{
+			Board board = Board.createBoard(squares, boardTypes[typeIndex]);
+			
+			// No pawn can slide 8 squares along the full lines
+			int movesCount = board.generatePossibleMoves(Board.BLACK_PLAYER, moves);
+			assertTrue(movesCount > 0);
+			
+			for(int index = 0; index < movesCount; index++)
+			{
+				assertFalse(Move.getPackedToRowIndex(moves[index]) == 0);
+			}
+			
+			movesCount = board.generatePossibleMoves(Board.WHITE_PLAYER, moves);
+			assertTrue(movesCount > 0);
+			
+			for(int index = 0; index < movesCount; index++)
+			{
+				assertFalse(Move.getPackedFromColumnIndex(moves[index]) == 7 && Move.getPackedToColumnIndex(moves[index]) == 7);
+			}
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package test;
+
+import static org.junit.Assert.*;
+import ai.TranspositionTable;
+
+import org.junit.Test;
+
+public class TranspositionTableTest
+{
+	private static final double DELTA = 0.001;
+	
+	@Test
+	public void storeAndProbe()
+	{
+		TranspositionTable table = new TranspositionTable(1);
+		
+		assertEquals(TranspositionTable.NO_ENTRY, table.probe(12345L));
+		
+		table.store(12345L, 3, TranspositionTable.LOWER_BOUND, 2.75, 200);
+		int entryIndex = table.probe(12345L);
+		
+		assertTrue(entryIndex != TranspositionTable.NO_ENTRY);
+		assertEquals(3, table.getDepth(entryIndex));
+		assertEquals(TranspositionTable.LOWER_BOUND, table.getBound(entryIndex));
+		assertEquals(2.75, table.getScore(entryIndex), DELTA);
+		assertEquals(200, table.getMove(entryIndex));
+		assertEquals(1, table.getHitsCount());
+		assertEquals(1, table.getStoresCount());
+	}
+	
+	@Test
+	public void depthPreferredReplacement()
+	{
+		TranspositionTable table = new TranspositionTable(1);
+		long bucketsCount = table.getCapacity() / 2;
+		
+		// Both keys fall in the same bucket
+		long deepKey = 7L;
+		long shallowKey = 7L + bucketsCount;
+		long otherShallowKey = 7L + 2 * bucketsCount;
+		
+		table.store(deepKey, 5, TranspositionTable.EXACT_BOUND, 1, TranspositionTable.NO_MOVE);
+		table.store(shallowKey, 2, TranspositionTable.EXACT_BOUND, 2, TranspositionTable.NO_MOVE);
+		
+		assertTrue(table.probe(deepKey) != TranspositionTable.NO_ENTRY);
+		assertTrue(table.probe(shallowKey) != TranspositionTable.NO_ENTRY);
+		assertEquals(TranspositionTable.NO_MOVE, table.getMove(table.probe(shallowKey)));
+		
+		table.store(otherShallowKey, 1, TranspositionTable.EXACT_BOUND, 3, TranspositionTable.NO_MOVE);
+		
+		assertTrue(table.probe(deepKey) != TranspositionTable.NO_ENTRY);
+		assertEquals(TranspositionTable.NO_ENTRY, table.probe(shallowKey));
+		assertTrue(table.probe(otherShallowKey) != TranspositionTable.NO_ENTRY);
+		assertEquals(1, table.getCollisionsCount());
+		
+		// Entries of an older search can be replaced by shallower ones
+		table.newSearch();
+		table.store(shallowKey, 1, TranspositionTable.EXACT_BOUND, 2, TranspositionTable.NO_MOVE);
+		
+		assertEquals(TranspositionTable.NO_ENTRY, table.probe(deepKey));
+	}
+	
+	@Test
+	public void sharedEntries()
+	{
+		TranspositionTable table = new TranspositionTable(1);
+		TranspositionTable sharedTable = new TranspositionTable(table);
+		
+		table.store(12345L, 4, TranspositionTable.EXACT_BOUND, -1.5, 300);
+		int entryIndex = sharedTable.probe(12345L);
+		
+		assertTrue(entryIndex != TranspositionTable.NO_ENTRY);
+		assertEquals(4, sharedTable.getDepth(entryIndex));
+		assertEquals(-1.5, sharedTable.getScore(entryIndex), DELTA);
+		assertEquals(300, sharedTable.getMove(entryIndex));
+		
+		// Each table keeps its own statistics
+		assertEquals(0, table.getHitsCount());
+		assertEquals(1, sharedTable.getHitsCount());
+		
+		// A key only matches the entry stored for it
+		assertEquals(TranspositionTable.NO_ENTRY, sharedTable.probe(12345L ^ 1));
+	}
+}
@@ -0,0 +1,85 @@
+package test;
+
+import static org.junit.Assert.*;
+import game.Board;
+import game.Move;
+import ai.WinThreatSolver;
+
+import org.junit.Test;
+
+public class WinThreatSolverTest
+{
+	private static final long TIME_LIMIT = 1000;
+	
+	@Test
+	public void connectInOneMove()
+	{
+		// Black connects by moving E2 to E4, next to the group of D5, E5 and D6
+		Board board = new Board(new int[][] {
+				{4,0,0,0,0,0,0,0},
+				{0,0,0,0,2,0,0,0},
+				{0,0,0,0,0,0,0,0},
+				{0,0,0,0,0,0,0,0},
+				{0,0,0,2,2,0,0,0},
+				{0,0,0,2,0,0,0,0},
+				{0,0,0,0,0,0,0,0},
+				{0,0,0,0,0,0,0,4}
+			});
+		WinThreatSolver solver = new WinThreatSolver(board);
+		long blackPawns = board.getPawns(Board.BLACK_PLAYER);
+		
+		assertEquals(WinThreatSolver.FORCED_WIN, solver.solve(Board.BLACK_PLAYER, TIME_LIMIT));
+		assertEquals(1, solver.getConnectionMovesCount());
+		assertTrue(Move.isSamePackedMove(Move.pack(1, 4, 3, 4, Board.BLACK_PLAYER, 0), solver.getWinningMove()));
+		assertEquals(blackPawns, board.getPawns(Board.BLACK_PLAYER));
+		
+		// White can't stop the connection
+		assertEquals(WinThreatSolver.FORCED_LOSS, solver.solve(Board.WHITE_PLAYER, TIME_LIMIT));
+		assertEquals(1, solver.getConnectionMovesCount());
+		assertEquals(Move.NO_MOVE, solver.getWinningMove());
+	}
+	
+	@Test
+	public void connectInTwoMoves()
+	{
+		Board board = new Board(new int[][] {
+				{4,0,0,0,2,0,0,0},
+				{0,0,0,0,0,0,0,0},
+				{0,0,0,0,0,0,0,0},
+				{0,0,0,0,0,0,0,0},
+				{0,0,0,2,2,0,0,0},
+				{0,0,0,2,0,0,0,0},
+				{0,0,0,0,0,0,0,0},
+				{0,0,0,0,0,0,0,4}
+			});
+		WinThreatSolver solver = new WinThreatSolver(board);
+		
+		assertEquals(WinThreatSolver.FORCED_WIN, solver.solve(Board.BLACK_PLAYER, TIME_LIMIT));
+		assertEquals(2, solver.getConnectionMovesCount());
+		
+		// After the winning move, white loses whatever he plays
+		board.makeMove(solver.getWinningMove());
+		
+		assertEquals(WinThreatSolver.FORCED_LOSS, solver.solve(Board.WHITE_PLAYER, TIME_LIMIT));
+		assertEquals(1, solver.getConnectionMovesCount());
+	}
+	
+	@Test
+	public void noForcedConnection()
+	{
+		Board board = new Board(new int[][] {
+				{0,2,2,2,2,2,2,0},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{4,0,0,0,0,0,0,4},
+				{0,2,2,2,2,2,2,0}
+			});
+		WinThreatSolver solver = new WinThreatSolver(board);
+		
+		assertEquals(WinThreatSolver.NO_FORCED_RESULT, solver.solve(Board.BLACK_PLAYER, 100));
+		assertEquals(Move.NO_MOVE, solver.getWinningMove());
+	}
+}